@@ -0,0 +1,101 @@
+package com.francisco.cryptowallet.cache;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.francisco.cryptowallet.dto.PriceHistoryDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bounded cache of price histories fetched from the external API, keyed by
+ * (token id, interval, start minute, end minute).
+ * 
+ * Past prices never change, so only complete windows (ending before now) are cached
+ * and entries never expire; they're only evicted when the estimated size of all
+ * cached histories exceeds {@code token.history.cache.max-bytes}.
+ * 
+ * Hit, miss and eviction counters are exposed as cache.* metrics (cache=token.history).
+ * 
+ */
+@Component
+public class HistoricalPriceCache implements MeterBinder {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Estimated fixed cost of an entry (key, record, arrays' headers and map node).
+     */
+    private static final int ENTRY_OVERHEAD = 160;
+
+    /**
+     * Cache key. start and end are minute buckets (epoch minutes).
+     */
+    public record Key(String tokenId, String interval, long start, long end) {
+
+        public static Key of(String tokenId, String interval, long startMillis, long endMillis) {
+            return new Key(tokenId, interval, startMillis / MINUTE, endMillis / MINUTE);
+        }
+    }
+
+    @Value("${token.history.cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    private Cache<Key, PriceHistoryDTO> cache;
+
+    @PostConstruct
+    private void init() {
+        cache = Caffeine.newBuilder()
+                    .maximumWeight(maxBytes)
+                    .weigher((Key key, PriceHistoryDTO history) -> weight(history))
+                    .recordStats()
+                    .build();
+    }
+
+    /**
+     * @param key
+     * @return the cached history, if any
+     */
+    public Optional<PriceHistoryDTO> get(Key key) {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    /**
+     * Cache a history if its window is complete (it can't change anymore).
+     * 
+     * @param key
+     * @param history
+     */
+    public void put(Key key, PriceHistoryDTO history) {
+        if (key.end() * MINUTE <= System.currentTimeMillis()) {
+            cache.put(key, history);
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "token.history");
+    }
+
+    private static int weight(PriceHistoryDTO history) {
+        // 8 bytes per time + 8 bytes per price.
+        return ENTRY_OVERHEAD + history.size() * 16;
+    }
+}
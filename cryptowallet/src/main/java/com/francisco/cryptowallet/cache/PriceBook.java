@@ -0,0 +1,98 @@
+package com.francisco.cryptowallet.cache;
+
+import java.util.Collection;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.francisco.cryptowallet.domain.Token;
+
+/**
+ * In-memory book of the latest known price of each token, keyed by the token's id.
+ * 
+ * It's filled by the scheduled price update and by every live price fetch, and read
+ * when adding assets, mapping wallets and evaluating wallets, so those paths don't 
+ * need to call the external API for a price that was refreshed seconds ago.
+ * 
+ * A price is considered fresh while it's younger than {@code token.price.max-staleness} (ms).
+ * 
+ */
+@Component
+public class PriceBook {
+
+    /**
+     * A price and the moment (epoch millis) it was recorded.
+     */
+    private record Entry(double price, long updatedAt) {}
+
+    private final ConcurrentMap<String, Entry> prices = new ConcurrentHashMap<>();
+
+    @Value("${token.price.max-staleness:120000}")
+    private long maxStaleness;
+
+    /**
+     * Record the latest price of a token.
+     * 
+     * @param tokenId
+     * @param price
+     */
+    public void put(String tokenId, double price) {
+        prices.put(tokenId, new Entry(price, System.currentTimeMillis()));
+    }
+
+    /**
+     * Record the latest price of several tokens.
+     * 
+     * @param tokens with their up-to-date price
+     */
+    public void putAll(Collection<Token> tokens) {
+        long now = System.currentTimeMillis();
+
+        for (Token token : tokens) {
+            if (token.getPrice() != null) {
+                prices.put(token.getId(), new Entry(token.getPrice(), now));
+            }
+        }
+    }
+
+    /**
+     * @param tokenId
+     * @return the latest known price, whatever its age
+     */
+    public OptionalDouble get(String tokenId) {
+        Entry entry = prices.get(tokenId);
+        return entry == null ? OptionalDouble.empty() : OptionalDouble.of(entry.price());
+    }
+
+    /**
+     * @param tokenId
+     * @return the latest known price if it's not older than {@code token.price.max-staleness}
+     */
+    public OptionalDouble getFresh(String tokenId) {
+        Entry entry = prices.get(tokenId);
+
+        if (entry == null || System.currentTimeMillis() - entry.updatedAt() > maxStaleness) {
+            return OptionalDouble.empty();
+        }
+
+        return OptionalDouble.of(entry.price());
+    }
+
+    /**
+     * @param token
+     * @return the latest known price of the token, or the token's own (stored) price
+     * if the book has none, empty if the token has no price either
+     */
+    public OptionalDouble priceOf(Token token) {
+        Entry entry = prices.get(token.getId());
+
+        if (entry != null) {
+            return OptionalDouble.of(entry.price());
+        }
+
+        return token.getPrice() != null ? OptionalDouble.of(token.getPrice()) : OptionalDouble.empty();
+    }
+}
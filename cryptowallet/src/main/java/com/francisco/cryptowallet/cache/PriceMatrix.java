@@ -0,0 +1,287 @@
+package com.francisco.cryptowallet.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.OptionalDouble;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.francisco.cryptowallet.dto.PriceHistoryDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Off-heap columnar store of minute prices, one column of doubles per token.
+ *
+ * Each token's column is a sparse file in {@code token.history.matrix.dir}, where the
+ * price of a minute is at offset (minute - {@link #BASE_MINUTE}) * 8, so times aren't
+ * stored and a lookup is O(1). Missing minutes are holes, which read as 0.0 (no price).
+ *
+ * Columns are memory-mapped in segments of {@link #SEGMENT_MINUTES} minutes, addressed
+ * by time bucket, and at most {@code token.history.matrix.max-segments} segments are
+ * mapped at once. The prices live in the page cache, not on the heap, and survive a
+ * restart: the files are simply remapped.
+ *
+ * Storage failures are only logged, the matrix is an optimization.
+ *
+ */
+@Component
+@Slf4j
+public class PriceMatrix implements MeterBinder {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * First minute of every column (2009-01-01, there are no earlier prices).
+     */
+    static final long BASE_MINUTE = LocalDate.of(2009, 1, 1).atStartOfDay(ZoneOffset.UTC).toEpochSecond() / 60;
+
+    /**
+     * Minutes per segment (about 22 days, 256 KiB).
+     */
+    static final int SEGMENT_MINUTES = 1 << 15;
+
+    private static final long SEGMENT_BYTES = (long) SEGMENT_MINUTES * Double.BYTES;
+
+    private record Segment(String tokenId, long index) { }
+
+    @Value("${token.history.matrix.enabled:true}")
+    private boolean enabled;
+
+    @Value("${token.history.matrix.dir:${java.io.tmpdir}/cryptowallet/price-matrix}")
+    private Path dir;
+
+    @Value("${token.history.matrix.max-segments:4096}")
+    private long maxSegments;
+
+    private Cache<Segment, DoubleBuffer> segments;
+
+    @PostConstruct
+    private void init() {
+        segments = Caffeine.newBuilder()
+                    .maximumSize(maxSegments)
+                    .build();
+
+        if (enabled) {
+            try {
+                Files.createDirectories(dir);
+            } catch (IOException e) {
+                log.warn("Failed to create the price matrix directory {}, the price matrix is disabled: {}", dir, e.getMessage());
+                enabled = false;
+            }
+        }
+    }
+
+    /**
+     * Price of a token at a minute.
+     *
+     * @param tokenId
+     * @param time epoch millis, truncated to the minute
+     * @return the price, if any
+     */
+    public OptionalDouble priceAt(String tokenId, long time) {
+        long slot = slot(time);
+
+        if (slot < 0) {
+            return OptionalDouble.empty();
+        }
+
+        DoubleBuffer column = segment(tokenId, slot / SEGMENT_MINUTES, false);
+
+        if (column == null) {
+            return OptionalDouble.empty();
+        }
+
+        double price = column.get((int) (slot % SEGMENT_MINUTES));
+
+        return price > 0 ? OptionalDouble.of(price) : OptionalDouble.empty();
+    }
+
+    /**
+     * First price of a token in the window [start, end).
+     *
+     * @param tokenId
+     * @param start epoch millis
+     * @param end epoch millis
+     * @return the price, if any
+     */
+    public OptionalDouble firstPrice(String tokenId, long start, long end) {
+        for (long time = Math.ceilDiv(start, MINUTE) * MINUTE; time < end; time += MINUTE) {
+            OptionalDouble price = priceAt(tokenId, time);
+
+            if (price.isPresent()) {
+                return price;
+            }
+        }
+
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * Copy a token's prices for the minutes in [start, end) into prices, one per minute.
+     * Missing minutes are NaN.
+     *
+     * Each segment is copied with a single bulk get, so the result can be scanned
+     * with tight loops over a primitive array.
+     *
+     * @param tokenId
+     * @param start epoch millis, truncated to the minute
+     * @param prices at least (end - start) / 1 minute long
+     * @return the number of minutes copied
+     */
+    public int scan(String tokenId, long start, long end, double[] prices) {
+        long first = slot(start);
+        int count = (int) Math.min(prices.length, Math.max(0, Math.ceilDiv(end, MINUTE) - Math.floorDiv(start, MINUTE)));
+
+        Arrays.fill(prices, 0, count, Double.NaN);
+
+        for (int i = 0; i < count; ) {
+            long slot = first + i;
+            int offset = (int) Math.floorMod(slot, (long) SEGMENT_MINUTES);
+            int length = Math.min(count - i, SEGMENT_MINUTES - offset);
+            DoubleBuffer column = slot < 0 ? null : segment(tokenId, slot / SEGMENT_MINUTES, false);
+
+            if (column != null) {
+                column.get(offset, prices, i, length);
+
+                for (int j = i; j < i + length; j++) {
+                    if (!(prices[j] > 0)) {
+                        prices[j] = Double.NaN;
+                    }
+                }
+            }
+
+            i += length;
+        }
+
+        return count;
+    }
+
+    /**
+     * Store the valid points of a price history, each at its minute.
+     *
+     * @param tokenId
+     * @param history
+     */
+    public void putAll(String tokenId, PriceHistoryDTO history) {
+        for (int i = 0; i < history.size(); i++) {
+            put(tokenId, history.timeAt(i), history.priceAt(i));
+        }
+    }
+
+    /**
+     * Store a token's price at a minute. Invalid prices are ignored.
+     *
+     * @param tokenId
+     * @param time epoch millis, truncated to the minute
+     * @param price
+     */
+    public void put(String tokenId, long time, double price) {
+        long slot = slot(time);
+
+        if (!(price > 0) || slot < 0 || Double.isInfinite(price)) {
+            return;
+        }
+
+        DoubleBuffer column = segment(tokenId, slot / SEGMENT_MINUTES, true);
+
+        if (column != null) {
+            column.put((int) (slot % SEGMENT_MINUTES), price);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Unmap all segments (the files are kept, and remapped on the next access).
+     */
+    public void invalidateAll() {
+        segments.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("token.history.matrix.segments", segments, Cache::estimatedSize)
+                .description("Price matrix segments currently mapped")
+                .register(registry);
+    }
+
+    private static long slot(long time) {
+        return Math.floorDiv(time, MINUTE) - BASE_MINUTE;
+    }
+
+    /**
+     * Map a segment of a token's column.
+     *
+     * @param tokenId
+     * @param index of the segment
+     * @param create if the segment should be created when the file doesn't cover it
+     * @return the segment, null if it doesn't exist (and create is false) or can't be mapped
+     */
+    private DoubleBuffer segment(String tokenId, long index, boolean create) {
+        if (!enabled || tokenId == null) {
+            return null;
+        }
+
+        Segment key = new Segment(tokenId, index);
+
+        try {
+            return create ?
+                        segments.get(key, this::map) :
+                        segments.asMap().computeIfAbsent(key, segment -> exists(segment) ? map(segment) : null);
+        } catch (UncheckedIOException e) {
+            log.warn("Failed to map price matrix segment {} of {}: {}", index, tokenId, e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean exists(Segment segment) {
+        try {
+            Path file = file(segment.tokenId());
+
+            return Files.exists(file) && Files.size(file) >= (segment.index() + 1) * SEGMENT_BYTES;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Map a segment read-write, growing the (sparse) file if needed. The mapping stays
+     * valid after the channel is closed.
+     */
+    private DoubleBuffer map(Segment segment) {
+        try (FileChannel channel = FileChannel.open(file(segment.tokenId()),
+                    StandardOpenOption.CREATE, StandardOpenOption.SPARSE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, segment.index() * SEGMENT_BYTES, SEGMENT_BYTES);
+
+            return buffer.asDoubleBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path file(String tokenId) {
+        return dir.resolve(URLEncoder.encode(tokenId, StandardCharsets.UTF_8) + ".col");
+    }
+}
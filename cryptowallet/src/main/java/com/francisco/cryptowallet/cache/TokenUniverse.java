@@ -0,0 +1,135 @@
+package com.francisco.cryptowallet.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.francisco.cryptowallet.dto.TokenPriceDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory index of every asset listed by the external API, to resolve a symbol
+ * (or a name) to a token id without a search request.
+ *
+ * The index is immutable: each refresh builds a new one from the full listing and
+ * swaps it atomically, so lookups never lock and never see a half-built index.
+ * The listing is ordered by rank, so when several assets share a symbol the
+ * best-ranked one wins (as with the search endpoint).
+ *
+ * Symbols that don't exist are remembered in a negative cache for
+ * {@code token.universe.negative-ttl} ms (cleared on refresh), so unknown or
+ * misspelled symbols aren't searched again on every request.
+ *
+ */
+@Component
+public class TokenUniverse implements MeterBinder {
+
+    /**
+     * Assets by upper case symbol and by lower case name.
+     */
+    private record Index(Map<String, TokenPriceDTO> bySymbol, Map<String, TokenPriceDTO> byName) {
+
+        static final Index EMPTY = new Index(Map.of(), Map.of());
+    }
+
+    private final AtomicReference<Index> index = new AtomicReference<>(Index.EMPTY);
+
+    @Value("${token.universe.negative-ttl:3600000}")
+    private long negativeTtl;
+
+    private Cache<String, Boolean> unknownSymbols;
+
+    @PostConstruct
+    private void init() {
+        unknownSymbols = Caffeine.newBuilder()
+                    .expireAfterWrite(Duration.ofMillis(negativeTtl))
+                    .maximumSize(100_000)
+                    .build();
+    }
+
+    /**
+     * Replace the index with the given listing, and clear the negative cache.
+     *
+     * @param assets every listed asset, ordered by rank
+     */
+    public void replace(List<TokenPriceDTO> assets) {
+        Map<String, TokenPriceDTO> bySymbol = new HashMap<>(assets.size() * 2);
+        Map<String, TokenPriceDTO> byName = new HashMap<>(assets.size() * 2);
+
+        for (TokenPriceDTO asset : assets) {
+            if (asset.id() == null) {
+                continue;
+            }
+
+            if (asset.symbol() != null) {
+                bySymbol.putIfAbsent(asset.symbol().toUpperCase(Locale.ROOT), asset);
+            }
+
+            if (asset.name() != null) {
+                byName.putIfAbsent(asset.name().toLowerCase(Locale.ROOT), asset);
+            }
+        }
+
+        index.set(new Index(Map.copyOf(bySymbol), Map.copyOf(byName)));
+        unknownSymbols.invalidateAll();
+    }
+
+    /**
+     * @param symbol or name of the asset
+     * @return the listed asset with that symbol, or else with that name
+     */
+    public Optional<TokenPriceDTO> find(String symbol) {
+        Index current = index.get();
+        TokenPriceDTO asset = current.bySymbol().get(symbol.toUpperCase(Locale.ROOT));
+
+        return Optional.ofNullable(asset != null ? asset : current.byName().get(symbol.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * @return true once a listing was loaded
+     */
+    public boolean isLoaded() {
+        return !index.get().bySymbol().isEmpty();
+    }
+
+    public int size() {
+        return index.get().bySymbol().size();
+    }
+
+    /**
+     * Remember that a symbol doesn't exist.
+     *
+     * @param symbol
+     */
+    public void markUnknown(String symbol) {
+        unknownSymbols.put(symbol.toUpperCase(Locale.ROOT), Boolean.TRUE);
+    }
+
+    /**
+     * @param symbol
+     * @return true if the symbol was recently found not to exist
+     */
+    public boolean isKnownUnknown(String symbol) {
+        return unknownSymbols.getIfPresent(symbol.toUpperCase(Locale.ROOT)) != null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("token.universe.size", this, TokenUniverse::size)
+                .description("Assets in the token universe index")
+                .register(registry);
+    }
+}
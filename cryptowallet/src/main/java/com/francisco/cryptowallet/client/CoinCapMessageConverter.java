@@ -0,0 +1,54 @@
+package com.francisco.cryptowallet.client;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+/**
+ * Read-only message converter that decodes the external API's responses
+ * with {@link CoinCapPayloadParser} while streaming the response body.
+ * 
+ * It must be registered before the default Jackson converter (see AppConfig).
+ * 
+ */
+public class CoinCapMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final JsonFactory jsonFactory;
+
+    public CoinCapMessageConverter(JsonFactory jsonFactory) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CoinCapPayloadParser.supports(clazz);
+    }
+
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
+        try (JsonParser parser = jsonFactory.createParser(inputMessage.getBody())) {
+            return CoinCapPayloadParser.read(clazz, parser);
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Failed to decode " + clazz.getSimpleName() + ": " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+        throw new HttpMessageNotWritableException("Writing is not supported.");
+    }
+}
@@ -0,0 +1,208 @@
+package com.francisco.cryptowallet.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.francisco.cryptowallet.dto.PriceHistoryDTO;
+import com.francisco.cryptowallet.dto.TokenPriceDTO;
+import com.francisco.cryptowallet.dto.TokenPriceListDTO;
+
+/**
+ * Streaming decoder for the external API's payloads.
+ * 
+ * Instead of binding every field of an asset to a String, the payload is read token by 
+ * token and only id, symbol, name, priceUsd (and time for the history endpoint) are kept. 
+ * Prices are decoded straight into primitive doubles and every other field is skipped 
+ * without being materialized.
+ * 
+ * Supported payloads:
+ * - /assets/{id} -> {@link TokenPriceDTO}
+ * - /assets?ids=..., /assets?search=... or /assets?limit=...&offset=... -> {@link TokenPriceListDTO}
+ * - /assets/{id}/history -> {@link PriceHistoryDTO}
+ * 
+ */
+public final class CoinCapPayloadParser {
+
+    private static final String DATA = "data";
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private CoinCapPayloadParser() {
+    }
+
+    public static boolean supports(Class<?> clazz) {
+        return clazz == TokenPriceDTO.class || clazz == TokenPriceListDTO.class || clazz == PriceHistoryDTO.class;
+    }
+
+    /**
+     * Decode a payload into one of the supported types.
+     * 
+     * @param clazz the target type
+     * @param parser positioned before the payload's root object
+     * @return the decoded payload, or null if the payload has no data
+     * @throws IOException if the payload is malformed
+     */
+    public static Object read(Class<?> clazz, JsonParser parser) throws IOException {
+        if (clazz == TokenPriceDTO.class) {
+            return readAsset(parser);
+        } else if (clazz == TokenPriceListDTO.class) {
+            return readAssetList(parser);
+        } else if (clazz == PriceHistoryDTO.class) {
+            return readHistory(parser);
+        }
+
+        throw new IllegalArgumentException("Unsupported payload type " + clazz.getName());
+    }
+
+    /**
+     * Decode {"data": {"id": ..., "symbol": ..., "priceUsd": ..., ...}}.
+     */
+    public static TokenPriceDTO readAsset(JsonParser parser) throws IOException {
+        if (!moveToData(parser) || parser.currentToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+
+        return readAssetObject(parser);
+    }
+
+    /**
+     * Decode {"data": [{"id": ..., "symbol": ..., "priceUsd": ..., ...}, ...]}.
+     */
+    public static TokenPriceListDTO readAssetList(JsonParser parser) throws IOException {
+        if (!moveToData(parser) || parser.currentToken() != JsonToken.START_ARRAY) {
+            return null;
+        }
+
+        List<TokenPriceDTO> data = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            data.add(readAssetObject(parser));
+        }
+
+        return new TokenPriceListDTO(data);
+    }
+
+    /**
+     * Decode {"data": [{"priceUsd": ..., "time": ..., ...}, ...]}.
+     * 
+     * Points without a valid time are skipped, they can't be placed in the history.
+     */
+    public static PriceHistoryDTO readHistory(JsonParser parser) throws IOException {
+        if (!moveToData(parser) || parser.currentToken() != JsonToken.START_ARRAY) {
+            return null;
+        }
+
+        long[] times = new long[16];
+        double[] prices = new double[16];
+        int size = 0;
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            long time = NO_TIME;
+            double price = Double.NaN;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case "time" -> time = readTime(parser);
+                    case "priceUsd" -> price = readDouble(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (time == NO_TIME) {
+                continue;
+            }
+
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                prices = Arrays.copyOf(prices, size * 2);
+            }
+
+            times[size] = time;
+            prices[size] = price;
+            size++;
+        }
+
+        return size == 0 ? PriceHistoryDTO.empty() : new PriceHistoryDTO(Arrays.copyOf(times, size), Arrays.copyOf(prices, size));
+    }
+
+    /**
+     * Read the fields of an asset object, the parser must be on its START_OBJECT.
+     */
+    private static TokenPriceDTO readAssetObject(JsonParser parser) throws IOException {
+        String id = null;
+        String symbol = null;
+        String name = null;
+        double price = Double.NaN;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "id" -> id = parser.getValueAsString();
+                case "symbol" -> symbol = parser.getValueAsString();
+                case "name" -> name = parser.getValueAsString();
+                case "priceUsd" -> price = readDouble(parser);
+                default -> parser.skipChildren();
+            }
+        }
+
+        return new TokenPriceDTO(id, symbol, name, price);
+    }
+
+    /**
+     * The API sends numbers as strings ("priceUsd": "97000.12"), null or
+     * invalid values are decoded as NaN.
+     */
+    private static double readDouble(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_STRING -> parser.getValueAsDouble(Double.NaN);
+            default -> Double.NaN;
+        };
+    }
+
+    /**
+     * Epoch millis of a history point, sent as a number (or a numeric string). 
+     * Null or invalid values are decoded as {@link #NO_TIME}.
+     */
+    private static long readTime(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT -> parser.getLongValue();
+            case VALUE_STRING -> parser.getValueAsLong(NO_TIME);
+            default -> NO_TIME;
+        };
+    }
+
+    /**
+     * Move the parser to the value of the root object's "data" field, 
+     * skipping any other root field.
+     * 
+     * @return false if there's no data field (or it's null)
+     */
+    private static boolean moveToData(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if (DATA.equals(field)) {
+                return value != JsonToken.VALUE_NULL;
+            }
+
+            parser.skipChildren();
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,47 @@
+package com.francisco.cryptowallet.client;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Intervals supported by the external API's price history (/assets/{id}/history?interval=).
+ */
+public enum HistoryInterval {
+    M1("m1", TimeUnit.MINUTES.toMillis(1)),
+    M5("m5", TimeUnit.MINUTES.toMillis(5)),
+    M15("m15", TimeUnit.MINUTES.toMillis(15)),
+    M30("m30", TimeUnit.MINUTES.toMillis(30)),
+    H1("h1", TimeUnit.HOURS.toMillis(1)),
+    H2("h2", TimeUnit.HOURS.toMillis(2)),
+    H6("h6", TimeUnit.HOURS.toMillis(6)),
+    H12("h12", TimeUnit.HOURS.toMillis(12)),
+    D1("d1", TimeUnit.DAYS.toMillis(1));
+
+    private final String code;
+
+    private final long millis;
+
+    HistoryInterval(String code, long millis) {
+        this.code = code;
+        this.millis = millis;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public long millis() {
+        return millis;
+    }
+
+    /**
+     * @param code (for example, "m1", "h1", "d1")
+     * @return the interval, empty if it isn't supported
+     */
+    public static Optional<HistoryInterval> of(String code) {
+        return Arrays.stream(values())
+                    .filter(interval -> interval.code.equalsIgnoreCase(code))
+                    .findFirst();
+    }
+}
@@ -0,0 +1,236 @@
+package com.francisco.cryptowallet.client;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Process-wide token bucket shared by every call to the external API.
+ * 
+ * The bucket refills at {@code upstream.rate.requests-per-second} and holds up to
+ * {@code upstream.rate.burst} permits. Interactive calls (requests served to users) 
+ * have priority over background calls (scheduled refresh): background calls wait while
+ * interactive calls are waiting, and never take the last {@code upstream.rate.interactive-reserve}
+ * permits.
+ * 
+ * When the API answers 429 (Too Many Requests), every caller is paused for the 
+ * Retry-After duration (or an exponential backoff with jitter if there's none) and 
+ * the call is retried up to {@code upstream.rate.throttle.retry.max} times.
+ * 
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateGovernor {
+
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${upstream.rate.requests-per-second:3.3}")
+    private double requestsPerSecond;
+
+    @Value("${upstream.rate.burst:10}")
+    private int burst;
+
+    @Value("${upstream.rate.interactive-reserve:2}")
+    private int interactiveReserve;
+
+    @Value("${upstream.rate.max-backoff:30000}")
+    private long maxBackoff;
+
+    @Value("${upstream.rate.throttle.retry.max:3}")
+    private int maxThrottleRetries;
+
+    @Value("${token.price.retry.delay}")
+    private long baseBackoff;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition permitsChanged = lock.newCondition();
+
+    private double permits;
+
+    private long lastRefill;
+
+    private long pausedUntil;
+
+    private int interactiveWaiting;
+
+    private Counter throttledCounter;
+
+    @PostConstruct
+    private void init() {
+        permits = burst;
+        lastRefill = System.nanoTime();
+        pausedUntil = lastRefill;
+        throttledCounter = Counter.builder("upstream.throttled")
+                    .description("429 responses from the external API")
+                    .register(meterRegistry);
+    }
+
+    /**
+     * Run a call to the external API once a permit is available, retrying
+     * (after the pause requested by the API) if the call is throttled.
+     * 
+     * @param priority
+     * @param call
+     * @return the call's result
+     * @throws HttpClientErrorException.TooManyRequests if the call is still throttled after all retries
+     */
+    public <T> T execute(Priority priority, Supplier<T> call) {
+        for (int attempt = 0; ; attempt++) {
+            acquire(priority);
+
+            try {
+                return call.get();
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                throttledCounter.increment();
+
+                int failedAttempt = attempt;
+                Duration pause = retryAfter(e.getResponseHeaders()).orElseGet(() -> backoff(failedAttempt));
+                pause(pause);
+
+                log.warn("External API throttled the request (attempt {}/{}), pausing all calls for {} ms.",
+                    attempt + 1, maxThrottleRetries + 1, pause.toMillis());
+
+                if (attempt >= maxThrottleRetries) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Block until a permit is available for the given priority.
+     * 
+     * @param priority
+     * @throws CancellationException if the thread is interrupted while waiting
+     */
+    public void acquire(Priority priority) {
+        lock.lock();
+
+        try {
+            if (priority == Priority.INTERACTIVE) {
+                interactiveWaiting++;
+            }
+
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+
+                    if (now < pausedUntil) {
+                        permitsChanged.awaitNanos(pausedUntil - now);
+                        continue;
+                    }
+
+                    refill(now);
+
+                    double required = priority == Priority.INTERACTIVE ? 1 : 1 + interactiveReserve;
+                    boolean yield = priority == Priority.BACKGROUND && interactiveWaiting > 0;
+
+                    if (!yield && permits >= required) {
+                        permits -= 1;
+                        return;
+                    }
+
+                    double missing = Math.max(required - permits, 1);
+                    permitsChanged.awaitNanos((long) (missing / requestsPerSecond * TimeUnit.SECONDS.toNanos(1)));
+                }
+            } finally {
+                if (priority == Priority.INTERACTIVE) {
+                    interactiveWaiting--;
+                    permitsChanged.signalAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the external API's rate limit.");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pause every call to the external API for the given duration.
+     * 
+     * @param duration
+     */
+    public void pause(Duration duration) {
+        lock.lock();
+
+        try {
+            pausedUntil = Math.max(pausedUntil, System.nanoTime() + duration.toNanos());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Exponential backoff with jitter: a random delay between half and the whole of 
+     * {@code token.price.retry.delay} * 2^attempt, capped at {@code upstream.rate.max-backoff}.
+     * 
+     * @param attempt starting at 0
+     * @return the delay before the next attempt
+     */
+    public Duration backoff(int attempt) {
+        long exponential = baseBackoff << Math.min(attempt, 20);
+        long capped = Math.min(Math.max(exponential, 1), maxBackoff);
+
+        return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+    }
+
+    /**
+     * Parse a Retry-After header, either in seconds or as an HTTP date.
+     * 
+     * @param headers
+     * @return the requested pause, if any
+     */
+    static Optional<Duration> retryAfter(HttpHeaders headers) {
+        String retryAfter = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim()))));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration pause = Duration.between(ZonedDateTime.now(date.getZone()), date);
+                return Optional.of(pause.isNegative() ? Duration.ZERO : pause);
+            } catch (DateTimeParseException ex) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private void refill(long now) {
+        double elapsedSeconds = (now - lastRefill) / (double) TimeUnit.SECONDS.toNanos(1);
+        permits = Math.min(burst, permits + elapsedSeconds * requestsPerSecond);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,124 @@
+package com.francisco.cryptowallet.client;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesce concurrent identical calls: while a call for a key is in flight, other
+ * callers with the same key wait for (and share) its result instead of repeating it.
+ * 
+ * The first caller runs the call on its own thread and publishes the result through a
+ * {@link CompletableFuture}. Failures (including errors) are propagated to every waiting caller. Once the
+ * call completes, the key is released and the next call runs again.
+ * 
+ * @param <K> the key identifying identical calls
+ * @param <V> the call's result
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Run the call, unless an identical call is already in flight, in which 
+     * case its result is awaited and returned.
+     * 
+     * @param key
+     * @param call
+     * @return the call's result
+     */
+    public V execute(K key, Supplier<V> call) {
+        calls.increment();
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        try {
+            V result = call.get();
+            future.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // Errors too, or the waiting callers would never be released.
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * @return the number of calls requested
+     */
+    public long calls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return the number of calls that were served by an in-flight call
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Expose the counters as upstream.requests (all requested calls) and 
+     * upstream.requests.coalesced, tagged with this instance's name.
+     * 
+     * @param registry
+     */
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("upstream.requests", this, SingleFlight::calls)
+            .tag("request", name)
+            .register(registry);
+
+        FunctionCounter.builder("upstream.requests.coalesced", this, SingleFlight::coalesced)
+            .tag("request", name)
+            .register(registry);
+    }
+
+    /**
+     * Wait for an in-flight call with {@link CompletableFuture#get()}, which (unlike join)
+     * returns when the waiting thread is interrupted, so a cancelled caller doesn't keep 
+     * its thread until the call completes.
+     */
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for an in-flight call.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -1,14 +1,39 @@
 package com.francisco.cryptowallet.config;
 
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.francisco.cryptowallet.client.CoinCapMessageConverter;
+
 @Configuration
 public class AppConfig {
 
+    /**
+     * RestTemplate backed by the client configured in {@link HttpClientConfig}.
+     * 
+     * Built with Spring Boot's {@link RestTemplateBuilder}, so outbound requests are 
+     * also recorded in the http.client.requests metrics.
+     * 
+     * {@link CoinCapMessageConverter} is registered first so the external API's price
+     * payloads are decoded by streaming instead of full data binding.
+     * 
+     * @param restTemplateBuilder
+     * @param requestFactory
+     * @param objectMapper
+     * @return the RestTemplate used for all upstream calls
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, ClientHttpRequestFactory requestFactory, ObjectMapper objectMapper) {
+        RestTemplate restTemplate = restTemplateBuilder
+                    .requestFactory(() -> requestFactory)
+                    .build();
+
+        restTemplate.getMessageConverters().add(0, new CoinCapMessageConverter(objectMapper.getFactory()));
+
+        return restTemplate;
     }
 }
@@ -0,0 +1,35 @@
+package com.francisco.cryptowallet.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.francisco.cryptowallet.repository.AssetCompaction;
+
+/**
+ * Runs the {@link AssetCompaction} migration when {@code asset.compaction.enabled} is set.
+ * 
+ * The EntityManagerFactory depends on it, so the duplicates are merged before 
+ * Hibernate updates the schema and adds the unique (wallet_id, token_id) constraint.
+ * 
+ */
+@Configuration
+@ConditionalOnProperty(name = "asset.compaction.enabled", havingValue = "true")
+@Import(AssetCompactionConfig.EntityManagerFactoryDependsOnAssetCompaction.class)
+public class AssetCompactionConfig {
+
+    @Bean
+    public AssetCompaction assetCompaction(JdbcTemplate jdbcTemplate) {
+        return new AssetCompaction(jdbcTemplate);
+    }
+
+    static class EntityManagerFactoryDependsOnAssetCompaction extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependsOnAssetCompaction() {
+            super("assetCompaction");
+        }
+    }
+}
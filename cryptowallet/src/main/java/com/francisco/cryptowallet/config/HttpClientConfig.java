@@ -0,0 +1,130 @@
+package com.francisco.cryptowallet.config;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outbound HTTP client used by the RestTemplate (see {@link AppConfig}).
+ * 
+ * By default, a pooled Apache HttpClient keeps connections to the upstream API alive, 
+ * so the TLS handshake isn't repeated for every price and history call. The pool size
+ * should cover {@code token.price.thread.max} + {@code token.history.thread.max}.
+ * 
+ * Connect, read and pool-acquire timeouts bound how long a worker can be blocked 
+ * by a hung socket.
+ * 
+ * When {@code http.client.http2.enabled} is set, the JDK HttpClient is used instead 
+ * (HTTP/2 multiplexes all calls over a single connection). Pool metrics are only
+ * available in the default mode.
+ * 
+ */
+@Configuration
+@Slf4j
+public class HttpClientConfig {
+
+    @Value("${http.client.pool.max-total:40}")
+    private int maxTotal;
+
+    @Value("${http.client.pool.max-per-route:20}")
+    private int maxPerRoute;
+
+    @Value("${http.client.timeout.connect:2000}")
+    private long connectTimeout;
+
+    @Value("${http.client.timeout.read:5000}")
+    private long readTimeout;
+
+    @Value("${http.client.timeout.pool-acquire:2000}")
+    private long poolAcquireTimeout;
+
+    @Value("${http.client.keep-alive:30000}")
+    private long keepAlive;
+
+    @Value("${token.price.thread.max}")
+    private int maxConcurrentThreads;
+
+    @Value("${token.history.thread.max:10}")
+    private int maxHistoryThreads;
+
+    @Value("${token.api.url.assets}")
+    private String apiAssetsUrl;
+
+    @Bean
+    @ConditionalOnProperty(name = "http.client.http2.enabled", havingValue = "false", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager connectionManager() {
+        if (maxPerRoute < maxConcurrentThreads + maxHistoryThreads) {
+            log.warn("http.client.pool.max-per-route ({}) is lower than the number of concurrent outbound calls ({}).",
+                maxPerRoute, maxConcurrentThreads + maxHistoryThreads);
+        }
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                    .setMaxConnTotal(maxTotal)
+                    .setMaxConnPerRoute(maxPerRoute)
+                    .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .setTimeToLive(TimeValue.ofMilliseconds(keepAlive))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                    .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "http.client.http2.enabled", havingValue = "false", matchIfMissing = true)
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeout))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .build())
+                    .evictIdleConnections(TimeValue.ofMilliseconds(keepAlive))
+                    .evictExpiredConnections()
+                    .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "http.client.http2.enabled", havingValue = "false", matchIfMissing = true)
+    public ClientHttpRequestFactory httpComponentsRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "http.client.http2.enabled", havingValue = "false", matchIfMissing = true)
+    public HttpClientPoolMetrics httpClientPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new HttpClientPoolMetrics(connectionManager, URI.create(apiAssetsUrl));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "http.client.http2.enabled", havingValue = "true")
+    public ClientHttpRequestFactory jdkRequestFactory() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofMillis(connectTimeout))
+                    .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeout));
+
+        return requestFactory;
+    }
+}
@@ -0,0 +1,54 @@
+package com.francisco.cryptowallet.config;
+
+import java.net.URI;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolStats;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Expose the connection pool's state as gauges (http.client.pool.*), both for the 
+ * whole pool (route=all) and for the upstream API's route.
+ * 
+ */
+public class HttpClientPoolMetrics implements MeterBinder {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final HttpRoute upstreamRoute;
+
+    public HttpClientPoolMetrics(PoolingHttpClientConnectionManager connectionManager, URI upstream) {
+        this.connectionManager = connectionManager;
+
+        boolean secure = "https".equalsIgnoreCase(upstream.getScheme());
+        int port = upstream.getPort() != -1 ? upstream.getPort() : (secure ? 443 : 80);
+
+        this.upstreamRoute = new HttpRoute(new HttpHost(upstream.getScheme(), upstream.getHost(), port), null, secure);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        register(registry, "all", manager -> manager.getTotalStats());
+        register(registry, upstreamRoute.getTargetHost().toHostString(), manager -> manager.getStats(upstreamRoute));
+    }
+
+    private void register(MeterRegistry registry, String route, Function<PoolingHttpClientConnectionManager, PoolStats> stats) {
+        gauge(registry, "http.client.pool.leased", route, manager -> stats.apply(manager).getLeased());
+        gauge(registry, "http.client.pool.available", route, manager -> stats.apply(manager).getAvailable());
+        gauge(registry, "http.client.pool.pending", route, manager -> stats.apply(manager).getPending());
+        gauge(registry, "http.client.pool.max", route, manager -> stats.apply(manager).getMax());
+    }
+
+    private void gauge(MeterRegistry registry, String name, String route, ToDoubleFunction<PoolingHttpClientConnectionManager> value) {
+        Gauge.builder(name, connectionManager, value)
+            .tag("route", route)
+            .register(registry);
+    }
+}
@@ -1,7 +1,10 @@
 package com.francisco.cryptowallet.controller;
 
+import java.io.InputStream;
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -10,6 +13,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import com.francisco.cryptowallet.dto.AssetDTO;
+import com.francisco.cryptowallet.dto.AssetImportResponseDTO;
 import com.francisco.cryptowallet.exception.GlobalExceptionHandler;
 import com.francisco.cryptowallet.service.AssetService;
 
@@ -48,4 +52,56 @@ public class AssetController {
     public AssetDTO addAsset(@PathVariable UUID id, @RequestBody @Valid AssetDTO assetDto) {
         return assetService.addAsset(id, assetDto);
     }
+
+    /**
+     * Import several assets into an existing wallet (wallet identified by its email).
+     * 
+     * Each distinct symbol is resolved once, and the assets are inserted in batches.
+     * 
+     * @param email
+     * @param assets
+     * @return the number of imported assets and the unresolved symbols
+     */
+    @PostMapping(value = "/email/{email}/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public AssetImportResponseDTO importAssets(@PathVariable @Email String email, @RequestBody List<AssetDTO> assets) {
+        return assetService.importAssets(email, assets);
+    }
+
+    /**
+     * Import several assets into an existing wallet (wallet identified by its UUID).
+     * 
+     * @param id
+     * @param assets
+     * @return the number of imported assets and the unresolved symbols
+     */
+    @PostMapping(value = "/id/{id}/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public AssetImportResponseDTO importAssets(@PathVariable UUID id, @RequestBody List<AssetDTO> assets) {
+        return assetService.importAssets(id, assets);
+    }
+
+    /**
+     * Import the assets of a CSV upload (symbol,quantity per line) into an existing 
+     * wallet (wallet identified by its email). The upload is read as it streams in.
+     * 
+     * @param email
+     * @param csv
+     * @return the number of imported assets and the unresolved symbols
+     */
+    @PostMapping(value = "/email/{email}/import", consumes = "text/csv")
+    public AssetImportResponseDTO importAssets(@PathVariable @Email String email, InputStream csv) {
+        return assetService.importAssets(email, csv);
+    }
+
+    /**
+     * Import the assets of a CSV upload (symbol,quantity per line) into an existing 
+     * wallet (wallet identified by its UUID).
+     * 
+     * @param id
+     * @param csv
+     * @return the number of imported assets and the unresolved symbols
+     */
+    @PostMapping(value = "/id/{id}/import", consumes = "text/csv")
+    public AssetImportResponseDTO importAssets(@PathVariable UUID id, InputStream csv) {
+        return assetService.importAssets(id, csv);
+    }
 }
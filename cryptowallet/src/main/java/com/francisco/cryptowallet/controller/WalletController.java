@@ -1,10 +1,16 @@
 package com.francisco.cryptowallet.controller;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
 import java.util.UUID;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,17 +21,24 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.francisco.cryptowallet.dto.BulkWalletEvaluationRequestDTO;
 import com.francisco.cryptowallet.dto.CreateWalletRequestDTO;
 import com.francisco.cryptowallet.dto.FetchWalletRequestDTO;
 import com.francisco.cryptowallet.dto.WalletDTO;
 import com.francisco.cryptowallet.dto.WalletEvaluationRequestDTO;
 import com.francisco.cryptowallet.dto.WalletEvaluationResponseDTO;
+import com.francisco.cryptowallet.dto.WalletRiskResponseDTO;
+import com.francisco.cryptowallet.dto.WalletSummaryDTO;
 import com.francisco.cryptowallet.exception.GlobalExceptionHandler;
+import com.francisco.cryptowallet.service.RiskService;
+import com.francisco.cryptowallet.service.TimeSeriesService;
 import com.francisco.cryptowallet.service.WalletService;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -35,6 +48,10 @@ public class WalletController {
     
     private final WalletService walletService;
 
+    private final TimeSeriesService timeSeriesService;
+
+    private final RiskService riskService;
+
     /**
      * Create a new empty wallet with the given email.
      * 
@@ -85,6 +102,31 @@ public class WalletController {
         return walletService.getWallet(email);
     }
 
+    /**
+     * Retrieve a wallet's summary (total value and number of assets) by its id, 
+     * read from a single row.
+     * 
+     * @param id
+     * @return the wallet's summary, with its freshness
+     */
+    @GetMapping("/id/{id}/summary")
+    @ResponseStatus(HttpStatus.OK)
+    public WalletSummaryDTO getWalletSummary(@PathVariable UUID id) {
+        return walletService.getWalletSummary(id);
+    }
+
+    /**
+     * Retrieve a wallet's summary by the user's email. 
+     * 
+     * @param email
+     * @return the wallet's summary, with its freshness
+     */
+    @GetMapping("/email/{email}/summary")
+    @ResponseStatus(HttpStatus.OK)
+    public WalletSummaryDTO getWalletSummary(@PathVariable String email) {
+        return walletService.getWalletSummary(email);
+    }
+
     /**
      * Retrieve a wallet by the its UUID. 
      * 
@@ -103,14 +145,100 @@ public class WalletController {
      * Show the best and worst performing assets and the total
      * value in the wallet for the date parameter.
      * 
+     * If the deadline expires before all assets are priced, a partial result is returned,
+     * listing the priced and timed out assets.
+     * 
      * @param id
      * @param date has format yyyy-MM-dd
+     * @param deadline in milliseconds, optional
      * @return the evaluation results
      */
     @GetMapping("/evaluate/{id}")
     @ResponseStatus(HttpStatus.OK)
-    public WalletEvaluationResponseDTO evaluateWallet(@PathVariable UUID id, @RequestParam("date") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
-        return walletService.evaluateWallet(id, date);
+    public WalletEvaluationResponseDTO evaluateWallet(@PathVariable UUID id, @RequestParam("date") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date,
+                @RequestParam(name = "deadline", required = false) @Positive Long deadline) {
+        return deadline != null ? 
+                    walletService.evaluateWallet(id, date, Duration.ofMillis(deadline)) : 
+                    walletService.evaluateWallet(id, date);
+    }
+
+    /**
+     * Evaluate a wallet's assets at several dates. 
+     * 
+     * Either a list of dates (dates=2025-01-01,2025-01-15) or a range of days 
+     * (from=2025-01-01&to=2025-01-31) is given. The history of each token is 
+     * fetched once for all dates.
+     * 
+     * @param id
+     * @param dates have format yyyy-MM-dd
+     * @param from has format yyyy-MM-dd
+     * @param to has format yyyy-MM-dd
+     * @return the evaluation results by date
+     */
+    @GetMapping("/evaluate/{id}/dates")
+    @ResponseStatus(HttpStatus.OK)
+    public SortedMap<LocalDate, WalletEvaluationResponseDTO> evaluateWalletAtDates(@PathVariable UUID id, 
+                @RequestParam(name = "dates", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") List<LocalDate> dates,
+                @RequestParam(name = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                @RequestParam(name = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to) {
+        return dates != null ? 
+                    walletService.evaluateWalletAtDates(id, dates) : 
+                    walletService.evaluateWalletBetween(id, from, to);
+    }
+
+    /**
+     * Evaluate several wallets at the same date.
+     * 
+     * The past price of each distinct token is fetched once for all wallets.
+     * 
+     * @param date has format yyyy-MM-dd
+     * @param request the wallets' ids
+     * @return the evaluation results by wallet id
+     */
+    @PostMapping("/evaluate/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    public Map<UUID, WalletEvaluationResponseDTO> evaluateWallets(@RequestParam("date") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date, 
+                @RequestBody @Valid BulkWalletEvaluationRequestDTO request) {
+        return walletService.evaluateWallets(request.ids(), date);
+    }
+
+    /**
+     * Stream a wallet's value over time as NDJSON, one row per point:
+     * {"time":epochMillis,"total":value,"assets":{"BTC":value,...}}
+     * 
+     * @param id
+     * @param from first day, has format yyyy-MM-dd
+     * @param to last day (inclusive), has format yyyy-MM-dd
+     * @param interval of the points (for example, "h1", "d1")
+     * @return the streamed time series
+     */
+    @GetMapping(value = "/id/{id}/timeseries", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getTimeSeries(@PathVariable UUID id, 
+                @RequestParam("from") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                @RequestParam("to") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+                @RequestParam(name = "interval", defaultValue = "d1") String interval) {
+        return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(timeSeriesService.streamTimeSeries(id, from, to, interval));
+    }
+
+    /**
+     * Risk metrics of a wallet's current holdings over a range: annualised volatility, 
+     * max drawdown, Sharpe and Sortino ratios, and each asset's contribution to risk.
+     * 
+     * @param id
+     * @param from first day, has format yyyy-MM-dd
+     * @param to last day (inclusive), has format yyyy-MM-dd
+     * @param interval of the returns ("d1" or "h1", for example)
+     * @return the risk metrics
+     */
+    @GetMapping("/id/{id}/risk")
+    @ResponseStatus(HttpStatus.OK)
+    public WalletRiskResponseDTO getRisk(@PathVariable UUID id, 
+                @RequestParam("from") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                @RequestParam("to") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+                @RequestParam(name = "interval", defaultValue = "d1") String interval) {
+        return riskService.evaluateRisk(id, from, to, interval);
     }
 
     /**
@@ -120,12 +248,16 @@ public class WalletController {
      * value in the wallet for the date parameter.
      * 
      * @param date
+     * @param deadline in milliseconds, optional
      * @param assetDTOs
      * @return
      */
     @GetMapping("/evaluate")
     @ResponseStatus(HttpStatus.OK)
-    public WalletEvaluationResponseDTO evaluateWallet(@RequestParam("date") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date, @RequestBody WalletEvaluationRequestDTO assetDTOs) {
-        return walletService.evaluateWallet(assetDTOs, date);
+    public WalletEvaluationResponseDTO evaluateWallet(@RequestParam("date") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date, 
+                @RequestParam(name = "deadline", required = false) @Positive Long deadline, @RequestBody WalletEvaluationRequestDTO assetDTOs) {
+        return deadline != null ? 
+                    walletService.evaluateWallet(assetDTOs, date, Duration.ofMillis(deadline)) : 
+                    walletService.evaluateWallet(assetDTOs, date);
     }
 }
@@ -11,6 +11,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 
 @JsonIdentityInfo(
@@ -19,13 +20,19 @@ import lombok.Data;
 )
 @Entity
 @Data
-@Table(name = "assets")
+@Table(
+    name = "assets",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_assets_wallet_token",
+        columnNames = { "wallet_id", "token_id" }
+    )
+)
 public class Asset {
     @Id
     @SequenceGenerator(
         name = "user_sequence",
         sequenceName = "user_sequence",
-        allocationSize = 1
+        allocationSize = 50
     )
     @GeneratedValue(
         strategy = GenerationType.SEQUENCE,
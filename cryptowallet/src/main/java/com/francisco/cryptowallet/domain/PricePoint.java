@@ -0,0 +1,73 @@
+package com.francisco.cryptowallet.domain;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A token's price at a point in time, kept locally so historical evaluations
+ * don't depend on the external API.
+ * 
+ * The interval is the history interval the point was read at: an "m1" point is
+ * the price at that minute, while "h1" or "d1" points are averages over the hour
+ * or day, so only "m1" points can answer a lookup for a given minute.
+ * 
+ * The primary key (token_id, price_interval, price_time) also serves the 
+ * nearest-point and range lookups of a token's points of one interval.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "price_history")
+@IdClass(PricePoint.Key.class)
+public class PricePoint {
+    @Id
+    @Column(
+        name = "token_id",
+        nullable = false
+    )
+    private String tokenId;
+
+    /**
+     * History interval code (for example, "m1", "h1", "d1").
+     */
+    @Id
+    @Column(
+        name = "price_interval",
+        nullable = false
+    )
+    private String interval;
+
+    /**
+     * Epoch millis.
+     */
+    @Id
+    @Column(
+        name = "price_time",
+        nullable = false
+    )
+    private Long time;
+
+    @Column(
+        name = "price_usd",
+        nullable = false
+    )
+    private double priceUsd;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String tokenId;
+        private String interval;
+        private Long time;
+    }
+}
@@ -1,14 +1,25 @@
 package com.francisco.cryptowallet.domain;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Data;
 
+/**
+ * Tokens are read on every asset write, import and evaluation, but written almost 
+ * only by the scheduled price update, so they are kept in the second-level cache 
+ * ("tokens" region, see application.conf).
+ */
 @Entity
 @Data
 @Table(name = "tokens")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tokens")
 public class Token {
     @Id
     @Column(
@@ -3,9 +3,15 @@ package com.francisco.cryptowallet.domain;
 import java.util.List;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,6 +19,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.NamedAttributeNode;
 import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import jakarta.persistence.FetchType;
@@ -25,19 +32,28 @@ import lombok.Data;
 @Entity
 @Data
 @Table(name = "wallets")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "wallets")
+@NaturalIdCache(region = "wallet-emails")
 @NamedEntityGraph(
     name = "Wallet.assets",
-    attributeNodes = @NamedAttributeNode("assets")
+    attributeNodes = @NamedAttributeNode(value = "assets", subgraph = "Asset.token"),
+    subgraphs = @NamedSubgraph(
+        name = "Asset.token",
+        attributeNodes = @NamedAttributeNode("token")
+    )
 )
 public class Wallet {
     @Id
     @GeneratedValue
     private UUID id;
 
-    @Column(
-        unique = true,
-        nullable = false
-    )
+    /**
+     * Natural id of the wallet (unique and never changed), so looking a wallet up 
+     * by its email is resolved from the "wallet-emails" cache region.
+     */
+    @NaturalId
+    @Column(nullable = false)
     private String email;
 
     @OneToMany(
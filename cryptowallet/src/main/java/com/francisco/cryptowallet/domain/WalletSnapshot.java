@@ -0,0 +1,54 @@
+package com.francisco.cryptowallet.domain;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A wallet's total value at the daily cut-off (00:00 UTC) of a date.
+ * 
+ * The value of each token held at that moment is kept in {@link WalletSnapshotPosition}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "wallet_snapshots")
+@IdClass(WalletSnapshot.Key.class)
+public class WalletSnapshot {
+    @Id
+    @Column(
+        name = "wallet_id",
+        nullable = false
+    )
+    private UUID walletId;
+
+    @Id
+    @Column(
+        name = "snapshot_date",
+        nullable = false
+    )
+    private LocalDate date;
+
+    @Column(
+        nullable = false
+    )
+    private double total;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID walletId;
+        private LocalDate date;
+    }
+}
@@ -0,0 +1,74 @@
+package com.francisco.cryptowallet.domain;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The quantity and price of a token held in a wallet at the daily cut-off 
+ * (00:00 UTC) of a date.
+ * 
+ * The primary key (wallet_id, snapshot_date, token_id) also serves the lookup
+ * of a wallet's positions at a date.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "wallet_snapshot_positions")
+@IdClass(WalletSnapshotPosition.Key.class)
+public class WalletSnapshotPosition {
+    @Id
+    @Column(
+        name = "wallet_id",
+        nullable = false
+    )
+    private UUID walletId;
+
+    @Id
+    @Column(
+        name = "snapshot_date",
+        nullable = false
+    )
+    private LocalDate date;
+
+    @Id
+    @Column(
+        name = "token_id",
+        nullable = false
+    )
+    private String tokenId;
+
+    @Column(
+        nullable = false
+    )
+    private String symbol;
+
+    @Column(
+        nullable = false
+    )
+    private double quantity;
+
+    @Column(
+        nullable = false
+    )
+    private double price;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID walletId;
+        private LocalDate date;
+        private String tokenId;
+    }
+}
@@ -0,0 +1,61 @@
+package com.francisco.cryptowallet.domain;
+
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read model of a wallet's current value, so it's read without walking its assets 
+ * and tokens.
+ * 
+ * Rows are rewritten with set-based statements after each token price refresh and 
+ * after each asset write, see {@link com.francisco.cryptowallet.repository.WalletSummaryRepositoryCustom}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "wallet_summary")
+public class WalletSummary {
+    @Id
+    @Column(
+        name = "wallet_id",
+        nullable = false
+    )
+    private UUID walletId;
+
+    @Column(
+        nullable = false
+    )
+    private double total;
+
+    @Column(
+        name = "asset_count",
+        nullable = false
+    )
+    private int assetCount;
+
+    /**
+     * Start (epoch millis) of the token price refresh whose prices the total is based on.
+     */
+    @Column(
+        name = "price_generation",
+        nullable = false
+    )
+    private long priceGeneration;
+
+    /**
+     * When (epoch millis) the row was last written.
+     */
+    @Column(
+        name = "updated_at",
+        nullable = false
+    )
+    private long updatedAt;
+}
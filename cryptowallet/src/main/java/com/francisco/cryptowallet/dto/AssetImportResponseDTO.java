@@ -0,0 +1,19 @@
+package com.francisco.cryptowallet.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+
+/**
+ * Result of a bulk asset import. unresolved_symbols lists the symbols that couldn't 
+ * be resolved to a priced token, their rows are not imported.
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AssetImportResponseDTO (
+    Integer imported,
+    Integer tokens,
+    List<String> unresolved_symbols
+) {};
@@ -0,0 +1,18 @@
+package com.francisco.cryptowallet.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+
+/**
+ * Risk of a wallet's asset. weight, volatility and risk_contribution are percentages,
+ * the risk contributions of all assets add up to 100.
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AssetRiskDTO (
+    String symbol,
+    Double weight,
+    Double volatility,
+    Double risk_contribution
+) {};
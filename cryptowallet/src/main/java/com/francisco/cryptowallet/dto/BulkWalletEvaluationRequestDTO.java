@@ -0,0 +1,8 @@
+package com.francisco.cryptowallet.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotEmpty;
+
+public record BulkWalletEvaluationRequestDTO (@NotEmpty List<UUID> ids) {};
@@ -0,0 +1,53 @@
+package com.francisco.cryptowallet.dto;
+
+/**
+ * Price history of an asset returned by the external API, stored in two parallel 
+ * primitive arrays (time in epoch millis and priceUsd, NaN if invalid) ordered by time.
+ */
+public record PriceHistoryDTO (long[] time, double[] priceUsd) {
+
+    private static final PriceHistoryDTO EMPTY = new PriceHistoryDTO(new long[0], new double[0]);
+
+    public static PriceHistoryDTO empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return time.length;
+    }
+
+    public boolean isEmpty() {
+        return time.length == 0;
+    }
+
+    public long timeAt(int index) {
+        return time[index];
+    }
+
+    public double priceAt(int index) {
+        return priceUsd[index];
+    }
+
+    /**
+     * Binary search of the last point at or before the given time.
+     * 
+     * @param epochMillis
+     * @return the point's index, -1 if all points are after the given time
+     */
+    public int indexAtOrBefore(long epochMillis) {
+        int low = 0;
+        int high = time.length - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+
+            if (time[mid] <= epochMillis) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return high;
+    }
+};
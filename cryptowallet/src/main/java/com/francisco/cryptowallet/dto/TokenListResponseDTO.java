@@ -1,10 +0,0 @@
-package com.francisco.cryptowallet.dto;
-
-import java.util.List;
-
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonInclude;
-
-@JsonIgnoreProperties(ignoreUnknown = true)
-@JsonInclude(JsonInclude.Include.NON_NULL)
-public record TokenListResponseDTO (List<TokenDataDTO> data) {};
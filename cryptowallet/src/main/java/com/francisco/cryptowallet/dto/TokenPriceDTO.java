@@ -0,0 +1,18 @@
+package com.francisco.cryptowallet.dto;
+
+/**
+ * Lightweight view of an asset returned by the external API, holding only the
+ * fields needed to track prices (see {@link com.francisco.cryptowallet.client.CoinCapPayloadParser}).
+ * 
+ * priceUsd is NaN when the API didn't return a valid price.
+ */
+public record TokenPriceDTO (String id, String symbol, String name, double priceUsd) {
+
+    public TokenPriceDTO(String id, String symbol, double priceUsd) {
+        this(id, symbol, null, priceUsd);
+    }
+
+    public boolean hasPrice() {
+        return !Double.isNaN(priceUsd);
+    }
+};
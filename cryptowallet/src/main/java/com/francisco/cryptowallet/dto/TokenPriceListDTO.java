@@ -0,0 +1,5 @@
+package com.francisco.cryptowallet.dto;
+
+import java.util.List;
+
+public record TokenPriceListDTO (List<TokenPriceDTO> data) {};
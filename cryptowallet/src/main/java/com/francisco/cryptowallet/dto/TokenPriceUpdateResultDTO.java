@@ -0,0 +1,16 @@
+package com.francisco.cryptowallet.dto;
+
+/**
+ * Summary of a token price update cycle.
+ *
+ * @param tokens number of tokens that were due for an update
+ * @param refreshed number of tokens whose price was successfully updated
+ * @param requests number of outbound price requests sent
+ * @param elapsedMillis duration of the whole cycle
+ */
+public record TokenPriceUpdateResultDTO (int tokens, int refreshed, int requests, long elapsedMillis) {
+
+    public static TokenPriceUpdateResultDTO empty() {
+        return new TokenPriceUpdateResultDTO(0, 0, 0, 0L);
+    }
+};
@@ -1,8 +0,0 @@
-package com.francisco.cryptowallet.dto;
-
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonInclude;
-
-@JsonIgnoreProperties(ignoreUnknown = true)
-@JsonInclude(JsonInclude.Include.NON_NULL)
-public record TokenResponseDTO (TokenDataDTO data) {};
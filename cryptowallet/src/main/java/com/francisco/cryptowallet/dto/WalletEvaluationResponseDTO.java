@@ -1,15 +1,29 @@
 package com.francisco.cryptowallet.dto;
 
+import java.util.List;
+
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import lombok.Builder;
 
-@Builder
+/**
+ * partial, priced_assets and timed_out_assets are only set when the evaluation's 
+ * deadline expired before all assets were priced.
+ */
+@Builder(toBuilder = true)
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record WalletEvaluationResponseDTO (
     Double total, 
     String best_asset, 
     Double best_performance, 
     String worst_asset,
-    Double worst_performance
-) {};
\ No newline at end of file
+    Double worst_performance,
+    Boolean partial,
+    List<String> priced_assets,
+    List<String> timed_out_assets
+) {
+
+    public WalletEvaluationResponseDTO(Double total, String best_asset, Double best_performance, String worst_asset, Double worst_performance) {
+        this(total, best_asset, best_performance, worst_asset, worst_performance, null, null, null);
+    }
+};
@@ -0,0 +1,22 @@
+package com.francisco.cryptowallet.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+
+/**
+ * Risk metrics of a wallet over a range. volatility (annualised) and max_drawdown are 
+ * percentages, the ratios are annualised. Undefined ratios (no volatility) are left out.
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record WalletRiskResponseDTO (
+    Double volatility,
+    Double max_drawdown,
+    Double sharpe_ratio,
+    Double sortino_ratio,
+    Integer points,
+    List<AssetRiskDTO> assets
+) {};
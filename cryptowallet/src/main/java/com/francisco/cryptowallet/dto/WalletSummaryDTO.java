@@ -0,0 +1,21 @@
+package com.francisco.cryptowallet.dto;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+
+/**
+ * price_generation is the start of the token price refresh the total is based on, and 
+ * updated_at when the summary was last written, both in epoch millis.
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record WalletSummaryDTO (
+    UUID id,
+    Double total,
+    Integer asset_count,
+    Long price_generation,
+    Long updated_at
+) {};
@@ -0,0 +1,33 @@
+package com.francisco.cryptowallet.evaluation;
+
+/**
+ * Immutable evaluation of a single asset at a past date.
+ * 
+ * @param symbol
+ * @param pastValue quantity * price at the past date
+ * @param performance change percentage between the past and current price,
+ * NaN if the past price isn't positive
+ */
+public record AssetEvaluation(String symbol, double pastValue, double performance) {
+
+    /**
+     * Evaluate a position against its price at a past date.
+     * 
+     * @param position
+     * @param pastPrice
+     * @return the asset's evaluation
+     */
+    public static AssetEvaluation of(AssetPosition position, double pastPrice) {
+        // Percentage change between past and current price. Positive if the price 
+        // increased, negative if it decreased in that period.
+        double performance = pastPrice > 0 ? 
+                    (position.currentPrice() - pastPrice) / pastPrice * 100.0 : 
+                    Double.NaN;
+
+        return new AssetEvaluation(position.symbol(), position.quantity() * pastPrice, performance);
+    }
+
+    public boolean hasPerformance() {
+        return !Double.isNaN(performance);
+    }
+}
@@ -0,0 +1,19 @@
+package com.francisco.cryptowallet.evaluation;
+
+/**
+ * An asset to evaluate: the token it holds, its quantity and the token's current price.
+ * 
+ * Both wallet assets (entities) and ad-hoc assets (request DTOs) are turned into positions,
+ * so they share the same evaluation engine.
+ * 
+ * @param tokenId id in the external API, null if the token couldn't be resolved
+ * @param symbol
+ * @param quantity
+ * @param currentPrice
+ */
+public record AssetPosition(String tokenId, String symbol, double quantity, double currentPrice) {
+
+    public AssetPosition withTokenId(String tokenId) {
+        return new AssetPosition(tokenId, symbol, quantity, currentPrice);
+    }
+}
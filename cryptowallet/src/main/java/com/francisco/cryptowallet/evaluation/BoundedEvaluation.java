@@ -0,0 +1,38 @@
+package com.francisco.cryptowallet.evaluation;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.francisco.cryptowallet.dto.WalletEvaluationResponseDTO;
+
+/**
+ * Result of an evaluation bounded by a deadline: the evaluation of the assets 
+ * priced in time, and the symbols of the assets that were still pending when the 
+ * deadline expired.
+ * 
+ * @param evaluation of the priced assets
+ * @param priced symbols of the assets with a past price
+ * @param timedOut symbols of the assets cancelled at the deadline
+ */
+public record BoundedEvaluation(WalletEvaluation evaluation, List<String> priced, List<String> timedOut) {
+
+    public boolean isPartial() {
+        return !timedOut.isEmpty();
+    }
+
+    /**
+     * The priced and timed out assets are only listed in partial results.
+     * 
+     * @return the evaluation's response, empty if no asset has a performance
+     */
+    public Optional<WalletEvaluationResponseDTO> toResponse() {
+        return evaluation.toResponse()
+                    .map(response -> isPartial() ? 
+                        response.toBuilder()
+                            .partial(true)
+                            .priced_assets(priced)
+                            .timed_out_assets(timedOut)
+                            .build() : 
+                        response);
+    }
+}
@@ -0,0 +1,37 @@
+package com.francisco.cryptowallet.evaluation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.francisco.cryptowallet.domain.Asset;
+
+/**
+ * A wallet's total quantity of a token.
+ * 
+ * @param tokenId
+ * @param symbol
+ * @param quantity
+ */
+public record Holding(String tokenId, String symbol, double quantity) {
+
+    /**
+     * Sum the quantities of the assets holding the same token.
+     * 
+     * @param assets
+     * @return the holdings, in the assets' order
+     */
+    public static List<Holding> of(List<Asset> assets) {
+        Map<String, Holding> holdings = new LinkedHashMap<>();
+
+        if (assets != null) {
+            for (Asset asset : assets) {
+                holdings.merge(asset.getToken().getId(), 
+                    new Holding(asset.getToken().getId(), asset.getToken().getSymbol(), asset.getQuantity()),
+                    (holding, other) -> new Holding(holding.tokenId(), holding.symbol(), holding.quantity() + other.quantity()));
+            }
+        }
+
+        return List.copyOf(holdings.values());
+    }
+}
@@ -0,0 +1,202 @@
+package com.francisco.cryptowallet.evaluation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import com.francisco.cryptowallet.dto.PriceHistoryDTO;
+import com.francisco.cryptowallet.evaluation.WalletRisk.AssetRisk;
+
+/**
+ * Risk metrics of a wallet computed on primitive arrays.
+ *
+ * Each asset's value is sampled on a regular grid (see {@link #align(PriceHistoryDTO, double, long, long, int)}),
+ * the wallet's value series is their sum, and the metrics are computed from the returns
+ * between consecutive points:
+ * - volatility: standard deviation of the returns, annualised by the number of periods per year
+ * - max drawdown: largest drop of the value from a previous peak
+ * - Sharpe ratio: mean excess return over its standard deviation, annualised
+ * - Sortino ratio: mean excess return over its downside deviation, annualised
+ * - contribution to risk: covariance of the asset's share of each return with the wallet's
+ *   return, over the return variance (the contributions add up to 1)
+ *
+ * The wallet metrics take a single pass over the series, and each asset takes one more
+ * pass, in parallel across assets.
+ *
+ */
+public final class RiskAnalysis {
+
+    private RiskAnalysis() {
+    }
+
+    /**
+     * Sample a history on a regular grid, carrying the last valid price forward.
+     *
+     * Each grid point takes the last valid price at or before its time (the same 
+     * as-of rule as {@link PriceHistoryDTO#indexAtOrBefore(long)}).
+     *
+     * @param history ordered by time
+     * @param quantity held, each point is quantity * price
+     * @param start epoch millis of the first point
+     * @param step millis between points
+     * @param points size of the grid
+     * @return the values, NaN before the first valid price
+     */
+    public static double[] align(PriceHistoryDTO history, double quantity, long start, long step, int points) {
+        double[] values = new double[points];
+        double last = Double.NaN;
+        int i = 0;
+
+        for (int t = 0; t < points; t++) {
+            long time = start + t * step;
+
+            for (; i < history.size() && history.timeAt(i) <= time; i++) {
+                if (!Double.isNaN(history.priceAt(i))) {
+                    last = history.priceAt(i);
+                }
+            }
+
+            values[t] = quantity * last;
+        }
+
+        return values;
+    }
+
+    /**
+     * Compute the risk metrics of a wallet.
+     *
+     * The series starts at the first point where every asset has a value.
+     *
+     * @param symbols of the assets
+     * @param values of each asset on the same grid (see {@link #align(PriceHistoryDTO, double, long, long, int)})
+     * @param periodsPerYear number of grid steps in a year
+     * @param riskFreeRate annual rate (0.04 is 4%)
+     * @return the metrics, empty if there are less than two returns
+     */
+    public static Optional<WalletRisk> analyse(List<String> symbols, double[][] values, double periodsPerYear, double riskFreeRate) {
+        int assets = values.length;
+        int points = assets == 0 ? 0 : values[0].length;
+        int first = 0;
+
+        for (double[] asset : values) {
+            while (first < points && Double.isNaN(asset[first])) {
+                first++;
+            }
+        }
+
+        if (points - first < 3) {
+            return Optional.empty();
+        }
+
+        double[] totals = new double[points];
+
+        for (double[] asset : values) {
+            for (int t = first; t < points; t++) {
+                totals[t] += asset[t];
+            }
+        }
+
+        // Wallet pass: returns, their moments, downside deviation and drawdown.
+        double periodRiskFree = Math.pow(1 + riskFreeRate, 1 / periodsPerYear) - 1;
+        double[] returns = new double[points];
+        double mean = 0;
+        double m2 = 0;
+        double downside = 0;
+        double peak = totals[first];
+        double maxDrawdown = 0;
+        int count = 0;
+
+        for (int t = first + 1; t < points; t++) {
+            double r = totals[t - 1] > 0 ? totals[t] / totals[t - 1] - 1 : 0;
+            returns[t] = r;
+
+            count++;
+            double delta = r - mean;
+            mean += delta / count;
+            m2 += delta * (r - mean);
+
+            double excess = Math.min(0, r - periodRiskFree);
+            downside += excess * excess;
+
+            peak = Math.max(peak, totals[t]);
+            maxDrawdown = peak > 0 ? Math.max(maxDrawdown, 1 - totals[t] / peak) : maxDrawdown;
+        }
+
+        double variance = m2 / (count - 1);
+        double deviation = Math.sqrt(variance);
+        double downsideDeviation = Math.sqrt(downside / count);
+        double annualisation = Math.sqrt(periodsPerYear);
+        double meanReturn = mean;
+        int start = first;
+
+        // Asset passes, in parallel.
+        List<AssetRisk> assetRisks = IntStream.range(0, assets)
+                    .parallel()
+                    .mapToObj(a -> assetRisk(symbols.get(a), values[a], totals, returns, meanReturn, variance, start, periodsPerYear))
+                    .toList();
+
+        return Optional.of(new WalletRisk(
+                    deviation * annualisation,
+                    maxDrawdown,
+                    ratio(mean - periodRiskFree, deviation, annualisation),
+                    ratio(mean - periodRiskFree, downsideDeviation, annualisation),
+                    points - first,
+                    assetRisks));
+    }
+
+    /**
+     * Annualised ratio of the mean excess return over a deviation.
+     *
+     * A flat series (for example, a stable coin) has no deviation, and a series that never 
+     * falls below the risk-free rate has no downside deviation: the ratio is then undefined.
+     *
+     * @return the ratio, NaN if the deviation is 0
+     */
+    private static double ratio(double excess, double deviation, double annualisation) {
+        return deviation > 0 ? excess / deviation * annualisation : Double.NaN;
+    }
+
+    /**
+     * One pass over an asset's values.
+     *
+     * The wallet's return is the sum of the assets' shares (value change over the wallet's
+     * previous value), so its variance is the sum of each share's covariance with it.
+     *
+     * @return the asset's risk
+     */
+    private static AssetRisk assetRisk(String symbol, double[] values, double[] totals, double[] returns, double meanReturn,
+                double variance, int first, double periodsPerYear) {
+        double mean = 0;
+        double m2 = 0;
+        double covariance = 0;
+        int n = 0;
+
+        for (int t = first + 1; t < values.length; t++) {
+            double r = values[t - 1] > 0 ? values[t] / values[t - 1] - 1 : 0;
+
+            n++;
+            double delta = r - mean;
+            mean += delta / n;
+            m2 += delta * (r - mean);
+
+            double share = totals[t - 1] > 0 ? (values[t] - values[t - 1]) / totals[t - 1] : 0;
+            covariance += share * (returns[t] - meanReturn);
+        }
+
+        int last = values.length - 1;
+
+        return new AssetRisk(symbol,
+                    totals[last] > 0 ? values[last] / totals[last] : Double.NaN,
+                    Math.sqrt(m2 / (n - 1) * periodsPerYear),
+                    variance > 0 ? covariance / (n - 1) / variance : Double.NaN);
+    }
+
+    /**
+     * @param values
+     * @return true if every value is NaN (no price in the range)
+     */
+    public static boolean isEmpty(double[] values) {
+        return Arrays.stream(values).allMatch(Double::isNaN);
+    }
+}
@@ -0,0 +1,116 @@
+package com.francisco.cryptowallet.evaluation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.francisco.cryptowallet.dto.WalletEvaluationResponseDTO;
+
+/**
+ * Immutable, combinable evaluation of a set of assets: total value at the past date,
+ * and best and worst performing assets.
+ * 
+ * Per-asset evaluations are folded with {@link #add(AssetEvaluation)} and partial 
+ * evaluations are merged with {@link #combine(WalletEvaluation)}, so the results of
+ * concurrent tasks are reduced without locks or shared mutable state. Both operations 
+ * are associative with {@link #EMPTY} as identity. On equal performances, the left 
+ * operand wins, so reducing in the assets' order gives a deterministic result.
+ * 
+ * @param total
+ * @param priced number of assets with a past price
+ * @param bestAsset
+ * @param bestPerformance
+ * @param worstAsset
+ * @param worstPerformance
+ */
+public record WalletEvaluation(
+    double total,
+    int priced,
+    String bestAsset,
+    double bestPerformance,
+    String worstAsset,
+    double worstPerformance
+) {
+
+    public static final WalletEvaluation EMPTY = 
+                new WalletEvaluation(0.0, 0, null, Double.NEGATIVE_INFINITY, null, Double.POSITIVE_INFINITY);
+
+    /**
+     * Evaluate positions from known past prices.
+     * 
+     * @param positions
+     * @param pastPrices by token id, positions without a past price are left out
+     * @return the evaluation
+     */
+    public static WalletEvaluation of(List<AssetPosition> positions, Map<String, Double> pastPrices) {
+        WalletEvaluation evaluation = EMPTY;
+
+        for (AssetPosition position : positions) {
+            Double pastPrice = pastPrices.get(position.tokenId());
+
+            if (pastPrice != null) {
+                evaluation = evaluation.add(AssetEvaluation.of(position, pastPrice));
+            }
+        }
+
+        return evaluation;
+    }
+
+    /**
+     * @param asset
+     * @return this evaluation with the asset added
+     */
+    public WalletEvaluation add(AssetEvaluation asset) {
+        boolean best = asset.hasPerformance() && asset.performance() > bestPerformance;
+        boolean worst = asset.hasPerformance() && asset.performance() < worstPerformance;
+
+        return new WalletEvaluation(
+                    total + asset.pastValue(),
+                    priced + 1,
+                    best ? asset.symbol() : bestAsset,
+                    best ? asset.performance() : bestPerformance,
+                    worst ? asset.symbol() : worstAsset,
+                    worst ? asset.performance() : worstPerformance);
+    }
+
+    /**
+     * @param other
+     * @return the evaluation of both sets of assets
+     */
+    public WalletEvaluation combine(WalletEvaluation other) {
+        boolean best = other.bestPerformance > bestPerformance;
+        boolean worst = other.worstPerformance < worstPerformance;
+
+        return new WalletEvaluation(
+                    total + other.total,
+                    priced + other.priced,
+                    best ? other.bestAsset : bestAsset,
+                    best ? other.bestPerformance : bestPerformance,
+                    worst ? other.worstAsset : worstAsset,
+                    worst ? other.worstPerformance : worstPerformance);
+    }
+
+    /**
+     * @return true if at least one asset has a performance
+     */
+    public boolean hasPerformance() {
+        return bestPerformance != Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Performances are rounded to two decimal places.
+     * 
+     * @return the evaluation's response, empty if no asset has a performance
+     */
+    public Optional<WalletEvaluationResponseDTO> toResponse() {
+        return hasPerformance() ? 
+            Optional.of(WalletEvaluationResponseDTO.builder()
+                    .total(total)
+                    .best_asset(bestAsset)
+                    .best_performance(Math.round(bestPerformance * 100.0) / 100.0)
+                    .worst_asset(worstAsset)
+                    .worst_performance(Math.round(worstPerformance * 100.0) / 100.0)
+                    .build()) : 
+            Optional.empty();
+    }
+}
@@ -0,0 +1,63 @@
+package com.francisco.cryptowallet.evaluation;
+
+import java.util.List;
+
+import com.francisco.cryptowallet.dto.AssetRiskDTO;
+import com.francisco.cryptowallet.dto.WalletRiskResponseDTO;
+
+/**
+ * Risk metrics of a wallet's value series, see {@link RiskAnalysis}.
+ * 
+ * Volatilities, drawdown, weights and contributions are fractions (0.25 is 25%),
+ * the ratios are NaN when their deviation is 0 (the Sharpe ratio when the series has no 
+ * volatility, the Sortino ratio when it never falls below the risk-free rate), and left
+ * out of the response.
+ * 
+ * @param volatility annualised standard deviation of the returns
+ * @param maxDrawdown largest drop from a peak
+ * @param sharpe annualised Sharpe ratio
+ * @param sortino annualised Sortino ratio
+ * @param points number of points of the series
+ * @param assets risk of each asset
+ */
+public record WalletRisk(double volatility, double maxDrawdown, double sharpe, double sortino, int points, List<AssetRisk> assets) {
+
+    /**
+     * @param symbol
+     * @param weight share of the wallet's value at the last point
+     * @param volatility annualised standard deviation of the asset's returns
+     * @param contribution share of the wallet's return variance
+     */
+    public record AssetRisk(String symbol, double weight, double volatility, double contribution) {}
+
+    /**
+     * Fractions are converted to percentages, everything is rounded to two decimal places.
+     * 
+     * @return the response
+     */
+    public WalletRiskResponseDTO toResponse() {
+        return WalletRiskResponseDTO.builder()
+                    .volatility(percent(volatility))
+                    .max_drawdown(percent(maxDrawdown))
+                    .sharpe_ratio(round(sharpe))
+                    .sortino_ratio(round(sortino))
+                    .points(points)
+                    .assets(assets.stream()
+                        .map(asset -> AssetRiskDTO.builder()
+                            .symbol(asset.symbol())
+                            .weight(percent(asset.weight()))
+                            .volatility(percent(asset.volatility()))
+                            .risk_contribution(percent(asset.contribution()))
+                            .build())
+                        .toList())
+                    .build();
+    }
+
+    private static Double percent(double value) {
+        return round(value * 100.0);
+    }
+
+    private static Double round(double value) {
+        return Double.isFinite(value) ? Math.round(value * 100.0) / 100.0 : null;
+    }
+}
@@ -38,6 +38,13 @@ public class GlobalExceptionHandler {
         return e.getMessage();
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    public String handleInvalidRequestException(InvalidRequestException e) {
+        return e.getMessage();
+    }
+
     @ExceptionHandler(TokenPriceException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ResponseBody
@@ -0,0 +1,8 @@
+package com.francisco.cryptowallet.exception;
+
+public class InvalidRequestException extends RuntimeException {
+    
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
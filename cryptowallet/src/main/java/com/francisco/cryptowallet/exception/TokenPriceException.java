@@ -5,4 +5,8 @@ public class TokenPriceException extends RuntimeException {
     public TokenPriceException(String message) {
         super(message);
     }
+
+    public TokenPriceException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
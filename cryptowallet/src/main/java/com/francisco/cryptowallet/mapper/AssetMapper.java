@@ -4,31 +4,37 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
 
+import com.francisco.cryptowallet.cache.PriceBook;
 import com.francisco.cryptowallet.domain.Asset;
 import com.francisco.cryptowallet.domain.Token;
 import com.francisco.cryptowallet.dto.AssetDTO;
 
 @Mapper(componentModel = "spring")
-public interface AssetMapper {
-    AssetMapper INSTANCE = Mappers.getMapper(AssetMapper.class);
+public abstract class AssetMapper {
+    public static final AssetMapper INSTANCE = Mappers.getMapper(AssetMapper.class);
+
+    @Autowired
+    protected PriceBook priceBook;
     
     /**
      * Map an Asset to a AssetDTO.
      * 
      * symbol fetched from the respective Assets's symbol.
-     * price fetched from the respective Assets's price.
-     * value total value (quantity * Asset's Token's price) calculated with Asset's getValue.
+     * price fetched from the {@link PriceBook} (or the respective Assets's price if the book has none, 
+     * 0 if the token has no price at all).
+     * value total value (quantity * price) calculated with the same price.
      * 
      * @param asset
      * @return the corresponding AssetDTO
      */
     @Mappings({
         @Mapping(target = "symbol", expression = "java(asset.getToken().getSymbol())"),
-        @Mapping(target = "price", expression = "java(asset.getToken().getPrice())"),
-        @Mapping(target = "value", expression = "java(asset.getValue())")
+        @Mapping(target = "price", expression = "java(currentPrice(asset.getToken()))"),
+        @Mapping(target = "value", expression = "java(asset.getQuantity() * currentPrice(asset.getToken()))")
     })
-    AssetDTO assetToAssetDTO(Asset asset);
+    public abstract AssetDTO assetToAssetDTO(Asset asset);
 
     /**
      * Map an AssetDTO to a Asset.
@@ -44,13 +50,26 @@ public interface AssetMapper {
         @Mapping(target = "wallet", ignore = true),
         @Mapping(target = "token", expression = "java(getTokenFromSymbol(assetDto.symbol()))")
     })
-    Asset assetDTOToAsset(AssetDTO assetDto);
+    public abstract Asset assetDTOToAsset(AssetDTO assetDto);
 
     /**
      * @param symbol
      * @return
      */
-    default Token getTokenFromSymbol(String symbol) {
+    public Token getTokenFromSymbol(String symbol) {
         return new Token();
     }
+
+    /**
+     * @param token
+     * @return the token's latest known price (the stored price when
+     * the mapper isn't managed by Spring, see {@link #INSTANCE}), 0 if it has none
+     */
+    protected double currentPrice(Token token) {
+        if (priceBook != null) {
+            return priceBook.priceOf(token).orElse(0.0);
+        }
+
+        return token.getPrice() != null ? token.getPrice() : 0.0;
+    }
 }
@@ -4,20 +4,27 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
 
+import com.francisco.cryptowallet.cache.PriceBook;
+import com.francisco.cryptowallet.domain.Asset;
 import com.francisco.cryptowallet.domain.Wallet;
 import com.francisco.cryptowallet.dto.WalletDTO;
 
 @Mapper(componentModel = "spring", uses = AssetMapper.class)
-public interface WalletMapper {
-    WalletMapper INSTANCE = Mappers.getMapper(WalletMapper.class);
+public abstract class WalletMapper {
+    public static final WalletMapper INSTANCE = Mappers.getMapper(WalletMapper.class);
+
+    @Autowired
+    protected PriceBook priceBook;
 
     /**
      * Map an Wallet to a WalletDTO.
      * 
      * assets mapped as is using AssetMapper.
      * email is ignored (not needed).
-     * total (sum of all assets' values) calculated using Wallet's getTotal method.
+     * total (sum of all assets' values) calculated with the prices in the {@link PriceBook}
+     * (Wallet's getTotal is used when the mapper isn't managed by Spring).
      * 
      * @param wallet
      * @return the corresponding WalletDTO
@@ -25,9 +32,9 @@ public interface WalletMapper {
     @Mappings({
         @Mapping(source = "assets", target = "assets"),
         @Mapping(target = "email", ignore = true),
-        @Mapping(target = "total", expression = "java(wallet.getTotal())")
+        @Mapping(target = "total", expression = "java(total(wallet))")
     })
-    WalletDTO walletToWalletDTO(Wallet wallet);
+    public abstract WalletDTO walletToWalletDTO(Wallet wallet);
 
     /**
      * Map an WalletDTO to a Wallet.
@@ -40,5 +47,28 @@ public interface WalletMapper {
     @Mappings({
         @Mapping(source = "assets", target = "assets")
     })
-    Wallet walletDTOToWallet(WalletDTO walletDTO);
+    public abstract Wallet walletDTOToWallet(WalletDTO walletDTO);
+
+    /**
+     * @param wallet
+     * @return the sum of all assets' values at their latest known price, assets 
+     * without any price are left out
+     */
+    protected Double total(Wallet wallet) {
+        if (priceBook == null) {
+            return wallet.getTotal();
+        }
+
+        if (wallet.getAssets() == null) {
+            return 0.0;
+        }
+
+        double total = 0.0;
+
+        for (Asset asset : wallet.getAssets()) {
+            total += asset.getQuantity() * priceBook.priceOf(asset.getToken()).orElse(0.0);
+        }
+
+        return total;
+    }
 }
@@ -0,0 +1,83 @@
+package com.francisco.cryptowallet.repository;
+
+import java.sql.ResultSet;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A one-off migration that merges the assets of a wallet holding the same token 
+ * (stored before positions were aggregated) into a single position, keeping the 
+ * oldest row (lowest id) with the sum of the quantities.
+ * 
+ * It runs with plain JDBC before the EntityManagerFactory is built 
+ * (see {@link com.francisco.cryptowallet.config.AssetCompactionConfig}), so that 
+ * Hibernate's schema update can then add the unique (wallet_id, token_id) constraint 
+ * of {@link com.francisco.cryptowallet.domain.Asset}, which would fail on duplicates.
+ * 
+ */
+@Slf4j
+public class AssetCompaction implements InitializingBean {
+
+    private static final String MERGE_DUPLICATE_QUANTITIES = 
+        "UPDATE assets a SET quantity = (" +
+            "SELECT SUM(d.quantity) FROM assets d WHERE d.wallet_id = a.wallet_id AND d.token_id = a.token_id) " +
+        "WHERE a.id = (SELECT MIN(d.id) FROM assets d WHERE d.wallet_id = a.wallet_id AND d.token_id = a.token_id) " +
+        "AND EXISTS (SELECT 1 FROM assets d WHERE d.wallet_id = a.wallet_id AND d.token_id = a.token_id AND d.id <> a.id)";
+
+    private static final String DELETE_DUPLICATES = 
+        "DELETE FROM assets a " +
+        "WHERE a.id > (SELECT MIN(d.id) FROM assets d WHERE d.wallet_id = a.wallet_id AND d.token_id = a.token_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AssetCompaction(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        compactPositions();
+    }
+
+    /**
+     * Merge the duplicate positions with two set-based statements, in one transaction.
+     * Nothing is done if the assets table doesn't exist yet (new database).
+     * 
+     * @return the number of merged (deleted) rows
+     */
+    public int compactPositions() {
+        if (!assetsTableExists()) {
+            log.info("No assets table yet, skipping asset position compaction.");
+            return 0;
+        }
+
+        TransactionTemplate transactionTemplate = 
+                    new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+
+        int merged = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(MERGE_DUPLICATE_QUANTITIES);
+            return jdbcTemplate.update(DELETE_DUPLICATES);
+        });
+
+        log.info("Compacted asset positions, merged {} duplicate rows.", merged);
+
+        return merged;
+    }
+
+    private boolean assetsTableExists() {
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            var metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? "ASSETS" : "assets";
+
+            try (ResultSet tables = metaData.getTables(null, null, table, new String[] { "TABLE" })) {
+                return tables.next();
+            }
+        });
+    }
+}
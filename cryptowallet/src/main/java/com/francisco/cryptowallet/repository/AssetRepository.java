@@ -1,13 +1,37 @@
 package com.francisco.cryptowallet.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.francisco.cryptowallet.domain.Asset;
 
-public interface AssetRepository extends JpaRepository<Asset, Long> {
+public interface AssetRepository extends JpaRepository<Asset, Long>, AssetRepositoryCustom {
 
     List<Asset> findByWalletId(UUID walletId);
+
+    /**
+     * @return the wallet's position in the token (at most one, see the unique constraint of {@link Asset})
+     */
+    Optional<Asset> findByWalletIdAndTokenId(UUID walletId, String tokenId);
+
+    /**
+     * Load the assets of several wallets, with their tokens and wallets, in a single query.
+     * 
+     * The wallet is fetched too, as the eager association would otherwise be loaded
+     * with one more query per distinct wallet.
+     * 
+     * @param walletIds
+     * @return the assets
+     */
+    @Query("select a from Asset a join fetch a.token join fetch a.wallet where a.wallet.id in :walletIds")
+    List<Asset> findAllWithTokenByWalletIdIn(@Param("walletIds") Collection<UUID> walletIds);
+
+    @Query("select distinct a.token.id from Asset a")
+    List<String> findDistinctTokenIds();
 }
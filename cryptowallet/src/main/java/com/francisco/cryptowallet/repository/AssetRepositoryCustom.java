@@ -0,0 +1,46 @@
+package com.francisco.cryptowallet.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.francisco.cryptowallet.domain.Asset;
+
+/**
+ * Bulk operations on assets.
+ * 
+ * A wallet holds at most one asset (position) per token, see the unique 
+ * (wallet_id, token_id) constraint of {@link Asset}.
+ */
+public interface AssetRepositoryCustom {
+
+    /**
+     * Add the quantities of the given positions to a wallet, in one transaction.
+     * 
+     * The positions the wallet already holds are incremented in place with one JDBC batch 
+     * of UPDATE statements. The others are persisted, flushed in chunks of {@code chunkSize} 
+     * rows (sent as JDBC batches, see {@code hibernate.jdbc.batch_size}) and cleared from 
+     * the persistence context after each chunk, so it doesn't grow with the number of positions.
+     * 
+     * If another transaction inserts one of the positions concurrently, the unique 
+     * constraint is violated and nothing is written.
+     * 
+     * @param walletId
+     * @param positions new assets of the wallet, at most one per token
+     * @param chunkSize
+     */
+    void addQuantities(UUID walletId, List<Asset> positions, int chunkSize);
+
+    /**
+     * Add a quantity to a wallet's position in a token, creating the position if the 
+     * wallet doesn't hold the token yet, with a single upsert statement 
+     * (INSERT ... ON CONFLICT on PostgreSQL, MERGE on H2).
+     * 
+     * On PostgreSQL, concurrent calls for the same position are serialized by the 
+     * unique constraint, so neither quantity is lost and no retry is needed.
+     * 
+     * @param walletId
+     * @param tokenId
+     * @param quantity
+     */
+    void addQuantity(UUID walletId, String tokenId, double quantity);
+}
@@ -0,0 +1,121 @@
+package com.francisco.cryptowallet.repository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.francisco.cryptowallet.domain.Asset;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementation of {@link AssetRepositoryCustom}.
+ * 
+ * The ids of new positions are taken from the pooled sequence of {@link Asset}, 
+ * so a chunk costs a single sequence call per allocation block. The statements
+ * are standard SQL, shared by PostgreSQL and H2, except for the single position 
+ * upsert. Its id is drawn straight from the database sequence, which Hibernate's 
+ * pooled optimizer never hands out itself.
+ * 
+ */
+public class AssetRepositoryImpl implements AssetRepositoryCustom {
+
+    private static final String HELD_TOKEN_IDS = 
+        "select a.token.id from Asset a where a.wallet.id = :walletId and a.token.id in :tokenIds";
+
+    private static final String INCREMENT_QUANTITY = 
+        "UPDATE assets SET quantity = quantity + ? WHERE wallet_id = ? AND token_id = ?";
+
+    private static final String UPSERT_QUANTITY_POSTGRES = 
+        "INSERT INTO assets (id, wallet_id, token_id, quantity) " +
+        "VALUES (nextval('user_sequence'), ?, ?, ?) " +
+        "ON CONFLICT (wallet_id, token_id) DO UPDATE SET quantity = assets.quantity + EXCLUDED.quantity";
+
+    private static final String UPSERT_QUANTITY_H2 = 
+        "MERGE INTO assets a " +
+        "USING (VALUES (CAST(? AS UUID), CAST(? AS VARCHAR(255)), CAST(? AS DOUBLE PRECISION))) " +
+            "AS v(wallet_id, token_id, quantity) " +
+        "ON a.wallet_id = v.wallet_id AND a.token_id = v.token_id " +
+        "WHEN MATCHED THEN UPDATE SET quantity = a.quantity + v.quantity " +
+        "WHEN NOT MATCHED THEN INSERT (id, wallet_id, token_id, quantity) " +
+            "VALUES (NEXT VALUE FOR user_sequence, v.wallet_id, v.token_id, v.quantity)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DatabaseProduct databaseProduct;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AssetRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseProduct = new DatabaseProduct(jdbcTemplate);
+    }
+
+    @Override
+    @Transactional
+    public void addQuantities(UUID walletId, List<Asset> positions, int chunkSize) {
+        int size = Math.max(1, chunkSize);
+        Set<String> heldTokenIds = new HashSet<>();
+
+        // The held tokens are read in chunks too, to stay within the database's parameter limit.
+        for (int i = 0; i < positions.size(); i += size) {
+            List<String> tokenIds = positions.subList(i, Math.min(i + size, positions.size())).stream()
+                        .map(position -> position.getToken().getId())
+                        .toList();
+
+            heldTokenIds.addAll(entityManager.createQuery(HELD_TOKEN_IDS, String.class)
+                        .setParameter("walletId", walletId)
+                        .setParameter("tokenIds", tokenIds)
+                        .getResultList());
+        }
+
+        List<Asset> heldPositions = new ArrayList<>();
+        List<Asset> newPositions = new ArrayList<>();
+
+        for (Asset position : positions) {
+            (heldTokenIds.contains(position.getToken().getId()) ? heldPositions : newPositions).add(position);
+        }
+
+        if (!heldPositions.isEmpty()) {
+            // Entities loaded before the increments would keep their old quantities.
+            entityManager.flush();
+            entityManager.clear();
+
+            jdbcTemplate.batchUpdate(INCREMENT_QUANTITY, heldPositions, size, (statement, position) -> {
+                statement.setDouble(1, position.getQuantity());
+                statement.setObject(2, walletId);
+                statement.setString(3, position.getToken().getId());
+            });
+        }
+
+        for (int i = 0; i < newPositions.size(); i++) {
+            entityManager.persist(newPositions.get(i));
+
+            if ((i + 1) % size == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    @Transactional
+    public void addQuantity(UUID walletId, String tokenId, double quantity) {
+        // Entities loaded before the upsert would keep their old quantities.
+        entityManager.flush();
+        entityManager.clear();
+
+        jdbcTemplate.update(databaseProduct.isPostgres() ? UPSERT_QUANTITY_POSTGRES : UPSERT_QUANTITY_H2, 
+                    walletId, tokenId, quantity);
+    }
+}
@@ -0,0 +1,27 @@
+package com.francisco.cryptowallet.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Detects the database behind the DataSource, for the custom repository 
+ * fragments that use database-specific SQL. The result is cached after the first call.
+ */
+@RequiredArgsConstructor
+class DatabaseProduct {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    public boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> 
+                "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+        }
+
+        return postgres;
+    }
+}
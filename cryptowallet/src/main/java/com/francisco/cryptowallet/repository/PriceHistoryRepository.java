@@ -0,0 +1,27 @@
+package com.francisco.cryptowallet.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.francisco.cryptowallet.domain.PricePoint;
+
+public interface PriceHistoryRepository extends JpaRepository<PricePoint, PricePoint.Key>, PriceHistoryRepositoryCustom {
+
+    /**
+     * @return the first price point of the interval in [start, end)
+     */
+    Optional<PricePoint> findFirstByTokenIdAndIntervalAndTimeGreaterThanEqualAndTimeLessThanOrderByTimeAsc(String tokenId, 
+                String interval, Long start, Long end);
+
+    /**
+     * @return the last price point of the interval at or before time
+     */
+    Optional<PricePoint> findFirstByTokenIdAndIntervalAndTimeLessThanEqualOrderByTimeDesc(String tokenId, String interval, Long time);
+
+    /**
+     * @return the price points of the interval in [start, end], ordered by time
+     */
+    List<PricePoint> findByTokenIdAndIntervalAndTimeBetweenOrderByTimeAsc(String tokenId, String interval, Long start, Long end);
+}
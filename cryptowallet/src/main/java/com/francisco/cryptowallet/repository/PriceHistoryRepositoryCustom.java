@@ -0,0 +1,20 @@
+package com.francisco.cryptowallet.repository;
+
+import java.util.Collection;
+
+import com.francisco.cryptowallet.domain.PricePoint;
+
+/**
+ * Bulk ingestion of price points that bypasses the persistence context.
+ */
+public interface PriceHistoryRepositoryCustom {
+
+    /**
+     * Insert the given price points with a single JDBC batch, in one transaction.
+     * 
+     * Points that are already stored (same token, interval and time) are left as they are.
+     * 
+     * @param pricePoints
+     */
+    void saveAllIgnoringDuplicates(Collection<PricePoint> pricePoints);
+}
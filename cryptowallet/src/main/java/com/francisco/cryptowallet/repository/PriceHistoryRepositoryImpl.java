@@ -0,0 +1,60 @@
+package com.francisco.cryptowallet.repository;
+
+import java.util.Collection;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.francisco.cryptowallet.domain.PricePoint;
+
+/**
+ * Implementation of {@link PriceHistoryRepositoryCustom}.
+ * 
+ * On PostgreSQL duplicates are skipped with ON CONFLICT DO NOTHING, other
+ * databases (H2) insert only when no point with the same key exists, so 
+ * stored points are never overwritten on either database.
+ * 
+ */
+public class PriceHistoryRepositoryImpl implements PriceHistoryRepositoryCustom {
+
+    private static final String INSERT_IGNORE_POSTGRES = 
+        "INSERT INTO price_history (token_id, price_interval, price_time, price_usd) VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_IF_ABSENT = 
+        "INSERT INTO price_history (token_id, price_interval, price_time, price_usd) " +
+        "SELECT ?, ?, ?, ? WHERE NOT EXISTS (" +
+            "SELECT 1 FROM price_history WHERE token_id = ? AND price_interval = ? AND price_time = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DatabaseProduct databaseProduct;
+
+    public PriceHistoryRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseProduct = new DatabaseProduct(jdbcTemplate);
+    }
+
+    @Override
+    @Transactional
+    public void saveAllIgnoringDuplicates(Collection<PricePoint> pricePoints) {
+        if (pricePoints.isEmpty()) {
+            return;
+        }
+
+        boolean postgres = databaseProduct.isPostgres();
+        String sql = postgres ? INSERT_IGNORE_POSTGRES : INSERT_IF_ABSENT;
+
+        jdbcTemplate.batchUpdate(sql, pricePoints, pricePoints.size(), (statement, pricePoint) -> {
+            statement.setString(1, pricePoint.getTokenId());
+            statement.setString(2, pricePoint.getInterval());
+            statement.setLong(3, pricePoint.getTime());
+            statement.setDouble(4, pricePoint.getPriceUsd());
+
+            if (!postgres) {
+                statement.setString(5, pricePoint.getTokenId());
+                statement.setString(6, pricePoint.getInterval());
+                statement.setLong(7, pricePoint.getTime());
+            }
+        });
+    }
+}
@@ -3,13 +3,24 @@ package com.francisco.cryptowallet.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.francisco.cryptowallet.domain.Token;
 
-public interface TokenRepository extends JpaRepository<Token, String>{
+import jakarta.persistence.QueryHint;
+
+public interface TokenRepository extends JpaRepository<Token, String>, TokenRepositoryCustom {
     
+    /**
+     * Cacheable: the ids of the result are kept in the query cache until a token 
+     * is inserted or the prices are updated (see {@link TokenRepositoryImpl}), 
+     * and the tokens themselves in the "tokens" region.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Token> findBySymbol(String symbol);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Token> findAllBySymbolIn(List<String> symbol);
 }
@@ -0,0 +1,25 @@
+package com.francisco.cryptowallet.repository;
+
+import java.util.Collection;
+
+import com.francisco.cryptowallet.domain.Token;
+
+/**
+ * Bulk operations on Tokens that bypass the persistence context.
+ */
+public interface TokenRepositoryCustom {
+
+    /**
+     * Write the prices of the given tokens with a single set-based statement
+     * (or a single JDBC batch), in one transaction.
+     * 
+     * Tokens that don't exist in the DB are ignored.
+     * 
+     * As the statement bypasses Hibernate, the given tokens are evicted from 
+     * the second-level cache once the transaction completes.
+     * 
+     * @param tokens with their up-to-date price
+     * @return the number of updated rows
+     */
+    int updatePrices(Collection<Token> tokens);
+}
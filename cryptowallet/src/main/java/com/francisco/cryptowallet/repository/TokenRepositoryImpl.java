@@ -0,0 +1,126 @@
+package com.francisco.cryptowallet.repository;
+
+import java.sql.Array;
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.Cache;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.francisco.cryptowallet.domain.Token;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Implementation of {@link TokenRepositoryCustom}.
+ * 
+ * On PostgreSQL all prices are written with one multi-row UPDATE joined
+ * against unnest(ids, prices). Other databases (H2) fall back to a single
+ * JDBC batch of UPDATE statements.
+ * 
+ * The updated tokens are evicted from the second-level cache after the
+ * transaction completes (not before, or a concurrent read could put the
+ * old price back), so the next read loads the new price. The cached query
+ * results are evicted too: Hibernate doesn't know about the JDBC update, so
+ * it would keep serving the results of findBySymbol as still current.
+ * 
+ */
+public class TokenRepositoryImpl implements TokenRepositoryCustom {
+
+    private static final String UPDATE_PRICES_UNNEST = 
+        "UPDATE tokens t SET price = v.price " +
+        "FROM unnest(?, ?) AS v(id, price) " +
+        "WHERE t.id = v.id";
+
+    private static final String UPDATE_PRICE = "UPDATE tokens SET price = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DatabaseProduct databaseProduct;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public TokenRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseProduct = new DatabaseProduct(jdbcTemplate);
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    @Transactional
+    public int updatePrices(Collection<Token> tokens) {
+        if (tokens.isEmpty()) {
+            return 0;
+        }
+
+        List<Token> priced = tokens.stream().filter(token -> token.getPrice() != null).toList();
+
+        int updated = databaseProduct.isPostgres() ? updatePricesUnnest(priced) : updatePricesBatch(priced);
+        evictAfterCompletion(priced);
+
+        return updated;
+    }
+
+    private void evictAfterCompletion(List<Token> tokens) {
+        List<String> ids = tokens.stream().map(Token::getId).toList();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(ids);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(ids);
+            }
+        });
+    }
+
+    private void evict(List<String> ids) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        ids.forEach(id -> cache.evict(Token.class, id));
+        cache.evictDefaultQueryRegion();
+    }
+
+    private int updatePricesUnnest(List<Token> tokens) {
+        String[] ids = tokens.stream().map(Token::getId).toArray(String[]::new);
+        Double[] prices = tokens.stream().map(Token::getPrice).toArray(Double[]::new);
+
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            Array idArray = connection.createArrayOf("varchar", ids);
+            Array priceArray = connection.createArrayOf("float8", prices);
+
+            try (var statement = connection.prepareStatement(UPDATE_PRICES_UNNEST)) {
+                statement.setArray(1, idArray);
+                statement.setArray(2, priceArray);
+                return statement.executeUpdate();
+            } finally {
+                idArray.free();
+                priceArray.free();
+            }
+        });
+    }
+
+    private int updatePricesBatch(List<Token> tokens) {
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_PRICE, tokens, tokens.size(), (statement, token) -> {
+            statement.setDouble(1, token.getPrice());
+            statement.setString(2, token.getId());
+        });
+
+        int updated = 0;
+
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Some drivers report SUCCESS_NO_INFO (-2) instead of the row count.
+                updated += count < 0 ? 1 : count;
+            }
+        }
+
+        return updated;
+    }
+}
@@ -1,15 +1,41 @@
 package com.francisco.cryptowallet.repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.francisco.cryptowallet.domain.Wallet;
 
-public interface WalletRepository extends JpaRepository<Wallet, UUID> {
-    
-    Optional<Wallet> findByEmail(String email);
+public interface WalletRepository extends JpaRepository<Wallet, UUID>, WalletRepositoryCustom {
 
-    Boolean existsByEmail(String email);
+    /**
+     * Load a wallet with its assets and their tokens in a single query (see the 
+     * "Wallet.assets" entity graph), so mapping it doesn't lazily load each asset and token.
+     */
+    @EntityGraph("Wallet.assets")
+    Optional<Wallet> findWithAssetsById(UUID id);
+
+    /**
+     * Load a wallet with its assets and their tokens in a single query, by its email.
+     */
+    @EntityGraph("Wallet.assets")
+    Optional<Wallet> findWithAssetsByEmail(String email);
+
+    /**
+     * First page of wallet ids, for keyset pagination over all wallets.
+     */
+    @Query("select w.id from Wallet w order by w.id")
+    List<UUID> findIds(Limit limit);
+
+    /**
+     * Next page of wallet ids, after the last id of the previous page.
+     */
+    @Query("select w.id from Wallet w where w.id > :after order by w.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Limit limit);
 }
@@ -0,0 +1,30 @@
+package com.francisco.cryptowallet.repository;
+
+import java.util.Optional;
+
+import com.francisco.cryptowallet.domain.Wallet;
+
+/**
+ * Lookups of Wallets by their natural id (the email).
+ */
+public interface WalletRepositoryCustom {
+
+    /**
+     * Find a wallet by its email.
+     * 
+     * The email is resolved to the wallet's id with the natural id cache, and the 
+     * wallet is read from the second-level cache, so no query is sent once cached.
+     * 
+     * @param email
+     * @return the wallet, if it exists
+     */
+    Optional<Wallet> findByEmail(String email);
+
+    /**
+     * Check if a wallet with the given email exists, with the same lookup as {@link #findByEmail(String)}.
+     * 
+     * @param email
+     * @return true if the wallet exists
+     */
+    Boolean existsByEmail(String email);
+}
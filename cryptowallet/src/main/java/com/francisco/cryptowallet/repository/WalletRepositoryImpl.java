@@ -0,0 +1,38 @@
+package com.francisco.cryptowallet.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.francisco.cryptowallet.domain.Wallet;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementation of {@link WalletRepositoryCustom}.
+ * 
+ * Uses Hibernate's natural id API, which checks the persistence context, then the 
+ * "wallet-emails" and "wallets" cache regions, and only then queries the DB.
+ * 
+ */
+public class WalletRepositoryImpl implements WalletRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Wallet> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                    .bySimpleNaturalId(Wallet.class)
+                    .loadOptional(email);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Boolean existsByEmail(String email) {
+        return findByEmail(email).isPresent();
+    }
+}
@@ -0,0 +1,23 @@
+package com.francisco.cryptowallet.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.francisco.cryptowallet.domain.WalletSnapshotPosition;
+
+public interface WalletSnapshotPositionRepository extends JpaRepository<WalletSnapshotPosition, WalletSnapshotPosition.Key> {
+
+    /**
+     * @return the wallet's positions at the date, read with the primary key's prefix
+     */
+    List<WalletSnapshotPosition> findByWalletIdAndDate(UUID walletId, LocalDate date);
+
+    /**
+     * @return the positions of the wallets at the date, read with the primary key's prefix
+     */
+    List<WalletSnapshotPosition> findByWalletIdInAndDate(Collection<UUID> walletIds, LocalDate date);
+}
@@ -0,0 +1,16 @@
+package com.francisco.cryptowallet.repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.francisco.cryptowallet.domain.WalletSnapshot;
+
+public interface WalletSnapshotRepository extends JpaRepository<WalletSnapshot, WalletSnapshot.Key>, WalletSnapshotRepositoryCustom {
+
+    Optional<WalletSnapshot> findByWalletIdAndDate(UUID walletId, LocalDate date);
+
+    long countByDate(LocalDate date);
+}
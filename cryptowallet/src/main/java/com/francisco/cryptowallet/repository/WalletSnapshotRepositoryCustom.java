@@ -0,0 +1,23 @@
+package com.francisco.cryptowallet.repository;
+
+import java.util.Collection;
+
+import com.francisco.cryptowallet.domain.WalletSnapshot;
+import com.francisco.cryptowallet.domain.WalletSnapshotPosition;
+
+/**
+ * Bulk ingestion of wallet snapshots that bypasses the persistence context.
+ */
+public interface WalletSnapshotRepositoryCustom {
+
+    /**
+     * Insert the given snapshots and their positions with JDBC batches, in one transaction.
+     * 
+     * Snapshots and positions that are already stored (same wallet, date and token) 
+     * are left as they are, so a snapshot run can be repeated.
+     * 
+     * @param snapshots
+     * @param positions
+     */
+    void saveAllIgnoringDuplicates(Collection<WalletSnapshot> snapshots, Collection<WalletSnapshotPosition> positions);
+}
@@ -0,0 +1,85 @@
+package com.francisco.cryptowallet.repository;
+
+import java.sql.Date;
+import java.util.Collection;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.francisco.cryptowallet.domain.WalletSnapshot;
+import com.francisco.cryptowallet.domain.WalletSnapshotPosition;
+
+/**
+ * Implementation of {@link WalletSnapshotRepositoryCustom}.
+ * 
+ * On PostgreSQL duplicates are skipped with ON CONFLICT DO NOTHING, other
+ * databases (H2) insert only when no row with the same key exists, so stored 
+ * snapshots are never overwritten on either database.
+ * 
+ */
+public class WalletSnapshotRepositoryImpl implements WalletSnapshotRepositoryCustom {
+
+    private static final String INSERT_SNAPSHOT_IGNORE_POSTGRES = 
+        "INSERT INTO wallet_snapshots (wallet_id, snapshot_date, total) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_SNAPSHOT_IF_ABSENT = 
+        "INSERT INTO wallet_snapshots (wallet_id, snapshot_date, total) " +
+        "SELECT ?, ?, ? WHERE NOT EXISTS (" +
+            "SELECT 1 FROM wallet_snapshots WHERE wallet_id = ? AND snapshot_date = ?)";
+
+    private static final String INSERT_POSITION_IGNORE_POSTGRES = 
+        "INSERT INTO wallet_snapshot_positions (wallet_id, snapshot_date, token_id, symbol, quantity, price) " +
+        "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_POSITION_IF_ABSENT = 
+        "INSERT INTO wallet_snapshot_positions (wallet_id, snapshot_date, token_id, symbol, quantity, price) " +
+        "SELECT ?, ?, ?, ?, ?, ? WHERE NOT EXISTS (" +
+            "SELECT 1 FROM wallet_snapshot_positions WHERE wallet_id = ? AND snapshot_date = ? AND token_id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DatabaseProduct databaseProduct;
+
+    public WalletSnapshotRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseProduct = new DatabaseProduct(jdbcTemplate);
+    }
+
+    @Override
+    @Transactional
+    public void saveAllIgnoringDuplicates(Collection<WalletSnapshot> snapshots, Collection<WalletSnapshotPosition> positions) {
+        boolean postgres = databaseProduct.isPostgres();
+
+        if (!snapshots.isEmpty()) {
+            jdbcTemplate.batchUpdate(postgres ? INSERT_SNAPSHOT_IGNORE_POSTGRES : INSERT_SNAPSHOT_IF_ABSENT, 
+                snapshots, snapshots.size(), (statement, snapshot) -> {
+                    statement.setObject(1, snapshot.getWalletId());
+                    statement.setDate(2, Date.valueOf(snapshot.getDate()));
+                    statement.setDouble(3, snapshot.getTotal());
+
+                    if (!postgres) {
+                        statement.setObject(4, snapshot.getWalletId());
+                        statement.setDate(5, Date.valueOf(snapshot.getDate()));
+                    }
+                });
+        }
+
+        if (!positions.isEmpty()) {
+            jdbcTemplate.batchUpdate(postgres ? INSERT_POSITION_IGNORE_POSTGRES : INSERT_POSITION_IF_ABSENT, 
+                positions, positions.size(), (statement, position) -> {
+                    statement.setObject(1, position.getWalletId());
+                    statement.setDate(2, Date.valueOf(position.getDate()));
+                    statement.setString(3, position.getTokenId());
+                    statement.setString(4, position.getSymbol());
+                    statement.setDouble(5, position.getQuantity());
+                    statement.setDouble(6, position.getPrice());
+
+                    if (!postgres) {
+                        statement.setObject(7, position.getWalletId());
+                        statement.setDate(8, Date.valueOf(position.getDate()));
+                        statement.setString(9, position.getTokenId());
+                    }
+                });
+        }
+    }
+}
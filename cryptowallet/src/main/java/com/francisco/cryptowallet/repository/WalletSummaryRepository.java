@@ -0,0 +1,19 @@
+package com.francisco.cryptowallet.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.francisco.cryptowallet.domain.WalletSummary;
+
+public interface WalletSummaryRepository extends JpaRepository<WalletSummary, UUID>, WalletSummaryRepositoryCustom {
+
+    /**
+     * @return the summary of the wallet with the email, read without touching its assets or tokens
+     */
+    @Query("select s from WalletSummary s where s.walletId = (select w.id from Wallet w where w.email = :email)")
+    Optional<WalletSummary> findByEmail(@Param("email") String email);
+}
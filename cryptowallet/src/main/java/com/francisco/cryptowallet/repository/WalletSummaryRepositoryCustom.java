@@ -0,0 +1,30 @@
+package com.francisco.cryptowallet.repository;
+
+import java.util.UUID;
+
+import com.francisco.cryptowallet.domain.WalletSummary;
+
+/**
+ * Set-based maintenance of the {@link WalletSummary} read model, bypassing the 
+ * persistence context.
+ */
+public interface WalletSummaryRepositoryCustom {
+
+    /**
+     * Recompute the summary of every wallet from the stored token prices, with a 
+     * single statement.
+     * 
+     * @param priceGeneration start (epoch millis) of the price refresh that wrote the prices
+     * @return the number of written rows
+     */
+    int refreshAll(long priceGeneration);
+
+    /**
+     * Recompute the summary of a wallet from the stored token prices, with a single 
+     * statement. The price generation is the latest of all summaries.
+     * 
+     * @param walletId
+     * @return the number of written rows, 0 if the wallet doesn't exist
+     */
+    int refresh(UUID walletId);
+}
@@ -0,0 +1,67 @@
+package com.francisco.cryptowallet.repository;
+
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of {@link WalletSummaryRepositoryCustom}.
+ * 
+ * The summaries are aggregated from wallets, assets and tokens with one 
+ * INSERT ... SELECT. On PostgreSQL existing rows are replaced with ON CONFLICT 
+ * DO UPDATE, other databases (H2) use MERGE on the primary key.
+ * 
+ */
+public class WalletSummaryRepositoryImpl implements WalletSummaryRepositoryCustom {
+
+    private static final String SELECT_SUMMARIES = 
+        "SELECT w.id, COALESCE(SUM(a.quantity * t.price), 0), COUNT(a.id), %s, CAST(? AS BIGINT) " +
+        "FROM wallets w " +
+        "LEFT JOIN assets a ON a.wallet_id = w.id " +
+        "LEFT JOIN tokens t ON t.id = a.token_id " +
+        "%s" +
+        "GROUP BY w.id";
+
+    private static final String UPSERT_POSTGRES = 
+        "INSERT INTO wallet_summary (wallet_id, total, asset_count, price_generation, updated_at) %s " +
+        "ON CONFLICT (wallet_id) DO UPDATE SET total = EXCLUDED.total, asset_count = EXCLUDED.asset_count, " +
+        "price_generation = EXCLUDED.price_generation, updated_at = EXCLUDED.updated_at";
+
+    private static final String MERGE = 
+        "MERGE INTO wallet_summary (wallet_id, total, asset_count, price_generation, updated_at) KEY (wallet_id) %s";
+
+    private static final String GIVEN_GENERATION = "CAST(? AS BIGINT)";
+
+    private static final String LATEST_GENERATION = "(SELECT COALESCE(MAX(s.price_generation), 0) FROM wallet_summary s)";
+
+    private static final String ALL_WALLETS = "";
+
+    private static final String ONE_WALLET = "WHERE w.id = ? ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DatabaseProduct databaseProduct;
+
+    public WalletSummaryRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseProduct = new DatabaseProduct(jdbcTemplate);
+    }
+
+    @Override
+    @Transactional
+    public int refreshAll(long priceGeneration) {
+        return jdbcTemplate.update(upsert(GIVEN_GENERATION, ALL_WALLETS), priceGeneration, System.currentTimeMillis());
+    }
+
+    @Override
+    @Transactional
+    public int refresh(UUID walletId) {
+        return jdbcTemplate.update(upsert(LATEST_GENERATION, ONE_WALLET), System.currentTimeMillis(), walletId);
+    }
+
+    private String upsert(String generation, String filter) {
+        String select = String.format(SELECT_SUMMARIES, generation, filter);
+        return String.format(databaseProduct.isPostgres() ? UPSERT_POSTGRES : MERGE, select);
+    }
+}
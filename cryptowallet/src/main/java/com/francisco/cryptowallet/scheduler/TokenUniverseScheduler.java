@@ -0,0 +1,36 @@
+package com.francisco.cryptowallet.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.francisco.cryptowallet.cache.TokenUniverse;
+import com.francisco.cryptowallet.service.TokenService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A scheduled task to load the {@link TokenUniverse} at startup and refresh it.
+ * 
+ * It triggers {@link TokenService#loadTokenUniverse()} at a set interval.
+ * 
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenUniverseScheduler {
+    
+    private final TokenService tokenService;
+
+    /**
+     * The token universe is loaded at startup, then reloaded at a fixed interval.
+     * 
+     * This interval is configured in {@code token.universe.refresh.interval}.
+     * 
+     */
+    @Scheduled(fixedRateString = "${token.universe.refresh.interval}")
+    public void loadTokenUniverse() {
+        log.info("Triggering token universe refresh.");
+        tokenService.loadTokenUniverse();
+    }
+}
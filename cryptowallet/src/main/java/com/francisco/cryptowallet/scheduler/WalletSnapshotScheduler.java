@@ -0,0 +1,39 @@
+package com.francisco.cryptowallet.scheduler;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.francisco.cryptowallet.service.WalletSnapshotService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A scheduled task to snapshot the value of every wallet once a day.
+ * 
+ * It triggers {@link WalletSnapshotService#createSnapshots(LocalDate)} for the
+ * current date (UTC).
+ * 
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WalletSnapshotScheduler {
+    
+    private final WalletSnapshotService walletSnapshotService;
+
+    /**
+     * Wallets are snapshotted daily, shortly after the 00:00 UTC cut-off.
+     * 
+     * The schedule is configured in {@code wallet.snapshot.cron} ("-" disables it).
+     * 
+     */
+    @Scheduled(cron = "${wallet.snapshot.cron}", zone = "UTC")
+    public void createSnapshots() {
+        log.info("Triggering scheduled wallet snapshots.");
+        walletSnapshotService.createSnapshots(LocalDate.now(ZoneOffset.UTC));
+    }
+}
@@ -1,21 +1,38 @@
 package com.francisco.cryptowallet.service;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
+import com.francisco.cryptowallet.cache.PriceBook;
 import com.francisco.cryptowallet.domain.Asset;
 import com.francisco.cryptowallet.domain.Token;
 import com.francisco.cryptowallet.domain.Wallet;
 import com.francisco.cryptowallet.dto.AssetDTO;
+import com.francisco.cryptowallet.dto.AssetImportResponseDTO;
 import com.francisco.cryptowallet.exception.GlobalExceptionHandler;
+import com.francisco.cryptowallet.exception.InvalidRequestException;
 import com.francisco.cryptowallet.exception.TokenPriceException;
 import com.francisco.cryptowallet.exception.WalletNotFoundException;
 import com.francisco.cryptowallet.mapper.AssetMapper;
 import com.francisco.cryptowallet.repository.AssetRepository;
 import com.francisco.cryptowallet.repository.TokenRepository;
 import com.francisco.cryptowallet.repository.WalletRepository;
+import com.francisco.cryptowallet.repository.WalletSummaryRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -31,10 +48,20 @@ public class AssetService {
 
     private final WalletRepository walletRepository;
 
+    private final WalletSummaryRepository walletSummaryRepository;
+
     private final TokenService tokenService;
+
+    private final PriceBook priceBook;
     
     private final AssetMapper assetMapper;
 
+    @Value("${asset.import.chunk-size:500}")
+    private int importChunkSize;
+
+    @Value("${asset.import.max-rows:100000}")
+    private int maxImportRows;
+
     /**
      * Wallet will be retrieved by the provided email.
      * 
@@ -71,31 +98,267 @@ public class AssetService {
         return processAsset(wallet, assetDto);
     }
 
+    /**
+     * Import several assets into a wallet, retrieved by the provided email.
+     * 
+     * If wallet is not found, throws {@link WalletNotFoundException} to be 
+     * handled in {@link GlobalExceptionHandler} (NOT_FOUND returned).
+     * 
+     * Asset processing is delegated to {@link #importAssets(Wallet, List)}.
+     * 
+     * @param email
+     * @param assets
+     * @return the number of imported assets and the unresolved symbols
+     */
+    public AssetImportResponseDTO importAssets(String email, List<AssetDTO> assets) {
+        Wallet wallet = walletRepository.findByEmail(email).orElseThrow(WalletNotFoundException::new);
+        return importAssets(wallet, assets);
+    }
+
+    /**
+     * Import several assets into a wallet, retrieved by the provided UUID, 
+     * see {@link #importAssets(String, List)}.
+     * 
+     * @param id
+     * @param assets
+     * @return the number of imported assets and the unresolved symbols
+     */
+    public AssetImportResponseDTO importAssets(UUID id, List<AssetDTO> assets) {
+        Wallet wallet = walletRepository.findById(id).orElseThrow(WalletNotFoundException::new);
+        return importAssets(wallet, assets);
+    }
+
+    /**
+     * Import the assets of a CSV upload (symbol,quantity per line) into a wallet, 
+     * retrieved by the provided email, see {@link #readCsv(InputStream)}.
+     * 
+     * @param email
+     * @param csv
+     * @return the number of imported assets and the unresolved symbols
+     */
+    public AssetImportResponseDTO importAssets(String email, InputStream csv) {
+        Wallet wallet = walletRepository.findByEmail(email).orElseThrow(WalletNotFoundException::new);
+        return importTotals(wallet, readCsv(csv));
+    }
+
+    /**
+     * Import the assets of a CSV upload (symbol,quantity per line) into a wallet, 
+     * retrieved by the provided UUID, see {@link #readCsv(InputStream)}.
+     * 
+     * @param id
+     * @param csv
+     * @return the number of imported assets and the unresolved symbols
+     */
+    public AssetImportResponseDTO importAssets(UUID id, InputStream csv) {
+        Wallet wallet = walletRepository.findById(id).orElseThrow(WalletNotFoundException::new);
+        return importTotals(wallet, readCsv(csv));
+    }
+
+    /**
+     * Validate the rows and sum the quantities of each symbol, then import them 
+     * (see {@link #importTotals(Wallet, Map)}).
+     * 
+     * Rows without a symbol or with a non-positive quantity, and more than 
+     * {@code asset.import.max-rows} rows, are rejected with an {@link InvalidRequestException}
+     * handled in {@link GlobalExceptionHandler} (BAD_REQUEST returned).
+     * 
+     * @param wallet
+     * @param assetDtos
+     * @return the number of imported assets and the unresolved symbols
+     */
+    private AssetImportResponseDTO importAssets(Wallet wallet, List<AssetDTO> assetDtos) {
+        if (assetDtos != null && assetDtos.size() > maxImportRows) {
+            throw new InvalidRequestException("At most " + maxImportRows + " assets can be imported at once!");
+        }
+
+        Map<String, SymbolTotal> totals = new LinkedHashMap<>();
+
+        for (int i = 0; assetDtos != null && i < assetDtos.size(); i++) {
+            AssetDTO assetDto = assetDtos.get(i);
+
+            if (assetDto.symbol() == null || assetDto.symbol().isBlank() || !(assetDto.quantity() > 0)) {
+                throw new InvalidRequestException("Invalid asset at row " + (i + 1) + "!");
+            }
+
+            totals.merge(assetDto.symbol(), new SymbolTotal(assetDto.quantity(), 1), SymbolTotal::add);
+        }
+
+        return importTotals(wallet, totals);
+    }
+
+    /**
+     * Resolve each distinct symbol once (see {@link TokenService#resolveTokens(java.util.Collection)}), 
+     * and add the quantities of each token to the wallet's positions, with the new positions 
+     * inserted in chunks of {@code asset.import.chunk-size} rows 
+     * (see {@link AssetRepository#addQuantities(UUID, List, int)}).
+     * 
+     * Nothing is written until every row has been read and validated, so a rejected import
+     * leaves the wallet as it was. Rows whose symbol can't be resolved are left out, and 
+     * their symbols returned.
+     * 
+     * @param wallet
+     * @param totals the quantity and number of rows of each symbol, in order of appearance
+     * @return the number of imported assets and the unresolved symbols
+     */
+    private AssetImportResponseDTO importTotals(Wallet wallet, Map<String, SymbolTotal> totals) {
+        if (totals.isEmpty()) {
+            throw new InvalidRequestException("At least one asset is required!");
+        }
+
+        Map<String, Token> tokens = tokenService.resolveTokens(totals.keySet());
+
+        Map<String, Asset> positions = new LinkedHashMap<>();
+        int rows = 0;
+        int imported = 0;
+
+        for (Map.Entry<String, SymbolTotal> entry : totals.entrySet()) {
+            Token token = tokens.get(entry.getKey());
+            rows += entry.getValue().rows();
+
+            if (token != null) {
+                positions.merge(token.getId(), 
+                    Asset.builder().token(token).wallet(wallet).quantity(entry.getValue().quantity()).build(),
+                    (position, other) -> {
+                        position.setQuantity(position.getQuantity() + other.getQuantity());
+                        return position;
+                    });
+                imported += entry.getValue().rows();
+            }
+        }
+
+        assetRepository.addQuantities(wallet.getId(), List.copyOf(positions.values()), importChunkSize);
+        refreshSummary(wallet);
+
+        List<String> unresolvedSymbols = totals.keySet().stream()
+                    .filter(symbol -> !tokens.containsKey(symbol))
+                    .toList();
+
+        log.info("Imported {} of {} assets ({} positions) into wallet {}.", 
+                    imported, rows, positions.size(), wallet.getId());
+
+        return AssetImportResponseDTO.builder()
+                    .imported(imported)
+                    .tokens(totals.size() - unresolvedSymbols.size())
+                    .unresolved_symbols(unresolvedSymbols.isEmpty() ? null : unresolvedSymbols)
+                    .build();
+    }
+
+    /**
+     * Read a CSV upload as it streams in, one symbol,quantity pair per line. An optional 
+     * header line (symbol,quantity) and blank lines are skipped.
+     * 
+     * Only the running total of each symbol is kept, so memory depends on the number of 
+     * distinct symbols, not on the size of the upload.
+     * 
+     * Malformed lines, rows without a symbol or with a non-positive quantity, and uploads 
+     * with more than {@code asset.import.max-rows} rows, are rejected with an 
+     * {@link InvalidRequestException}.
+     * 
+     * @param csv
+     * @return the quantity and number of rows of each symbol, in order of appearance
+     */
+    private Map<String, SymbolTotal> readCsv(InputStream csv) {
+        Map<String, SymbolTotal> totals = new LinkedHashMap<>();
+        int rows = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (line.isBlank() || (lineNumber == 1 && line.trim().toLowerCase().startsWith("symbol"))) {
+                    continue;
+                }
+
+                String[] fields = line.split(",", -1);
+
+                if (fields.length != 2) {
+                    throw new InvalidRequestException("Invalid CSV line " + lineNumber + "!");
+                }
+
+                if (rows == maxImportRows) {
+                    throw new InvalidRequestException("At most " + maxImportRows + " assets can be imported at once!");
+                }
+
+                String symbol = fields[0].trim();
+                double quantity;
+
+                try {
+                    quantity = Double.parseDouble(fields[1].trim());
+                } catch (NumberFormatException e) {
+                    throw new InvalidRequestException("Invalid quantity at CSV line " + lineNumber + "!");
+                }
+
+                if (symbol.isEmpty() || !(quantity > 0)) {
+                    throw new InvalidRequestException("Invalid asset at CSV line " + lineNumber + "!");
+                }
+
+                totals.merge(symbol, new SymbolTotal(quantity, 1), SymbolTotal::add);
+                rows++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the CSV upload.", e);
+        }
+
+        return totals;
+    }
+
+    /**
+     * Summed quantity of the rows of one symbol in an import.
+     */
+    private record SymbolTotal(double quantity, int rows) {
+
+        SymbolTotal add(SymbolTotal other) {
+            return new SymbolTotal(quantity + other.quantity, rows + other.rows);
+        }
+    }
+
     /**
      * Retrieve the token.
      * 
-     * Create and save a Asset object.
+     * Add the quantity to the wallet's position in the token, creating it if the 
+     * wallet doesn't hold the token yet, in one statement 
+     * (see {@link AssetRepository#addQuantity(UUID, String, double)}).
      * 
      * @param walletOptional
      * @param assetDto
-     * @return up-to-date asset's info
+     * @return up-to-date position's info
      */
     private AssetDTO processAsset(Wallet wallet, AssetDTO assetDto) {
         Token token = getToken(assetDto.symbol());
 
-        Asset asset = Asset.builder()
-                        .token(token)
-                        .wallet(wallet)
-                        .quantity(assetDto.quantity())
-                        .build();
+        assetRepository.addQuantity(wallet.getId(), token.getId(), assetDto.quantity());
+
+        refreshSummary(wallet);
 
-        assetRepository.save(asset);
+        Asset position = assetRepository.findByWalletIdAndTokenId(wallet.getId(), token.getId())
+                        .orElseThrow(() -> new IllegalStateException(
+                            "Position in " + token.getSymbol() + " not found after adding to it."));
 
-        return assetMapper.assetToAssetDTO(asset);
+        return assetMapper.assetToAssetDTO(position);
     };
 
     /**
-     * If the token already exists in the DB, will call external API using 
+     * Recompute the wallet's summary after its assets changed 
+     * (see {@link WalletSummaryRepository#refresh(UUID)}).
+     * 
+     * Failures are only logged, the summary is refreshed again by the next price update.
+     * 
+     * @param wallet
+     */
+    private void refreshSummary(Wallet wallet) {
+        try {
+            walletSummaryRepository.refresh(wallet.getId());
+        } catch (DataAccessException e) {
+            log.warn("Failed to refresh the summary of wallet {}: {}", wallet.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * If the token already exists in the DB, its price is taken from the {@link PriceBook}
+     * if it's fresh enough. Otherwise, will call external API using 
      * the token's id (/assets/{{id}}), the prices is updated in the DB.
      * 
      * If the token doens't exist in the DB, the external API will be called
@@ -113,7 +376,9 @@ public class AssetService {
     }
 
     /**
-     * Call external API using the token's id (/assets/{{id}}), 
+     * Use the price in the {@link PriceBook} if it's not older than {@code token.price.max-staleness}.
+     * 
+     * Otherwise, call external API using the token's id (/assets/{{id}}), 
      * if the up-to-date price is retrieved, the token's price 
      * is updated in the DB.
      * 
@@ -121,6 +386,13 @@ public class AssetService {
      * @return updated Token.
      */
     private Token updatePrice(Token token) {
+        OptionalDouble cachedPrice = priceBook.getFresh(token.getId());
+
+        if (cachedPrice.isPresent()) {
+            token.setPrice(cachedPrice.getAsDouble());
+            return token;
+        }
+
         Optional<Double> priceOptional = tokenService.fetchTokenPrice(token.getId());
 
         priceOptional.ifPresent(price -> {
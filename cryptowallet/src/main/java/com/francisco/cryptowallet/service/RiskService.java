@@ -0,0 +1,120 @@
+package com.francisco.cryptowallet.service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.francisco.cryptowallet.client.HistoryInterval;
+import com.francisco.cryptowallet.client.RateGovernor.Priority;
+import com.francisco.cryptowallet.domain.Wallet;
+import com.francisco.cryptowallet.dto.PriceHistoryDTO;
+import com.francisco.cryptowallet.dto.WalletRiskResponseDTO;
+import com.francisco.cryptowallet.evaluation.Holding;
+import com.francisco.cryptowallet.evaluation.RiskAnalysis;
+import com.francisco.cryptowallet.exception.GlobalExceptionHandler;
+import com.francisco.cryptowallet.exception.InvalidRequestException;
+import com.francisco.cryptowallet.exception.NotFoundException;
+import com.francisco.cryptowallet.exception.WalletNotFoundException;
+import com.francisco.cryptowallet.repository.WalletRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Risk metrics of a wallet's current holdings over a past range (see {@link RiskAnalysis}).
+ * 
+ * The history of each token is fetched once for the whole range (concurrently, through 
+ * the history cache), sampled on a regular grid of the requested interval, and the metrics
+ * are computed on primitive arrays. Crypto markets never close, so returns are annualised
+ * with 365.25 days per year.
+ * 
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RiskService {
+
+    private static final double YEAR_MILLIS = TimeUnit.DAYS.toMillis(1) * 365.25;
+
+    private final WalletRepository walletRepository;
+
+    private final TokenService tokenService;
+
+    @Value("${wallet.risk.max-points:100000}")
+    private long maxPoints;
+
+    @Value("${wallet.risk.risk-free-rate:0.0}")
+    private double riskFreeRate;
+
+    /**
+     * Compute a wallet's risk metrics between two days.
+     * 
+     * Invalid requests throw an {@link InvalidRequestException} (unsupported interval, invalid 
+     * range or too many points), unknown wallets a {@link WalletNotFoundException}, and empty 
+     * wallets or ranges without enough history a {@link NotFoundException}, all handled in 
+     * {@link GlobalExceptionHandler}.
+     * 
+     * Tokens without any price in the range are left out.
+     * 
+     * @param id
+     * @param from first day (UTC)
+     * @param to last day (UTC), inclusive
+     * @param intervalCode (for example, "h1", "d1")
+     * @return the wallet's risk metrics
+     */
+    public WalletRiskResponseDTO evaluateRisk(UUID id, LocalDate from, LocalDate to, String intervalCode) {
+        HistoryInterval interval = HistoryInterval.of(intervalCode)
+                    .orElseThrow(() -> new InvalidRequestException("Unsupported interval: " + intervalCode + "!"));
+
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("A valid date range is required!");
+        }
+
+        long step = interval.millis();
+        long start = from.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        long end = Math.min(to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli(), System.currentTimeMillis());
+
+        if ((end - start) / step > maxPoints) {
+            throw new InvalidRequestException("At most " + maxPoints + " points can be requested, use a larger interval!");
+        }
+
+        Wallet wallet = walletRepository.findWithAssetsById(id)
+                            .orElseThrow(() -> new WalletNotFoundException());
+
+        List<Holding> holdings = Holding.of(wallet.getAssets());
+
+        if (holdings.isEmpty()) {
+            throw new NotFoundException("Wallet is empty!");
+        }
+
+        int points = (int) Math.max(0, (end - 1 - start) / step + 1);
+
+        // One interval before the start, so the first point has a price to carry forward.
+        Map<String, PriceHistoryDTO> histories = tokenService.fetchPriceHistories(
+                    holdings.stream().map(Holding::tokenId).toList(), interval.code(), start - step, end, Priority.BACKGROUND);
+
+        double[][] aligned = holdings.parallelStream()
+                    .map(holding -> RiskAnalysis.align(histories.getOrDefault(holding.tokenId(), PriceHistoryDTO.empty()), 
+                        holding.quantity(), start, step, points))
+                    .toArray(double[][]::new);
+
+        int[] priced = IntStream.range(0, aligned.length)
+                    .filter(i -> !RiskAnalysis.isEmpty(aligned[i]))
+                    .toArray();
+
+        return RiskAnalysis.analyse(
+                        IntStream.of(priced).mapToObj(i -> holdings.get(i).symbol()).toList(),
+                        IntStream.of(priced).mapToObj(i -> aligned[i]).toArray(double[][]::new),
+                        YEAR_MILLIS / step,
+                        riskFreeRate)
+                    .orElseThrow(() -> new NotFoundException("Not enough history to evaluate the risk!"))
+                    .toResponse();
+    }
+}
@@ -0,0 +1,233 @@
+package com.francisco.cryptowallet.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.francisco.cryptowallet.client.HistoryInterval;
+import com.francisco.cryptowallet.client.RateGovernor.Priority;
+import com.francisco.cryptowallet.domain.Wallet;
+import com.francisco.cryptowallet.dto.PriceHistoryDTO;
+import com.francisco.cryptowallet.evaluation.Holding;
+import com.francisco.cryptowallet.exception.GlobalExceptionHandler;
+import com.francisco.cryptowallet.exception.InvalidRequestException;
+import com.francisco.cryptowallet.exception.NotFoundException;
+import com.francisco.cryptowallet.exception.WalletNotFoundException;
+import com.francisco.cryptowallet.repository.WalletRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stream a wallet's value over time as NDJSON, one row per history point:
+ * {"time":epochMillis,"total":value,"assets":{"BTC":value,...}}
+ * 
+ * The range is split in pages of {@code wallet.timeseries.page-points} points. For each
+ * page, the history of every token is fetched concurrently and the series are merged 
+ * in timestamp order (k-way merge), carrying each token's last price forward. Rows are
+ * written and flushed page by page, so memory is bounded by one page per token whatever
+ * the length of the range, and the first rows are sent after the first page.
+ * 
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimeSeriesService {
+
+    private final WalletRepository walletRepository;
+
+    private final TokenService tokenService;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${wallet.timeseries.page-points:500}")
+    private int pagePoints;
+
+    @Value("${wallet.timeseries.max-points:200000}")
+    private long maxPoints;
+
+    /**
+     * Validate the request and load the wallet's holdings, then return the body 
+     * that streams the time series.
+     * 
+     * Validation happens before streaming, so errors are still returned with their
+     * status by {@link GlobalExceptionHandler}: {@link InvalidRequestException} for an
+     * unsupported interval, an invalid range or too many points, {@link WalletNotFoundException} 
+     * and {@link NotFoundException} if the wallet is empty.
+     * 
+     * @param id
+     * @param from first day (UTC)
+     * @param to last day (UTC), inclusive
+     * @param intervalCode (for example, "h1", "d1")
+     * @return the streamed NDJSON body
+     */
+    public StreamingResponseBody streamTimeSeries(UUID id, LocalDate from, LocalDate to, String intervalCode) {
+        HistoryInterval interval = HistoryInterval.of(intervalCode)
+                    .orElseThrow(() -> new InvalidRequestException("Unsupported interval: " + intervalCode + "!"));
+
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("A valid date range is required!");
+        }
+
+        long start = from.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        long end = Math.min(to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli(), System.currentTimeMillis());
+
+        if ((end - start) / interval.millis() > maxPoints) {
+            throw new InvalidRequestException("At most " + maxPoints + " points can be requested, use a larger interval!");
+        }
+
+        Wallet wallet = walletRepository.findWithAssetsById(id)
+                            .orElseThrow(() -> new WalletNotFoundException());
+
+        List<Holding> holdings = Holding.of(wallet.getAssets());
+
+        if (holdings.isEmpty()) {
+            throw new NotFoundException("Wallet is empty!");
+        }
+
+        return out -> writeTimeSeries(holdings, interval, start, end, out);
+    }
+
+    /**
+     * Write the time series page by page.
+     * 
+     * If a page fails mid-stream, the status has already been sent: the error is
+     * logged and the stream ends.
+     * 
+     * @param holdings
+     * @param interval
+     * @param start epoch millis
+     * @param end epoch millis (exclusive)
+     * @param out
+     * @throws IOException if the client disconnects
+     */
+    void writeTimeSeries(List<Holding> holdings, HistoryInterval interval, long start, long end, OutputStream out) throws IOException {
+        List<String> tokenIds = holdings.stream().map(Holding::tokenId).toList();
+        long pageMillis = interval.millis() * Math.max(1, pagePoints);
+
+        double[] lastPrices = new double[holdings.size()];
+        Arrays.fill(lastPrices, Double.NaN);
+        long lastTime = Long.MIN_VALUE;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // Rows are separated by the newline written after each one, not by Jackson's default " ".
+            generator.setRootValueSeparator(null);
+
+            for (long pageStart = start; pageStart < end; pageStart += pageMillis) {
+                long pageEnd = Math.min(pageStart + pageMillis, end);
+
+                Map<String, PriceHistoryDTO> histories;
+
+                try {
+                    histories = tokenService.fetchPriceHistories(tokenIds, interval.code(), pageStart, pageEnd, Priority.BACKGROUND);
+                } catch (RuntimeException e) {
+                    log.error("Failed to fetch time series page starting at {}: {}", pageStart, e.getMessage());
+                    break;
+                }
+
+                PriceHistoryDTO[] series = tokenIds.stream()
+                            .map(tokenId -> histories.getOrDefault(tokenId, PriceHistoryDTO.empty()))
+                            .toArray(PriceHistoryDTO[]::new);
+
+                lastTime = writePage(generator, holdings, series, lastPrices, pageStart, pageEnd, lastTime);
+                generator.flush();
+            }
+        }
+    }
+
+    /**
+     * Merge one page of every token's series in timestamp order, and write a row for 
+     * each distinct timestamp in [pageStart, pageEnd) after lastTime.
+     * 
+     * @return the time of the last written row
+     */
+    private long writePage(JsonGenerator generator, List<Holding> holdings, PriceHistoryDTO[] series, double[] lastPrices,
+                long pageStart, long pageEnd, long lastTime) throws IOException {
+        int[] cursors = new int[series.length];
+        PriorityQueue<Integer> queue = new PriorityQueue<>(Comparator.comparingLong(i -> series[i].timeAt(cursors[i])));
+
+        for (int i = 0; i < series.length; i++) {
+            cursors[i] = series[i].indexAtOrBefore(pageStart - 1) + 1;
+
+            if (cursors[i] < series[i].size() && series[i].timeAt(cursors[i]) < pageEnd) {
+                queue.add(i);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int head = queue.peek();
+            long time = series[head].timeAt(cursors[head]);
+
+            // Advance every series with a point at this time.
+            while (!queue.isEmpty() && series[queue.peek()].timeAt(cursors[queue.peek()]) == time) {
+                int i = queue.poll();
+                double price = series[i].priceAt(cursors[i]);
+
+                if (!Double.isNaN(price)) {
+                    lastPrices[i] = price;
+                }
+
+                if (++cursors[i] < series[i].size() && series[i].timeAt(cursors[i]) < pageEnd) {
+                    queue.add(i);
+                }
+            }
+
+            if (time > lastTime && writeRow(generator, holdings, lastPrices, time)) {
+                lastTime = time;
+            }
+        }
+
+        return lastTime;
+    }
+
+    /**
+     * Write a row with the value of every holding with a known price.
+     * 
+     * @return false if no holding has a price yet (nothing written)
+     */
+    private static boolean writeRow(JsonGenerator generator, List<Holding> holdings, double[] lastPrices, long time) throws IOException {
+        double total = 0.0;
+        boolean priced = false;
+
+        for (int i = 0; i < holdings.size(); i++) {
+            if (!Double.isNaN(lastPrices[i])) {
+                total += holdings.get(i).quantity() * lastPrices[i];
+                priced = true;
+            }
+        }
+
+        if (!priced) {
+            return false;
+        }
+
+        generator.writeStartObject();
+        generator.writeNumberField("time", time);
+        generator.writeNumberField("total", total);
+        generator.writeObjectFieldStart("assets");
+
+        for (int i = 0; i < holdings.size(); i++) {
+            if (!Double.isNaN(lastPrices[i])) {
+                generator.writeNumberField(holdings.get(i).symbol(), holdings.get(i).quantity() * lastPrices[i]);
+            }
+        }
+
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+
+        return true;
+    }
+}
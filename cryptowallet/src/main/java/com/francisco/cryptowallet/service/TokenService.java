@@ -1,36 +1,74 @@
 package com.francisco.cryptowallet.service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.francisco.cryptowallet.cache.HistoricalPriceCache;
+import com.francisco.cryptowallet.cache.PriceMatrix;
+import com.francisco.cryptowallet.cache.TokenUniverse;
+import com.francisco.cryptowallet.client.HistoryInterval;
+import com.francisco.cryptowallet.client.RateGovernor;
+import com.francisco.cryptowallet.client.RateGovernor.Priority;
+import com.francisco.cryptowallet.client.SingleFlight;
+import com.francisco.cryptowallet.cache.PriceBook;
 import com.francisco.cryptowallet.domain.Asset;
+import com.francisco.cryptowallet.domain.PricePoint;
 import com.francisco.cryptowallet.domain.Token;
 import com.francisco.cryptowallet.dto.AssetDTO;
-import com.francisco.cryptowallet.dto.AssetHistoryResponseDTO;
-import com.francisco.cryptowallet.dto.TokenDataDTO;
-import com.francisco.cryptowallet.dto.TokenListResponseDTO;
-import com.francisco.cryptowallet.dto.TokenResponseDTO;
+import com.francisco.cryptowallet.dto.PriceHistoryDTO;
+import com.francisco.cryptowallet.dto.TokenPriceDTO;
+import com.francisco.cryptowallet.dto.TokenPriceListDTO;
+import com.francisco.cryptowallet.dto.TokenPriceUpdateResultDTO;
 import com.francisco.cryptowallet.dto.WalletEvaluationResponseDTO;
+import com.francisco.cryptowallet.evaluation.AssetEvaluation;
+import com.francisco.cryptowallet.evaluation.AssetPosition;
+import com.francisco.cryptowallet.evaluation.BoundedEvaluation;
+import com.francisco.cryptowallet.evaluation.WalletEvaluation;
 import com.francisco.cryptowallet.exception.GlobalExceptionHandler;
 import com.francisco.cryptowallet.exception.TokenPriceException;
+import com.francisco.cryptowallet.repository.PriceHistoryRepository;
 import com.francisco.cryptowallet.repository.TokenRepository;
+import com.francisco.cryptowallet.repository.WalletSummaryRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
@@ -46,6 +84,8 @@ import lombok.extern.slf4j.Slf4j;
  * 
  * Parallel processing is used for efficiency.
  * 
+ * Every call to the external API goes through the shared {@link RateGovernor}.
+ * 
  */
 @Service
 @RequiredArgsConstructor
@@ -56,15 +96,55 @@ public class TokenService {
 
     private final RestTemplate restTemplate;
 
+    private final PriceBook priceBook;
+
+    private final HistoricalPriceCache historicalPriceCache;
+
+    private final PriceMatrix priceMatrix;
+
+    private final TokenUniverse tokenUniverse;
+
+    private final PriceHistoryRepository priceHistoryRepository;
+
+    private final WalletSummaryRepository walletSummaryRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    private final RateGovernor rateGovernor;
+
     @Value("${token.price.thread.max}")
     private int maxConcurrentThreads;
 
+    @Value("${token.history.thread.max:10}")
+    private int maxHistoryThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Value("${token.price.retry.max}")
     private int maxRetries;
 
     @Value("${token.price.retry.delay}")
     private long retrayDelay;
 
+    @Value("${token.price.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${token.price.batch.size:100}")
+    private int batchSize;
+
+    @Value("${token.universe.page-size:2000}")
+    private int universePageSize;
+
+    @Value("${wallet.evaluation.deadline:10000}")
+    private long defaultDeadline;
+
+    @Value("${wallet.evaluation.deadline.max:60000}")
+    private long maxDeadline;
+
+    @Value("${token.history.range.hourly-max-days:30}")
+    private int hourlyRangeMaxDays;
+
     @Value("${token.api.url.assets}")
     private String apiAssetsUrl;
     
@@ -72,18 +152,51 @@ public class TokenService {
 
     private ExecutorService historyExecutorService;
 
+    private Semaphore priceSemaphore;
+
+    private Semaphore historySemaphore;
+
+    /**
+     * Concurrent identical requests (same URL) to the external API share a single 
+     * in-flight call, see {@link SingleFlight}.
+     */
+    private final SingleFlight<String, TokenPriceDTO> priceRequests = new SingleFlight<>("price");
+
+    private final SingleFlight<String, TokenPriceListDTO> detailsRequests = new SingleFlight<>("details");
+
+    private final SingleFlight<String, PriceHistoryDTO> historyRequests = new SingleFlight<>("history");
+
     String assetsHistoryUrl;
     
     /**
-     * Thread pools are initialized and the asset history URL is constructed.
+     * Executors are initialized and the asset history URL is constructed.
      * 
-     * The number of threads in the pool is set in {@code token.price.thread.max}
+     * When {@code spring.threads.virtual.enabled} is set (which also switches Tomcat's
+     * request threads), every task runs on its own virtual thread. Otherwise fixed
+     * platform thread pools are used.
+     * 
+     * In both modes, the number of concurrent outbound calls is bounded by semaphores
+     * sized with {@code token.price.thread.max} and {@code token.history.thread.max}.
+     * 
+     * The request coalescing counters are registered as metrics.
      * 
      */
     @PostConstruct
     private void init() {
-        executorService = Executors.newFixedThreadPool(maxConcurrentThreads);
-        historyExecutorService = Executors.newFixedThreadPool(10);
+        if (virtualThreads) {
+            executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("token-price-", 0).factory());
+            historyExecutorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("token-history-", 0).factory());
+        } else {
+            executorService = Executors.newFixedThreadPool(maxConcurrentThreads);
+            historyExecutorService = Executors.newFixedThreadPool(maxHistoryThreads);
+        }
+
+        priceSemaphore = new Semaphore(maxConcurrentThreads);
+        historySemaphore = new Semaphore(maxHistoryThreads);
+
+        priceRequests.bindTo(meterRegistry);
+        detailsRequests.bindTo(meterRegistry);
+        historyRequests.bindTo(meterRegistry);
         assetsHistoryUrl = apiAssetsUrl + "/{id}/history";
     }
 
@@ -101,50 +214,200 @@ public class TokenService {
      * 
      * If there are no saved Tokens, the task ends (nothing to update).
      * 
+     * When {@code token.price.batch.enabled} is set, the tokens are split in chunks of
+     * {@code token.price.batch.size} ids and each chunk is fetched with a single
+     * request (/assets?ids=a,b,c). Otherwise, one request is sent per token.
+     * 
+     * The workers only fetch the prices. All refreshed prices are then written with
+     * a single bulk statement ({@link TokenRepository#updatePrices(java.util.Collection)}),
+     * so the whole cycle commits in one short transaction.
+     * 
+     * The wallet summaries are then recomputed from the new prices with one set-based
+     * statement (see {@link WalletSummaryRepository#refreshAll(long)}).
+     * 
+     * @return the number of refreshed tokens, requests sent and the cycle's duration
      */
-    public void updateAllTokenPrices() {
+    public TokenPriceUpdateResultDTO updateAllTokenPrices() {
         log.info("Starting token price update...");
 
+        long startTime = System.nanoTime();
+        long priceGeneration = System.currentTimeMillis();
+
         List<Token> tokens = tokenRepository.findAll();
 
         if (tokens.isEmpty()) {
             log.warn("No tokens found. Skipping update.");
-            return;
+            return TokenPriceUpdateResultDTO.empty();
         }
 
-        // Asynchronously update prices for each token.
-        List<CompletableFuture<Void>> futures = tokens.stream()
-                    .map(token -> CompletableFuture.runAsync(() -> fetchAndUpdateTokenPrice(token), executorService))
-                    .collect(Collectors.toList());
+        List<List<Token>> chunks = batchEnabled ? partition(tokens, batchSize) : List.of();
+
+        // Asynchronously update prices for each chunk (batch mode) or for each token.
+        List<CompletableFuture<List<Token>>> futures = batchEnabled ?
+                    chunks.stream()
+                        .map(chunk -> CompletableFuture.supplyAsync(() -> withPermit(priceSemaphore, () -> fetchAndUpdateTokenPrices(chunk)), executorService))
+                        .collect(Collectors.toList()) :
+                    tokens.stream()
+                        .map(token -> CompletableFuture.supplyAsync(() -> withPermit(priceSemaphore, () -> fetchAndUpdateTokenPrice(token)) ? List.of(token) : List.<Token>of(), executorService))
+                        .collect(Collectors.toList());
 
         // Wait for all futures to complete.
         CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
 
-        log.info("Completed scheduled token price update!");
+        List<Token> updatedTokens = futures.stream()
+                    .flatMap(future -> future.join().stream())
+                    .toList();
+
+        int refreshed = updatedTokens.isEmpty() ? 0 : tokenRepository.updatePrices(updatedTokens);
+        priceBook.putAll(updatedTokens);
+        storeRefreshedPrices(updatedTokens);
+        refreshWalletSummaries(priceGeneration);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        TokenPriceUpdateResultDTO result = new TokenPriceUpdateResultDTO(
+                    tokens.size(), refreshed, batchEnabled ? chunks.size() : tokens.size(), elapsedMillis);
+
+        log.info("Completed scheduled token price update! Refreshed {}/{} tokens with {} requests in {} ms.",
+                    result.refreshed(), result.tokens(), result.requests(), result.elapsedMillis());
+
+        return result;
+    }
+
+    /**
+     * Record the refreshed prices in the price matrix and the local price history 
+     * store, at the current minute (the resolution of the m1 history interval).
+     * 
+     * Storage failures are only logged, the local store is an optimization.
+     * 
+     * @param tokens with their up-to-date price
+     */
+    private void storeRefreshedPrices(List<Token> tokens) {
+        long minute = System.currentTimeMillis() / 60_000 * 60_000;
+
+        List<PricePoint> pricePoints = tokens.stream()
+                    .map(token -> new PricePoint(token.getId(), HistoryInterval.M1.code(), minute, token.getPrice()))
+                    .toList();
+
+        pricePoints.forEach(pricePoint -> priceMatrix.put(pricePoint.getTokenId(), minute, pricePoint.getPriceUsd()));
+
+        try {
+            priceHistoryRepository.saveAllIgnoringDuplicates(pricePoints);
+        } catch (DataAccessException e) {
+            log.warn("Failed to store refreshed prices in the price history: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute every wallet's summary with the refreshed prices.
+     * 
+     * Failures are only logged, the summaries are refreshed again by the next cycle.
+     * 
+     * @param priceGeneration start (epoch millis) of the price refresh
+     */
+    private void refreshWalletSummaries(long priceGeneration) {
+        try {
+            int refreshed = walletSummaryRepository.refreshAll(priceGeneration);
+            log.info("Refreshed the summaries of {} wallets.", refreshed);
+        } catch (DataAccessException e) {
+            log.warn("Failed to refresh the wallet summaries: {}", e.getMessage());
+        }
     }
 
     /**
      * Fetch and update a token's price, handling failures with logging.
      * 
+     * The token is only updated in memory, it's persisted in bulk at the end
+     * of {@link #updateAllTokenPrices()}.
+     * 
      * @param token to update
+     * @return true if the price was updated
      */
-    protected void fetchAndUpdateTokenPrice(Token token) {
+    protected boolean fetchAndUpdateTokenPrice(Token token) {
         try {
             Double price = fetchTokenPriceWithRetry(token);
             token.setPrice(price);
-            tokenRepository.save(token);
 
             log.info("Updated {}'s price to {}", token.getSymbol(), token.getPrice());
+            return true;
         } catch (TokenPriceException e) {
             log.warn("Failed to update price for {} after all retries.", token.getSymbol());
+            return false;
+        }
+    }
+
+    /**
+     * Fetch and update the prices of a chunk of tokens with a single request, 
+     * handling failures with logging.
+     * 
+     * Tokens missing from the response keep their previous price. As in
+     * {@link #fetchAndUpdateTokenPrice(Token)}, the tokens are only updated in memory.
+     * 
+     * @param tokens chunk of tokens to update
+     * @return the updated tokens
+     */
+    protected List<Token> fetchAndUpdateTokenPrices(List<Token> tokens) {
+        try {
+            Map<String, Double> prices = fetchTokenPricesWithRetry(tokens);
+
+            List<Token> updatedTokens = tokens.stream()
+                        .filter(token -> prices.containsKey(token.getId()))
+                        .peek(token -> token.setPrice(prices.get(token.getId())))
+                        .toList();
+
+            if (updatedTokens.size() < tokens.size()) {
+                log.warn("Prices missing for {} of {} tokens in chunk.", tokens.size() - updatedTokens.size(), tokens.size());
+            }
+
+            log.info("Updated prices of {} tokens.", updatedTokens.size());
+            return updatedTokens;
+        } catch (TokenPriceException e) {
+            log.warn("Failed to update prices for chunk of {} tokens after all retries.", tokens.size());
+            return List.of();
+        }
+    }
+
+    /**
+     * Attempts to fetch the prices of a chunk of tokens, with retry logic.
+     * 
+     * Same retry settings as {@link #fetchTokenPriceWithRetry(Token)}. The requests
+     * are sent with background priority (see {@link RateGovernor}).
+     * 
+     * @param tokens
+     * @return the fetched up-to-date prices mapped by token id
+     * @throws {@link TokenPriceException} if all retry attempts fail
+     */
+    protected Map<String, Double> fetchTokenPricesWithRetry(List<Token> tokens) {
+        List<String> ids = tokens.stream().map(Token::getId).toList();
+
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            try {
+                return fetchTokenPrices(ids, Priority.BACKGROUND);
+            } catch (TokenPriceException e) {
+                if (!isRetryable(e)) {
+                    throw e;
+                }
+
+                log.warn("Attempt {}/{} failed for chunk of {} tokens: {}",
+                    attempt, maxRetries, ids.size(), e.getMessage());
+            }
+
+            if (attempt < maxRetries) {
+                sleep(rateGovernor.backoff(attempt).toMillis());
+            }
         }
+
+        throw new TokenPriceException("Failed to fetch prices for chunk of " + ids.size() + " tokens.");
     }
 
     /**
      * Attempts to fetch the token's price, with retry logic.
      * 
-     * The maximum number of retries is set in {@Code token.price.retry.max} and the
-     * delay (ms) is set in {@Code token.price.retry.delay}.
+     * The maximum number of retries is set in {@Code token.price.retry.max}. The delay
+     * between attempts grows exponentially (with jitter) from {@Code token.price.retry.delay} ms,
+     * see {@link RateGovernor#backoff(int)}. Throttled and cancelled requests aren't 
+     * attempted again (see {@link #isRetryable(TokenPriceException)}).
+     * 
+     * The requests are sent with background priority.
      * 
      * @param token
      * @return the fetched up-to-date price
@@ -153,7 +416,7 @@ public class TokenService {
     protected Double fetchTokenPriceWithRetry(Token token) {
         for (int attempt = 0; attempt <= maxRetries; attempt++) {
             try {
-                Optional<Double> priceOptional = fetchTokenPrice(token.getId());
+                Optional<Double> priceOptional = fetchTokenPrice(token.getId(), Priority.BACKGROUND);
 
                 if (priceOptional.isPresent()) {
                     return priceOptional.get();
@@ -161,22 +424,42 @@ public class TokenService {
                     log.warn("Attempt {}/{}: Price not found for {}. Retrying...",
                         attempt, maxRetries, token.getSymbol());
                 }
-            } catch (RestClientException e) {
+            } catch (TokenPriceException e) {
+                if (!isRetryable(e)) {
+                    throw e;
+                }
+
                 log.warn("Attempt {}/{} failed for {}: {}",
                     attempt, maxRetries, token.getSymbol(), e.getMessage());
             }
 
             if (attempt < maxRetries) {
-                sleep(retrayDelay * attempt);
+                sleep(rateGovernor.backoff(attempt).toMillis());
             }
         }
 
         throw new TokenPriceException("Failed to fetch price for " + token.getSymbol() + ".");
     }
 
+    /**
+     * Whether a failed price request is worth another attempt. Throttled requests (429)
+     * were already retried by the {@link RateGovernor}, and cancelled (interrupted) 
+     * requests must stop.
+     * 
+     * @param e
+     * @return false if the request was throttled or cancelled
+     */
+    private static boolean isRetryable(TokenPriceException e) {
+        return !(e.getCause() instanceof HttpClientErrorException.TooManyRequests) 
+                    && !(e.getCause() instanceof CancellationException);
+    }
+
     /**
      * Fetch the latest price of a token from the external API.
      * 
+     * The fetched price is recorded in the {@link PriceBook}. Concurrent requests 
+     * for the same token share a single call.
+     * 
      * If a {@link HttpClientErrorException} is caught, the error is logged and
      * a {@link TokenPriceException} is thrown and handled in {@link GlobalExceptionHandler}.
      * 
@@ -187,26 +470,162 @@ public class TokenService {
      * @return an optional containing the price
      */
     public Optional<Double> fetchTokenPrice(String id) {
+        return fetchTokenPrice(id, Priority.INTERACTIVE);
+    }
+
+    /**
+     * Build the token of an asset found in the token universe, with its fresh price 
+     * from the {@link PriceBook} or else its latest price from the external API.
+     * 
+     * @param asset listed asset
+     * @return an Optional containing the token details, empty if the price can't be fetched
+     */
+    private Optional<Token> resolveListedToken(TokenPriceDTO asset) {
+        OptionalDouble freshPrice = priceBook.getFresh(asset.id());
+
+        try {
+            Optional<Double> price = freshPrice.isPresent() ? 
+                        Optional.of(freshPrice.getAsDouble()) : 
+                        fetchTokenPrice(asset.id());
+
+            return price.map(tokenPrice -> Token.builder()
+                        .id(asset.id())
+                        .symbol(asset.symbol())
+                        .price(tokenPrice)
+                        .build());
+        } catch (TokenPriceException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Fetch the latest price of a token from the external API, see {@link #fetchTokenPrice(String)}.
+     * 
+     * @param id
+     * @param priority of the request in the {@link RateGovernor}
+     * @return an optional containing the price
+     */
+    public Optional<Double> fetchTokenPrice(String id, Priority priority) {
         String url = apiAssetsUrl + "/" + id.toLowerCase();
         
         try {
-            TokenResponseDTO response = restTemplate.getForObject(url, TokenResponseDTO.class);
+            TokenPriceDTO response = priceRequests.execute(url, () -> 
+                        rateGovernor.execute(priority, () -> restTemplate.getForObject(url, TokenPriceDTO.class)));
             
-            return Optional.ofNullable(response)
-                           .map(TokenResponseDTO::data)
+            Optional<Double> priceOptional = Optional.ofNullable(response)
                            .flatMap(this::parsePrice);
+
+            priceOptional.ifPresent(price -> priceBook.put(id, price));
+
+            return priceOptional;
         } catch (HttpClientErrorException e) {
             log.error("HTTP error fetching price for {}: {}", id, e.getMessage());
-            throw new TokenPriceException("Failed to fetch token price for " + id + "!");
+            throw new TokenPriceException("Failed to fetch token price for " + id + "!", e);
         } catch (RestClientException e) {
             log.error("Client error fetching price for {}: {}", id, e.getMessage());
-            throw new TokenPriceException("Failed to fetch token price for " + id + "!");
+            throw new TokenPriceException("Failed to fetch token price for " + id + "!", e);
         } catch (Exception e) {
             log.error("Unexpected error fetching token price for {}: {}", id, e.getMessage());
-            throw new TokenPriceException("An unexpected error occurred while fetching " + id + "'s price!");
+            throw new TokenPriceException("An unexpected error occurred while fetching " + id + "'s price!", e);
         } 
     }
 
+    /**
+     * Fetch the latest prices of several tokens from the external API with a single 
+     * request (/assets?ids=a,b,c).
+     * 
+     * Entries with a missing or invalid price are left out of the result.
+     * 
+     * If the request fails, the error is logged and a {@link TokenPriceException} is thrown.
+     * 
+     * @param ids
+     * @return the prices mapped by token id
+     */
+    public Map<String, Double> fetchTokenPrices(List<String> ids) {
+        return fetchTokenPrices(ids, Priority.INTERACTIVE);
+    }
+
+    /**
+     * Fetch the latest prices of several tokens, see {@link #fetchTokenPrices(List)}.
+     * 
+     * @param ids
+     * @param priority of the request in the {@link RateGovernor}
+     * @return the prices mapped by token id
+     */
+    public Map<String, Double> fetchTokenPrices(List<String> ids, Priority priority) {
+        String url = UriComponentsBuilder.fromUriString(apiAssetsUrl)
+                        .queryParam("ids", String.join(",", ids))
+                        .queryParam("limit", ids.size())
+                        .build()
+                        .toString();
+
+        try {
+            TokenPriceListDTO response = rateGovernor.execute(priority, () -> restTemplate.getForObject(url, TokenPriceListDTO.class));
+
+            if (response == null || response.data() == null) {
+                return Map.of();
+            }
+
+            Map<String, Double> prices = new HashMap<>();
+
+            for (TokenPriceDTO data : response.data()) {
+                parsePrice(data).ifPresent(price -> prices.put(data.id(), price));
+            }
+
+            return prices;
+        } catch (RestClientException e) {
+            log.error("Client error fetching prices for {} tokens: {}", ids.size(), e.getMessage());
+            throw new TokenPriceException("Failed to fetch token prices for " + ids.size() + " tokens!", e);
+        } catch (Exception e) {
+            log.error("Unexpected error fetching prices for {} tokens: {}", ids.size(), e.getMessage());
+            throw new TokenPriceException("An unexpected error occurred while fetching " + ids.size() + " tokens' prices!", e);
+        }
+    }
+
+    /**
+     * Run a task while holding a permit of the given semaphore.
+     * 
+     * Blocking on the semaphore (instead of on a bounded pool) keeps the 
+     * concurrency limit when tasks run on virtual threads. Cancelled (interrupted)
+     * tasks stop waiting for a permit.
+     * 
+     * @param semaphore
+     * @param task
+     * @return the task's result
+     */
+    private static <T> T withPermit(Semaphore semaphore, Supplier<T> task) {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a permit.");
+        }
+
+        try {
+            return task.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * Split a list in consecutive chunks of at most {@code size} elements.
+     * 
+     * @param list
+     * @param size
+     * @return the chunks
+     */
+    private static <T> List<List<T>> partition(List<T> list, int size) {
+        int chunkSize = Math.max(1, size);
+        List<List<T>> chunks = new ArrayList<>();
+
+        for (int i = 0; i < list.size(); i += chunkSize) {
+            chunks.add(list.subList(i, Math.min(i + chunkSize, list.size())));
+        }
+
+        return chunks;
+    }
+
     /**
      * Pause execution.
      * 
@@ -222,19 +641,80 @@ public class TokenService {
     }
 
     /**
-     * Fetch token details from the external API by the provided symbol.
+     * Load the token universe (see {@link TokenUniverse}) from the full listing of 
+     * the external API, paged by {@code token.universe.page-size} (/assets?limit=...&offset=...).
+     * 
+     * The pages are fetched with background priority. If a page fails, the error is
+     * logged and the current index is kept.
+     * 
+     * @return the number of listed assets, 0 if the listing failed
+     */
+    public int loadTokenUniverse() {
+        List<TokenPriceDTO> assets = new ArrayList<>();
+
+        try {
+            for (int offset = 0; ; offset += universePageSize) {
+                String url = UriComponentsBuilder.fromUriString(apiAssetsUrl)
+                                .queryParam("limit", universePageSize)
+                                .queryParam("offset", offset)
+                                .build()
+                                .toString();
+
+                TokenPriceListDTO page = rateGovernor.execute(Priority.BACKGROUND, () -> restTemplate.getForObject(url, TokenPriceListDTO.class));
+
+                if (page == null || page.data() == null) {
+                    throw new RestClientException("Empty response for " + url);
+                }
+
+                assets.addAll(page.data());
+
+                if (page.data().size() < universePageSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to load the token universe, keeping the current index: {}", e.getMessage());
+            return 0;
+        }
+
+        tokenUniverse.replace(assets);
+        log.info("Loaded the token universe: {} assets.", assets.size());
+
+        return assets.size();
+    }
+
+    /**
+     * Fetch token details by the provided symbol.
      * 
-     * The token doens't exist in the DB, and the external API is called
-     * (/assets?search=symbol&limit=1) to search the token's details (including its price) using the symbol
-     * specified in the request and search=symbol limit=1 to get only the exact correspondence 
-     * because all tokens whose symbol contain the symbol parameters are returned.
+     * The token doens't exist in the DB. Once the token universe is loaded (see 
+     * {@link #loadTokenUniverse()}), the symbol (or name) is resolved locally and only
+     * the price is fetched, unless the {@link PriceBook} has a fresh one. Symbols recently 
+     * found not to exist are rejected without any call.
+     * 
+     * Otherwise (the universe isn't loaded, or the token was listed after the last refresh),
+     * the external API is called (/assets?search=symbol&limit=1) to search the token's details 
+     * (including its price) using the symbol specified in the request and search=symbol limit=1 
+     * to get only the exact correspondence because all tokens whose symbol contain the symbol 
+     * parameters are returned. If nothing is found, the symbol is remembered as unknown.
      * 
      * In case of an error, the error is logged, and an empty Optional is returned.
      * 
+     * Concurrent searches for the same symbol share a single call.
+     * 
      * @param symbol (for example, "BTC", "ETH")
      * @return an Optional containing the token details or an empty Optional
      */
     public Optional<Token> fetchTokenDetails(String symbol) {
+        if (tokenUniverse.isKnownUnknown(symbol)) {
+            return Optional.empty();
+        }
+
+        Optional<TokenPriceDTO> listedAsset = tokenUniverse.find(symbol);
+
+        if (listedAsset.isPresent()) {
+            return resolveListedToken(listedAsset.get());
+        }
+
         String url = UriComponentsBuilder.fromUriString(apiAssetsUrl)
                         .queryParam("search", symbol.toUpperCase())
                         .queryParam("limit", 1)
@@ -242,18 +722,27 @@ public class TokenService {
                         .toString();
 
         try {
-            TokenListResponseDTO response = restTemplate.getForObject(url, TokenListResponseDTO.class);
+            TokenPriceListDTO response = detailsRequests.execute(url, () -> 
+                        rateGovernor.execute(Priority.INTERACTIVE, () -> restTemplate.getForObject(url, TokenPriceListDTO.class)));
 
-            if (response != null && response.data() != null) {
-                TokenDataDTO data = response.data().get(0);
+            if (response != null && response.data() != null && !response.data().isEmpty()) {
+                TokenPriceDTO data = response.data().get(0);
+
+                if (!data.hasPrice()) {
+                    throw new NumberFormatException("missing or invalid priceUsd");
+                }
 
                 Token token = new Token();
                 token.setId(data.id());
                 token.setSymbol(data.symbol());
-                token.setPrice(Double.parseDouble(data.priceUsd()));
+                token.setPrice(data.priceUsd());
+
+                priceBook.put(token.getId(), token.getPrice());
 
                 return Optional.of(token);
             }
+
+            tokenUniverse.markUnknown(symbol);
         } catch (HttpClientErrorException e) {
             log.error("HTTP error fetching details for {}: {}", symbol, e.getMessage());
         } catch (RestClientException e) {
@@ -268,252 +757,920 @@ public class TokenService {
     }
 
     /**
-     * Fetch historical token prices for a list of assets.
+     * Resolve several symbols at once, for bulk imports.
      * 
-     * Retrieves historical price data for each token in the list,
-     * calculates the tolta wallet value at the specified date, and 
-     * identifies the best and worst performing tokens while also registering
-     * their respective performances (change percentage).
+     * Tokens already in the DB are read with a single query. Other symbols listed in the
+     * token universe are resolved locally, the rest are searched one by one 
+     * (see {@link #fetchTokenDetails(String)}).
      * 
-     * Uses parallel execution with {@link CompletableFuture} to speed the process.
+     * Prices missing from the {@link PriceBook} are fetched in chunks of 
+     * {@code token.price.batch.size} ids, with a single request per chunk. The new tokens 
+     * are then saved with one saveAll, and the refreshed prices of the stored tokens 
+     * written with one bulk statement.
      * 
-     * Returns an empty Optional is no data is found.
+     * Symbols that can't be resolved, and new tokens without a price, are left out.
      * 
-     * @param assets a List
-     * @param date the starting date
-     * @return an Optional containing the total value stored in the wallet at the specfied
-     * date, and the best and worst performing tokens (with their respective performances).
+     * @param symbols distinct symbols (for example, "BTC", "ETH")
+     * @return the resolved tokens, by requested symbol
      */
-    public Optional<WalletEvaluationResponseDTO> fetchHistoricalPrices(List<Asset> assets, LocalDate date) {
-        // Uses Atomic references to store values safely accross multiple threads.
-        AtomicReference<Double> totalValue = new AtomicReference<>(0.0);
-        AtomicReference<String> bestPerformer = new AtomicReference<>(null);
-        AtomicReference<String> worstPerformer = new AtomicReference<>(null);
-        AtomicReference<Double> bestPerformance = new AtomicReference<>(Double.NEGATIVE_INFINITY);
-        AtomicReference<Double> worstPerformance = new AtomicReference<>(Double.POSITIVE_INFINITY);   
+    public Map<String, Token> resolveTokens(Collection<String> symbols) {
+        Map<String, Token> tokensBySymbol = new HashMap<>();
+        Map<String, Token> tokensById = new HashMap<>();
 
-        LocalDateTime currentTime = LocalDateTime.now(ZoneOffset.UTC);
+        for (Token token : tokenRepository.findAllBySymbolIn(List.copyOf(symbols))) {
+            tokensBySymbol.put(token.getSymbol(), token);
+            tokensById.put(token.getId(), token);
+        }
 
-        LocalDateTime startDateTime = date.atTime(currentTime.getHour(), currentTime.getMinute(), 0);
+        Set<String> storedIds = Set.copyOf(tokensById.keySet());
 
-        // To fetch the historic pricing, the start date is set to the specified date (yyyy-MM-dd)
-        // with the hours and minutes (hh::mm::00) being taken from currentTime.
-        long startLong = startDateTime.atZone(ZoneOffset.UTC).toInstant().toEpochMilli();
-        
-        // End date will is set to 1 minute after the start date. Only the price at start date is
-        // relevant for calculating the performance of the wallet, and the 1 minute interval allows 
-        // for the price point to be obtained.
-        long endLong = startDateTime.plusMinutes(1).atZone(ZoneOffset.UTC).toInstant().toEpochMilli();
-
-        String start = String.valueOf(startLong);
-        String end = String.valueOf(endLong);
-
-        // Lock object for thread safety during updates.
-        Object lock = new Object();
-
-        List<CompletableFuture<Void>> futures = assets.stream()
-                .map(asset -> CompletableFuture.runAsync(() -> {
-                    String tokenId = asset.getToken().getId();
-                    // Construct the url.
-                    String url = UriComponentsBuilder.fromUriString(assetsHistoryUrl.replace("{id}", tokenId))
-                                .queryParam("interval", "m1")
-                                .queryParam("start", start)
-                                .queryParam("end", end)
-                                .build()
-                                .toString();
+        for (String symbol : symbols) {
+            if (tokensBySymbol.containsKey(symbol) || tokenUniverse.isKnownUnknown(symbol)) {
+                continue;
+            }
 
-                    try  {
-                        AssetHistoryResponseDTO response = 
-                            restTemplate.getForObject(url, AssetHistoryResponseDTO.class);
-        
-                        if (response != null && response.data() != null && !response.data().isEmpty()) {
-                            double pastPrice = parsePrice(response.data().get(0).priceUsd());
-
-                            synchronized(lock) {
-                                double assetPrice = asset.getToken().getPrice();
-                                // Add the result of the asset's quantity * the past price (at specified date) 
-                                // from the list to the total wallet value.
-                                totalValue.updateAndGet(value -> value + asset.getQuantity() * pastPrice);
-                            
-                                if (pastPrice > 0) {
-                                    // Calculate the percentage change the asset's performance between past date
-                                    // and current date. Result is positive if the price increased,
-                                    // negative if price decreased in that period.
-                                    double performance = (assetPrice - pastPrice) / pastPrice * 100.0;
-            
-                                    // If true, update the best performing asset and the best performance.
-                                    if (performance > bestPerformance.get()) {
-                                        bestPerformance.set(performance);
-                                        bestPerformer.set(asset.getToken().getSymbol());
-                                    } 
-                                    
-                                    // If true, update the worst performing asset and the worst performance.
-                                    if (performance < worstPerformance.get()) {
-                                        worstPerformance.set(performance);
-                                        worstPerformer.set(asset.getToken().getSymbol());
-                                    }
-                                }
-                            }
-                        }
-                    } catch (HttpClientErrorException e) {
-                        log.error("HTTP error fetching historical price for {}: {}", asset.getToken().getSymbol(), e.getMessage());
-                    } catch (RestClientException e) {
-                        log.error("Client error fetching historical price for {}: {}", asset.getToken().getSymbol(), e.getMessage());
-                    } catch (Exception e) {
-                        log.error("Unexpected error fetching historical price for {}: {}", asset.getToken().getSymbol(), e.getMessage());
-                    } 
-                }, historyExecutorService))
-                .collect(Collectors.toList());
+            Optional<Token> token = tokenUniverse.find(symbol)
+                        .map(asset -> Token.builder().id(asset.id()).symbol(asset.symbol()).build())
+                        .or(() -> fetchTokenDetails(symbol));
 
-        try {
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-        } catch (Exception e) {
-            log.error("Unexpected error occured while waiting for historical price tasks to complete: {}", e.getMessage());
+            token.ifPresent(resolvedToken -> tokensBySymbol.put(symbol, 
+                        tokensById.computeIfAbsent(resolvedToken.getId(), id -> resolvedToken)));
         }
 
-        return bestPerformance.get() != Double.NEGATIVE_INFINITY ? 
-            Optional.of(WalletEvaluationResponseDTO.builder()
-                    .total(totalValue.get())
-                    .best_asset(bestPerformer.get())
-                    .best_performance(Math.round(bestPerformance.get() * 100.0) / 100.0)
-                    .worst_asset(worstPerformer.get())
-                    .worst_performance(Math.round(worstPerformance.get() * 100.0) / 100.0)
-                    .build()) : 
-            Optional.empty();
-    }
+        List<String> staleIds = new ArrayList<>();
 
-    /**
-     * Fetch historical token prices for a list of assets.
-     * 
-     * Retrieves historical price data for each token in the list,
-     * calculates the tolta wallet value at the specified date, and 
-     * identifies the best and worst performing tokens while also registering
-     * their respective performances (change percentage).
-     * 
-     * Uses parallel execution with {@link CompletableFuture} to speed the process.
-     * 
-     * Returns an empty Optional is no data is found.
-     * 
-     * @param assets a List
-     * @param date the starting date
-     * @return an Optional containing the total value stored in the wallet at the specfied
-     * date, and the best and worst performing tokens (with their respective performances).
-     */
-    public Optional<WalletEvaluationResponseDTO> fetchHistoricalPrices(List<AssetDTO> assets, LocalDate date, Map<String, String> tokenSymbolIdMap) {
-        // Uses Atomic references to store values safely accross multiple threads.
-        AtomicReference<Double> totalValue = new AtomicReference<>(0.0);
-        AtomicReference<String> bestPerformer = new AtomicReference<>(null);
-        AtomicReference<String> worstPerformer = new AtomicReference<>(null);
-        AtomicReference<Double> bestPerformance = new AtomicReference<>(Double.NEGATIVE_INFINITY);
-        AtomicReference<Double> worstPerformance = new AtomicReference<>(Double.POSITIVE_INFINITY);   
+        for (Token token : tokensById.values()) {
+            OptionalDouble freshPrice = priceBook.getFresh(token.getId());
 
-        LocalDateTime currentTime = LocalDateTime.now(ZoneOffset.UTC);
+            if (freshPrice.isPresent()) {
+                token.setPrice(freshPrice.getAsDouble());
+            } else if (token.getPrice() == null || storedIds.contains(token.getId())) {
+                staleIds.add(token.getId());
+            }
+        }
 
-        LocalDateTime startDateTime = date.atTime(currentTime.getHour(), currentTime.getMinute(), 0);
+        List<Token> refreshedTokens = new ArrayList<>();
 
-        // To fetch the historic pricing, the start date is set to the specified date (yyyy-MM-dd)
-        // with the hours and minutes (hh::mm::00) being taken from currentTime.
-        long startLong = startDateTime.atZone(ZoneOffset.UTC).toInstant().toEpochMilli();
-        
-        // End date will is set to 1 minute after the start date. Only the price at start date is
-        // relevant for calculating the performance of the wallet, and the 1 minute interval allows 
-        // for the price point to be obtained.
-        long endLong = startDateTime.plusMinutes(1).atZone(ZoneOffset.UTC).toInstant().toEpochMilli();
-
-        String start = String.valueOf(startLong);
-        String end = String.valueOf(endLong);
-
-        // Lock object for thread safety during updates.
-        Object lock = new Object();
-
-        List<CompletableFuture<Void>> futures = assets.stream()
-                .map(asset -> CompletableFuture.runAsync(() -> {
-                    String tokenId = tokenSymbolIdMap.get(asset.symbol());
-                    // Construct the url.
-                    // The interval is set to m1 as only the first historic record is necessary and m1 is
-                    // the minimum interval permit for the external API.
-                    String url = UriComponentsBuilder.fromUriString(assetsHistoryUrl.replace("{id}", tokenId))
-                                .queryParam("interval", "m1")
-                                .queryParam("start", start)
-                                .queryParam("end", end)
-                                .build()
-                                .toString();
+        for (List<String> chunk : partition(staleIds, batchSize)) {
+            try {
+                fetchTokenPrices(chunk).forEach((id, price) -> {
+                    Token token = tokensById.get(id);
+                    token.setPrice(price);
+                    refreshedTokens.add(token);
+                });
+            } catch (TokenPriceException e) {
+                log.warn("Failed to fetch prices for chunk of {} tokens: {}", chunk.size(), e.getMessage());
+            }
+        }
 
-                    try  {
-                        AssetHistoryResponseDTO response = 
-                            restTemplate.getForObject(url, AssetHistoryResponseDTO.class);
-        
-                        if (response != null && response.data() != null && !response.data().isEmpty()) {
-                            double pastPrice = parsePrice(response.data().get(0).priceUsd());
-
-                            synchronized(lock) {
-                                double assetPrice = asset.value()/asset.quantity();
-                                // Add the result of the asset's quantity * the past price (at specified date) 
-                                // from the list to the total wallet value.
-                                totalValue.updateAndGet(value -> value + asset.quantity() * pastPrice);
-                            
-                                if (pastPrice > 0) {
-                                    // Calculate the percentage change the asset's performance between past date
-                                    // and current date. Result is positive if the price increased,
-                                    // negative if price decreased in that period.
-                                    double performance = (assetPrice - pastPrice) / pastPrice * 100.0;
-            
-                                    // If true, update the best performing asset and the best performance.
-                                    if (performance > bestPerformance.get()) {
-                                        bestPerformance.set(performance);
-                                        bestPerformer.set(asset.symbol());
-                                    } 
-                                    
-                                    // If true, update the worst performing asset and the worst performance.
-                                    if (performance < worstPerformance.get()) {
-                                        worstPerformance.set(performance);
-                                        worstPerformer.set(asset.symbol());
-                                    }
-                                }
-                            }
-                        }
-                    } catch (HttpClientErrorException e) {
-                        log.error("HTTP error fetching historical price for {}: {}", asset.symbol(), e.getMessage());
-                    } catch (RestClientException e) {
-                        log.error("Client error fetching historical price for {}: {}", asset.symbol(), e.getMessage());
-                    } catch (Exception e) {
-                        log.error("Unexpected error fetching historical price for {}: {}", asset.symbol(), e.getMessage());
-                    } 
-                }, historyExecutorService))
-                .collect(Collectors.toList());
+        priceBook.putAll(refreshedTokens);
 
-        try {
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-        } catch (Exception e) {
-            log.error("Unexpected error occured while waiting for historical price tasks to complete: {}", e.getMessage());
-        }
+        List<Token> newTokens = tokensById.values().stream()
+                    .filter(token -> !storedIds.contains(token.getId()) && token.getPrice() != null)
+                    .toList();
 
-        return bestPerformance.get() != Double.NEGATIVE_INFINITY ? 
-            Optional.of(WalletEvaluationResponseDTO.builder()
-                    .total(totalValue.get())
-                    .best_asset(bestPerformer.get())
-                    .best_performance(Math.round(bestPerformance.get() * 100.0) / 100.0)
-                    .worst_asset(worstPerformer.get())
-                    .worst_performance(Math.round(worstPerformance.get() * 100.0) / 100.0)
-                    .build()) : 
-            Optional.empty();
-    }
+        List<Token> refreshedStoredTokens = refreshedTokens.stream()
+                    .filter(token -> storedIds.contains(token.getId()))
+                    .toList();
 
-    private Optional<Double> parsePrice(TokenDataDTO tokenData) {
-        try {
-            return Optional.ofNullable(tokenData.priceUsd())
-                        .map(Double::parseDouble);
-        } catch (NumberFormatException e) {
-            log.error("Failed to parse price for {}: {}", tokenData.symbol(), e.getMessage());
-            return Optional.empty();
+        if (!newTokens.isEmpty()) {
+            tokenRepository.saveAll(newTokens);
         }
-    }
 
-    private double parsePrice(String price) {
-        try {
-            return Double.parseDouble(price);
-        } catch (NumberFormatException e) {
-            return Double.NaN;
+        if (!refreshedStoredTokens.isEmpty()) {
+            tokenRepository.updatePrices(refreshedStoredTokens);
         }
+
+        tokensBySymbol.values().removeIf(token -> token.getPrice() == null);
+
+        return tokensBySymbol;
+    }
+
+    /**
+     * Fetch the price history of a token (/assets/{id}/history) between start and end.
+     * 
+     * Histories are served from the {@link HistoricalPriceCache} when possible, so repeated 
+     * evaluations of the same token and minute don't reach the external API. Otherwise, the
+     * points of the interval already in the local price history store are read first, and
+     * only the span from the first to the last interval boundary without a stored point is
+     * requested upstream. That call holds a permit of the history semaphore (see 
+     * {@link #init()}), and is shared by concurrent identical requests.
+     * 
+     * @param tokenId
+     * @param interval (for example, "m1", "h1", "d1")
+     * @param start epoch millis
+     * @param end epoch millis
+     * @return the price history, empty if the API returned none
+     * @throws RestClientException if the request fails
+     */
+    public PriceHistoryDTO fetchPriceHistory(String tokenId, String interval, long start, long end) {
+        return fetchPriceHistory(tokenId, interval, start, end, Priority.INTERACTIVE);
+    }
+
+    /**
+     * Fetch the price history of a token, see {@link #fetchPriceHistory(String, String, long, long)}.
+     * 
+     * @param tokenId
+     * @param interval (for example, "m1", "h1", "d1")
+     * @param start epoch millis
+     * @param end epoch millis
+     * @param priority of the request in the {@link RateGovernor}
+     * @return the price history, empty if the API returned none
+     * @throws RestClientException if the request fails
+     */
+    public PriceHistoryDTO fetchPriceHistory(String tokenId, String interval, long start, long end, Priority priority) {
+        HistoricalPriceCache.Key key = HistoricalPriceCache.Key.of(tokenId, interval, start, end);
+
+        Optional<PriceHistoryDTO> cachedHistory = historicalPriceCache.get(key);
+
+        if (cachedHistory.isPresent()) {
+            return cachedHistory.get();
+        }
+
+        List<PricePoint> storedPoints = storedPriceHistory(tokenId, interval, start, end);
+        long step = HistoryInterval.of(interval).map(HistoryInterval::millis).orElse(0L);
+
+        Optional<long[]> missingRange = missingRange(storedPoints, step, start, end);
+        PriceHistoryDTO fetchedHistory = PriceHistoryDTO.empty();
+
+        if (missingRange.isPresent()) {
+            String url = UriComponentsBuilder.fromUriString(assetsHistoryUrl.replace("{id}", tokenId))
+                            .queryParam("interval", interval)
+                            .queryParam("start", missingRange.get()[0])
+                            .queryParam("end", missingRange.get()[1])
+                            .build()
+                            .toString();
+
+            PriceHistoryDTO response = historyRequests.execute(url, () -> 
+                        withPermit(historySemaphore, () -> 
+                            rateGovernor.execute(priority, () -> restTemplate.getForObject(url, PriceHistoryDTO.class))));
+            fetchedHistory = response != null ? response : PriceHistoryDTO.empty();
+
+            storePriceHistory(tokenId, interval, fetchedHistory);
+        }
+
+        PriceHistoryDTO history = merge(storedPoints, fetchedHistory);
+
+        historicalPriceCache.put(key, history);
+
+        return history;
+    }
+
+    /**
+     * Read a token's points of an interval in [start, end] from the local price history store.
+     * 
+     * Read failures are only logged, the local store is an optimization.
+     * 
+     * @param tokenId
+     * @param interval (for example, "m1", "h1", "d1")
+     * @param start epoch millis
+     * @param end epoch millis
+     * @return the stored points, ordered by time
+     */
+    private List<PricePoint> storedPriceHistory(String tokenId, String interval, long start, long end) {
+        try {
+            return priceHistoryRepository.findByTokenIdAndIntervalAndTimeBetweenOrderByTimeAsc(tokenId, interval, start, end);
+        } catch (DataAccessException e) {
+            log.warn("Failed to read stored {} price history for {}: {}", interval, tokenId, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Range of a history request that still has to be fetched upstream: from the first to 
+     * the last interval boundary in [start, end) without a stored point. A gap at either 
+     * end extends to the requested bound, and the whole range is missing if nothing is 
+     * stored (or the interval is unknown).
+     * 
+     * @param storedPoints ordered by time
+     * @param step the interval in millis
+     * @param start epoch millis
+     * @param end epoch millis
+     * @return the [start, end] of the missing range, empty if every boundary is stored
+     */
+    private static Optional<long[]> missingRange(List<PricePoint> storedPoints, long step, long start, long end) {
+        if (storedPoints.isEmpty() || step <= 0) {
+            return Optional.of(new long[] { start, end });
+        }
+
+        long firstBoundary = Math.ceilDiv(start, step) * step;
+        long firstMissing = -1;
+        long lastMissing = -1;
+        int i = 0;
+
+        for (long boundary = firstBoundary; boundary < end; boundary += step) {
+            while (i < storedPoints.size() && storedPoints.get(i).getTime() < boundary) {
+                i++;
+            }
+
+            if (i == storedPoints.size() || storedPoints.get(i).getTime() != boundary) {
+                firstMissing = firstMissing < 0 ? boundary : firstMissing;
+                lastMissing = boundary;
+            }
+        }
+
+        if (firstMissing < 0) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new long[] { 
+            firstMissing == firstBoundary ? start : firstMissing, 
+            Math.min(end, lastMissing + step) 
+        });
+    }
+
+    /**
+     * Merge stored points with a fetched history, by time. A stored point wins over a
+     * fetched one at the same time, as the store never overwrites its points.
+     * 
+     * @param storedPoints
+     * @param fetchedHistory
+     * @return the merged history, ordered by time
+     */
+    private static PriceHistoryDTO merge(List<PricePoint> storedPoints, PriceHistoryDTO fetchedHistory) {
+        if (storedPoints.isEmpty()) {
+            return fetchedHistory;
+        }
+
+        SortedMap<Long, Double> prices = new TreeMap<>();
+
+        for (int i = 0; i < fetchedHistory.size(); i++) {
+            prices.put(fetchedHistory.timeAt(i), fetchedHistory.priceAt(i));
+        }
+
+        storedPoints.forEach(pricePoint -> prices.put(pricePoint.getTime(), pricePoint.getPriceUsd()));
+
+        long[] time = new long[prices.size()];
+        double[] priceUsd = new double[prices.size()];
+        int i = 0;
+
+        for (Map.Entry<Long, Double> price : prices.entrySet()) {
+            time[i] = price.getKey();
+            priceUsd[i++] = price.getValue();
+        }
+
+        return new PriceHistoryDTO(time, priceUsd);
+    }
+
+    /**
+     * Get a token's price in the window [start, end).
+     * 
+     * The price matrix (see {@link PriceMatrix}) is read first, then the "m1" points of 
+     * the local price history store. The external API is only called (through 
+     * {@link #fetchPriceHistory(String, String, long, long)}) if there's no local price 
+     * point in the window. Points of coarser intervals are averages, so they never 
+     * answer this lookup.
+     * 
+     * @param tokenId
+     * @param start epoch millis
+     * @param end epoch millis
+     * @return the first price in the window, if any
+     * @throws RestClientException if the request to the external API fails
+     */
+    public OptionalDouble fetchHistoricalPrice(String tokenId, long start, long end) {
+        return fetchHistoricalPrice(tokenId, start, end, Priority.INTERACTIVE);
+    }
+
+    /**
+     * Get a token's price in the window [start, end), see {@link #fetchHistoricalPrice(String, long, long)}.
+     * 
+     * @param tokenId
+     * @param start epoch millis
+     * @param end epoch millis
+     * @param priority of the request in the {@link RateGovernor}, if one is needed
+     * @return the first price in the window, if any
+     * @throws RestClientException if the request to the external API fails
+     */
+    public OptionalDouble fetchHistoricalPrice(String tokenId, long start, long end, Priority priority) {
+        OptionalDouble matrixPrice = priceMatrix.firstPrice(tokenId, start, end);
+
+        if (matrixPrice.isPresent()) {
+            return matrixPrice;
+        }
+
+        Optional<PricePoint> localPricePoint = priceHistoryRepository
+                    .findFirstByTokenIdAndIntervalAndTimeGreaterThanEqualAndTimeLessThanOrderByTimeAsc(tokenId, 
+                        HistoryInterval.M1.code(), start, end);
+
+        if (localPricePoint.isPresent()) {
+            priceMatrix.put(tokenId, localPricePoint.get().getTime(), localPricePoint.get().getPriceUsd());
+            return OptionalDouble.of(localPricePoint.get().getPriceUsd());
+        }
+
+        PriceHistoryDTO history = fetchPriceHistory(tokenId, HistoryInterval.M1.code(), start, end, priority);
+
+        return history.isEmpty() ? OptionalDouble.empty() : OptionalDouble.of(history.priceAt(0));
+    }
+
+    /**
+     * Store the valid points of a price history in the local price history store, 
+     * under the interval they were read at. Only "m1" points also go to the price 
+     * matrix: it holds one price per minute, and the points of coarser intervals are 
+     * averages, not the price at their minute.
+     * 
+     * Storage failures are only logged, the local store is an optimization.
+     * 
+     * @param tokenId
+     * @param interval (for example, "m1", "h1", "d1")
+     * @param history
+     */
+    private void storePriceHistory(String tokenId, String interval, PriceHistoryDTO history) {
+        if (HistoryInterval.M1.code().equals(interval)) {
+            priceMatrix.putAll(tokenId, history);
+        }
+
+        List<PricePoint> pricePoints = new ArrayList<>(history.size());
+
+        for (int i = 0; i < history.size(); i++) {
+            if (!Double.isNaN(history.priceAt(i))) {
+                pricePoints.add(new PricePoint(tokenId, interval, history.timeAt(i), history.priceAt(i)));
+            }
+        }
+
+        try {
+            priceHistoryRepository.saveAllIgnoringDuplicates(pricePoints);
+        } catch (DataAccessException e) {
+            log.warn("Failed to store price history for {}: {}", tokenId, e.getMessage());
+        }
+    }
+
+    /**
+     * Fetch historical token prices for a list of assets.
+     * 
+     * Retrieves historical price data for each token in the list,
+     * calculates the total wallet value at the specified date, and 
+     * identifies the best and worst performing tokens while also registering
+     * their respective performances (change percentage).
+     * 
+     * Returns an empty Optional is no data is found.
+     * 
+     * @param assets a List
+     * @param date the starting date
+     * @return an Optional containing the total value stored in the wallet at the specfied
+     * date, and the best and worst performing tokens (with their respective performances).
+     */
+    public Optional<WalletEvaluationResponseDTO> fetchHistoricalPrices(List<Asset> assets, LocalDate date) {
+        return fetchHistoricalPrices(assets, date, (Duration) null);
+    }
+
+    /**
+     * Fetch historical token prices for a list of assets, within a deadline 
+     * (see {@link #evaluate(List, LocalDate, Duration)}).
+     * 
+     * @param assets a List
+     * @param date the starting date
+     * @param deadline null for {@code wallet.evaluation.deadline}
+     * @return an Optional containing the evaluation, partial if the deadline expired
+     */
+    public Optional<WalletEvaluationResponseDTO> fetchHistoricalPrices(List<Asset> assets, LocalDate date, Duration deadline) {
+        return fetchHistoricalPrices(assets, date, deadline, Map.of());
+    }
+
+    /**
+     * Fetch historical token prices for a list of assets, within a deadline, see
+     * {@link #fetchHistoricalPrices(List, LocalDate, Duration)}.
+     * 
+     * Tokens with a known past price (for example, from a wallet snapshot of the date)
+     * are evaluated with it, only the other tokens' past prices are fetched.
+     * 
+     * @param assets a List
+     * @param date the starting date
+     * @param deadline null for {@code wallet.evaluation.deadline}
+     * @param knownPastPrices by token id
+     * @return an Optional containing the evaluation, partial if the deadline expired
+     */
+    public Optional<WalletEvaluationResponseDTO> fetchHistoricalPrices(List<Asset> assets, LocalDate date, Duration deadline, 
+                Map<String, Double> knownPastPrices) {
+        return evaluate(positionsOf(assets), date, deadline, Optional::of, knownPastPrices).toResponse();
+    }
+
+    /**
+     * Fetch historical token prices for a list of assets at several dates, see 
+     * {@link #evaluate(List, Collection)}.
+     * 
+     * @param assets a List
+     * @param dates the past dates
+     * @return the evaluation results of each date with data, ordered by date
+     */
+    public SortedMap<LocalDate, WalletEvaluationResponseDTO> fetchHistoricalPricesAtDates(List<Asset> assets, Collection<LocalDate> dates) {
+        SortedMap<LocalDate, WalletEvaluationResponseDTO> responses = new TreeMap<>();
+
+        evaluate(positionsOf(assets), dates).forEach((date, evaluation) -> 
+                    evaluation.toResponse().ifPresent(response -> responses.put(date, response)));
+
+        return responses;
+    }
+
+    /**
+     * The current price of each token is read from the {@link PriceBook}. Tokens without 
+     * any price get NaN, so their assets are valued at the past date without a performance.
+     * 
+     * @param assets
+     * @return the assets' positions
+     */
+    private List<AssetPosition> positionsOf(List<Asset> assets) {
+        return assets.stream()
+                    .map(asset -> new AssetPosition(
+                        asset.getToken().getId(), 
+                        asset.getToken().getSymbol(), 
+                        asset.getQuantity(), 
+                        priceBook.priceOf(asset.getToken()).orElse(Double.NaN)))
+                    .toList();
+    }
+
+    /**
+     * Fetch historical token prices for a list of assets, see {@link #fetchHistoricalPrices(List, LocalDate)}.
+     * 
+     * The current price of each asset is taken from the request (value / quantity).
+     * 
+     * @param assets a List
+     * @param date the starting date
+     * @param tokenSymbolIdMap the id of each asset's token, by symbol
+     * @return an Optional containing the total value stored in the wallet at the specfied
+     * date, and the best and worst performing tokens (with their respective performances).
+     */
+    public Optional<WalletEvaluationResponseDTO> fetchHistoricalPrices(List<AssetDTO> assets, LocalDate date, Map<String, String> tokenSymbolIdMap) {
+        return fetchHistoricalPrices(assets, date, tokenSymbolIdMap, null);
+    }
+
+    /**
+     * Fetch historical token prices for a list of assets, within a deadline 
+     * (see {@link #evaluate(List, LocalDate, Duration)}).
+     * 
+     * The tokens of symbols missing from tokenSymbolIdMap are searched 
+     * (see {@link #fetchTokenDetails(String)}) in their asset's evaluation task, so
+     * they're resolved concurrently and while the known tokens' histories are fetched.
+     * All resolved tokens are then saved with a single saveAll.
+     * 
+     * @param assets a List
+     * @param date the starting date
+     * @param tokenSymbolIdMap the id of each known asset's token, by symbol
+     * @param deadline null for {@code wallet.evaluation.deadline}
+     * @return an Optional containing the evaluation, partial if the deadline expired
+     */
+    public Optional<WalletEvaluationResponseDTO> fetchHistoricalPrices(List<AssetDTO> assets, LocalDate date, Map<String, String> tokenSymbolIdMap, Duration deadline) {
+        List<AssetPosition> positions = assets.stream()
+                    .map(asset -> new AssetPosition(
+                        tokenSymbolIdMap.get(asset.symbol()), 
+                        asset.symbol(), 
+                        asset.quantity(), 
+                        asset.value() / asset.quantity()))
+                    .toList();
+
+        Map<String, Token> resolvedTokens = new ConcurrentHashMap<>();
+
+        BoundedEvaluation evaluation = evaluate(positions, date, deadline, position -> position.tokenId() != null ? 
+                    Optional.of(position) : 
+                    resolvePosition(position, resolvedTokens), Map.of());
+
+        if (!resolvedTokens.isEmpty()) {
+            tokenRepository.saveAll(resolvedTokens.values());
+        }
+
+        return evaluation.toResponse();
+    }
+
+    /**
+     * Resolve the token of a position from its symbol (see {@link #fetchTokenDetails(String)}).
+     * 
+     * @param position without a token id
+     * @param resolvedTokens where the fetched token is added, by symbol
+     * @return the position with its token id, empty if the symbol couldn't be resolved
+     */
+    private Optional<AssetPosition> resolvePosition(AssetPosition position, Map<String, Token> resolvedTokens) {
+        Optional<Token> token = fetchTokenDetails(position.symbol());
+
+        token.ifPresent(resolvedToken -> resolvedTokens.put(resolvedToken.getSymbol(), resolvedToken));
+
+        return token
+                    .filter(resolvedToken -> resolvedToken.getSymbol().equals(position.symbol()))
+                    .map(resolvedToken -> position.withTokenId(resolvedToken.getId()));
+    }
+
+    /**
+     * Evaluate positions against their prices at a past date, within a deadline.
+     * 
+     * Each position is evaluated in its own task (see {@link #evaluatePosition(AssetPosition, long, long)}),
+     * producing an immutable {@link AssetEvaluation}. The results are then reduced in the 
+     * positions' order into a {@link WalletEvaluation}, so no state is shared between tasks.
+     * 
+     * The tasks are bounded by the deadline (at most {@code wallet.evaluation.deadline.max} ms): 
+     * when it expires, the pending tasks are cancelled and their threads interrupted, and the 
+     * result only covers the assets priced in time. If the calling thread is interrupted, all 
+     * tasks are cancelled too.
+     * 
+     * An interrupted task stops waiting for a history permit, the rate limit or a coalesced
+     * call (see {@link SingleFlight}). A request already on the wire is only aborted on virtual 
+     * threads. With {@code spring.threads.virtual.enabled=false}, blocking socket reads can't 
+     * be interrupted, and the task's thread is released by the HTTP client's connect/read 
+     * timeouts ({@code http.client.timeout.connect}, {@code http.client.timeout.read}).
+     * 
+     * @param positions
+     * @param date the past date
+     * @param deadline null for {@code wallet.evaluation.deadline}
+     * @return the evaluation, with the priced and timed out assets
+     */
+    public BoundedEvaluation evaluate(List<AssetPosition> positions, LocalDate date, Duration deadline) {
+        return evaluate(positions, date, deadline, Optional::of, Map.of());
+    }
+
+    /**
+     * Evaluate positions within a deadline, see {@link #evaluate(List, LocalDate, Duration)}.
+     * 
+     * Each task first resolves its position (for example, its token id from its symbol), 
+     * so resolutions run concurrently with each other and with the history fetches of 
+     * the positions that are already resolved, under the same deadline. Positions with a 
+     * known past price aren't fetched.
+     * 
+     * @param positions
+     * @param date the past date
+     * @param deadline null for {@code wallet.evaluation.deadline}
+     * @param resolver of a position, empty if it can't be evaluated
+     * @param knownPastPrices by token id
+     * @return the evaluation, with the priced and timed out assets
+     */
+    private BoundedEvaluation evaluate(List<AssetPosition> positions, LocalDate date, Duration deadline, 
+                Function<AssetPosition, Optional<AssetPosition>> resolver, Map<String, Double> knownPastPrices) {
+        long startLong = evaluationStart(date);
+        long endLong = startLong + 60_000L;
+        long deadlineMillis = Math.min(deadline != null ? deadline.toMillis() : defaultDeadline, maxDeadline);
+
+        List<Callable<Optional<AssetEvaluation>>> tasks = positions.stream()
+                .map(position -> (Callable<Optional<AssetEvaluation>>) () -> resolver.apply(position)
+                    .flatMap(resolvedPosition -> knownPastPrices.containsKey(resolvedPosition.tokenId()) ? 
+                        Optional.of(AssetEvaluation.of(resolvedPosition, knownPastPrices.get(resolvedPosition.tokenId()))) : 
+                        evaluatePosition(resolvedPosition, startLong, endLong)))
+                .toList();
+
+        List<Future<Optional<AssetEvaluation>>> futures;
+
+        try {
+            // Tasks still running when the deadline expires are cancelled (interrupted).
+            futures = historyExecutorService.invokeAll(tasks, Math.max(0, deadlineMillis), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Evaluation interrupted!");
+        }
+
+        WalletEvaluation evaluation = WalletEvaluation.EMPTY;
+        List<String> priced = new ArrayList<>();
+        List<String> timedOut = new ArrayList<>();
+
+        for (int i = 0; i < futures.size(); i++) {
+            Future<Optional<AssetEvaluation>> future = futures.get(i);
+
+            if (future.isCancelled()) {
+                timedOut.add(positions.get(i).symbol());
+                continue;
+            }
+
+            Optional<AssetEvaluation> assetEvaluation = future.resultNow();
+
+            if (assetEvaluation.isPresent()) {
+                evaluation = evaluation.add(assetEvaluation.get());
+                priced.add(assetEvaluation.get().symbol());
+            }
+        }
+
+        if (!timedOut.isEmpty()) {
+            log.warn("Evaluation deadline of {} ms expired, {} of {} assets timed out.", deadlineMillis, timedOut.size(), positions.size());
+        }
+
+        return new BoundedEvaluation(evaluation, priced, timedOut);
+    }
+
+    /**
+     * Evaluate several wallets at a past date, fetching each distinct token's
+     * past price once.
+     * 
+     * The past prices are fetched concurrently (see {@link #fetchHistoricalPrice(String, long, long)}), 
+     * then every wallet is evaluated in parallel from the shared prices, so the number of 
+     * requests depends on the number of distinct tokens, not on the number of assets.
+     * 
+     * @param assetsByWallet the assets of each wallet
+     * @param date the past date
+     * @return the evaluation results of each wallet with data
+     */
+    public Map<UUID, WalletEvaluationResponseDTO> fetchHistoricalPricesForWallets(Map<UUID, List<Asset>> assetsByWallet, LocalDate date) {
+        return fetchHistoricalPricesForWallets(assetsByWallet, date, Map.of());
+    }
+
+    /**
+     * Evaluate several wallets at a past date, see {@link #fetchHistoricalPricesForWallets(Map, LocalDate)}.
+     * 
+     * Tokens with a known past price (for example, from the wallets' snapshots of the 
+     * date) are evaluated with it, only the other tokens' past prices are fetched.
+     * 
+     * @param assetsByWallet the assets of each wallet
+     * @param date the past date
+     * @param knownPastPrices by token id
+     * @return the evaluation results of each wallet with data
+     */
+    public Map<UUID, WalletEvaluationResponseDTO> fetchHistoricalPricesForWallets(Map<UUID, List<Asset>> assetsByWallet, LocalDate date, 
+                Map<String, Double> knownPastPrices) {
+        long startLong = evaluationStart(date);
+        long endLong = startLong + 60_000L;
+
+        Map<UUID, List<AssetPosition>> positionsByWallet = assetsByWallet.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> positionsOf(entry.getValue())));
+
+        Set<String> tokenIds = positionsByWallet.values().stream()
+                .flatMap(List::stream)
+                .map(AssetPosition::tokenId)
+                .collect(Collectors.toSet());
+
+        Map<String, Double> pastPrices = new HashMap<>(fetchHistoricalPrices(tokenIds.stream()
+                .filter(tokenId -> !knownPastPrices.containsKey(tokenId))
+                .toList(), startLong, endLong));
+        knownPastPrices.forEach((tokenId, pastPrice) -> {
+            if (tokenIds.contains(tokenId)) {
+                pastPrices.put(tokenId, pastPrice);
+            }
+        });
+
+        log.info("Evaluating {} wallets with {} distinct tokens ({} priced).", 
+                    positionsByWallet.size(), tokenIds.size(), pastPrices.size());
+
+        return positionsByWallet.entrySet().parallelStream()
+                .flatMap(entry -> WalletEvaluation.of(entry.getValue(), pastPrices).toResponse().stream()
+                    .map(response -> Map.entry(entry.getKey(), response)))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    /**
+     * Get the price of several tokens in the window [start, end) concurrently, see
+     * {@link #fetchHistoricalPrice(String, long, long)}.
+     * 
+     * @param tokenIds
+     * @param start epoch millis
+     * @param end epoch millis
+     * @return the prices by token id, tokens without a price are left out
+     */
+    public Map<String, Double> fetchHistoricalPrices(Collection<String> tokenIds, long start, long end) {
+        return fetchHistoricalPrices(tokenIds, start, end, Priority.INTERACTIVE);
+    }
+
+    /**
+     * Get the price of several tokens in the window [start, end) concurrently, see
+     * {@link #fetchHistoricalPrices(Collection, long, long)}.
+     * 
+     * @param tokenIds
+     * @param start epoch millis
+     * @param end epoch millis
+     * @param priority of the requests in the {@link RateGovernor}
+     * @return the prices by token id, tokens without a price are left out
+     */
+    public Map<String, Double> fetchHistoricalPrices(Collection<String> tokenIds, long start, long end, Priority priority) {
+        Map<String, CompletableFuture<OptionalDouble>> futures = tokenIds.stream()
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), tokenId -> CompletableFuture.supplyAsync(
+                    () -> fetchHistoricalPriceOrEmpty(tokenId, start, end, priority), historyExecutorService)));
+
+        Map<String, Double> prices = new HashMap<>();
+        futures.forEach((tokenId, future) -> future.join().ifPresent(price -> prices.put(tokenId, price)));
+
+        return prices;
+    }
+
+    /**
+     * Get a token's price in the window [start, end), handling failures with logging.
+     * 
+     * @param tokenId
+     * @param start epoch millis
+     * @param end epoch millis
+     * @param priority of the request in the {@link RateGovernor}
+     * @return the price, empty if there's none or the request failed
+     */
+    private OptionalDouble fetchHistoricalPriceOrEmpty(String tokenId, long start, long end, Priority priority) {
+        try {
+            return fetchHistoricalPrice(tokenId, start, end, priority);
+        } catch (RestClientException e) {
+            log.error("Client error fetching historical price for {}: {}", tokenId, e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error fetching historical price for {}: {}", tokenId, e.getMessage());
+        }
+
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * Start of the evaluation window of a past date.
+     * 
+     * To fetch the historic pricing, the start date is set to the specified date (yyyy-MM-dd)
+     * with the hours and minutes (hh::mm::00) being taken from the current time (UTC).
+     * 
+     * The window ends 1 minute after the start. Only the price at start date is relevant 
+     * for calculating the performance of the wallet, and the 1 minute interval allows 
+     * for the price point to be obtained.
+     * 
+     * @param date
+     * @return epoch millis
+     */
+    private static long evaluationStart(LocalDate date) {
+        LocalDateTime currentTime = LocalDateTime.now(ZoneOffset.UTC);
+
+        return date.atTime(currentTime.getHour(), currentTime.getMinute(), 0)
+                    .atZone(ZoneOffset.UTC)
+                    .toInstant()
+                    .toEpochMilli();
+    }
+
+    /**
+     * Evaluate positions at several past dates, with one history request per token.
+     * 
+     * As in {@link #evaluate(List, LocalDate, Duration)}, each date is evaluated at the current 
+     * time of day (UTC). Instead of one m1 window per token and date, the history of each 
+     * distinct token is fetched once for the whole span of dates, with a coarse interval: 
+     * h1 if the span is up to {@code token.history.range.hourly-max-days} days, d1 otherwise.
+     * Each date is then priced locally with the last point at or before it, so the number
+     * of upstream requests depends on the number of tokens, not on the number of dates.
+     * Tokens priced in the {@link PriceMatrix} at every date aren't fetched at all.
+     * 
+     * @param positions
+     * @param dates the past dates
+     * @return the evaluation of each date, ordered by date
+     */
+    public SortedMap<LocalDate, WalletEvaluation> evaluate(List<AssetPosition> positions, Collection<LocalDate> dates) {
+        SortedMap<LocalDate, WalletEvaluation> evaluations = new TreeMap<>();
+
+        if (dates.isEmpty()) {
+            return evaluations;
+        }
+
+        LocalTime timeOfDay = LocalTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MINUTES);
+        SortedSet<LocalDate> sortedDates = new TreeSet<>(dates);
+
+        long first = sortedDates.first().atTime(timeOfDay).toInstant(ZoneOffset.UTC).toEpochMilli();
+        long last = sortedDates.last().atTime(timeOfDay).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        HistoryInterval interval = last - first <= TimeUnit.DAYS.toMillis(hourlyRangeMaxDays) ? 
+                    HistoryInterval.H1 : 
+                    HistoryInterval.D1;
+        long step = interval.millis();
+
+        List<Long> times = sortedDates.stream()
+                    .map(date -> date.atTime(timeOfDay).toInstant(ZoneOffset.UTC).toEpochMilli())
+                    .toList();
+
+        // Tokens with a price in the matrix at every date need no history.
+        List<String> missingTokenIds = positions.stream()
+                    .map(AssetPosition::tokenId)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .filter(tokenId -> times.stream().anyMatch(time -> priceMatrix.priceAt(tokenId, time).isEmpty()))
+                    .toList();
+
+        // The span starts one interval before the first date, so there's a point at or before it.
+        Map<String, PriceHistoryDTO> histories = missingTokenIds.isEmpty() ? 
+                    Map.of() : 
+                    fetchPriceHistories(missingTokenIds, interval.code(), first - step, last + 60_000L);
+
+        for (LocalDate date : sortedDates) {
+            long time = date.atTime(timeOfDay).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+            WalletEvaluation evaluation = positions.stream()
+                    .filter(position -> position.tokenId() != null)
+                    .flatMap(position -> pastPriceAt(position.tokenId(), histories, time, step).stream()
+                        .mapToObj(pastPrice -> AssetEvaluation.of(position, pastPrice)))
+                    .reduce(WalletEvaluation.EMPTY, WalletEvaluation::add, WalletEvaluation::combine);
+
+            evaluations.put(date, evaluation);
+        }
+
+        return evaluations;
+    }
+
+    /**
+     * Fetch the price history of several tokens between start and end concurrently,
+     * see {@link #fetchPriceHistory(String, String, long, long)}.
+     * 
+     * Failures are logged, and the token's history is left empty.
+     * 
+     * @param tokenIds
+     * @param interval (for example, "m1", "h1", "d1")
+     * @param start epoch millis
+     * @param end epoch millis
+     * @return the price history of each distinct token
+     */
+    public Map<String, PriceHistoryDTO> fetchPriceHistories(Collection<String> tokenIds, String interval, long start, long end) {
+        return fetchPriceHistories(tokenIds, interval, start, end, Priority.INTERACTIVE);
+    }
+
+    /**
+     * Fetch the price history of several tokens concurrently, see 
+     * {@link #fetchPriceHistories(Collection, String, long, long)}.
+     * 
+     * @param tokenIds
+     * @param interval (for example, "m1", "h1", "d1")
+     * @param start epoch millis
+     * @param end epoch millis
+     * @param priority of the requests in the {@link RateGovernor}
+     * @return the price history of each distinct token
+     */
+    public Map<String, PriceHistoryDTO> fetchPriceHistories(Collection<String> tokenIds, String interval, long start, long end, 
+                Priority priority) {
+        Map<String, CompletableFuture<PriceHistoryDTO>> futures = tokenIds.stream()
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), tokenId -> CompletableFuture.supplyAsync(
+                    () -> fetchRangeHistory(tokenId, interval, start, end, priority), historyExecutorService)));
+
+        return futures.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().join()));
+    }
+
+    /**
+     * Fetch a token's history for a range, handling failures with logging.
+     * 
+     * @param tokenId
+     * @param interval
+     * @param start epoch millis
+     * @param end epoch millis
+     * @param priority of the request in the {@link RateGovernor}
+     * @return the price history, only the locally stored points if the request failed
+     */
+    private PriceHistoryDTO fetchRangeHistory(String tokenId, String interval, long start, long end, Priority priority) {
+        try {
+            return fetchPriceHistory(tokenId, interval, start, end, priority);
+        } catch (RestClientException e) {
+            log.error("Client error fetching {} price history for {}: {}", interval, tokenId, e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error fetching {} price history for {}: {}", interval, tokenId, e.getMessage());
+        }
+
+        return merge(storedPriceHistory(tokenId, interval, start, end), PriceHistoryDTO.empty());
+    }
+
+    /**
+     * Price of a token at a given time, from the price matrix or else from its history
+     * (see {@link #priceAt(PriceHistoryDTO, long, long)}).
+     * 
+     * @param tokenId
+     * @param histories by token id
+     * @param time epoch millis
+     * @param step the histories' interval in millis
+     * @return the price, if any
+     */
+    private OptionalDouble pastPriceAt(String tokenId, Map<String, PriceHistoryDTO> histories, long time, long step) {
+        OptionalDouble matrixPrice = priceMatrix.priceAt(tokenId, time);
+
+        return matrixPrice.isPresent() ? 
+                    matrixPrice : 
+                    priceAt(histories.getOrDefault(tokenId, PriceHistoryDTO.empty()), time, step);
+    }
+
+    /**
+     * Price at a given time: the last valid point at or before it, if it's less
+     * than one interval older.
+     * 
+     * @param history
+     * @param time epoch millis
+     * @param step the history's interval in millis
+     * @return the price, if any
+     */
+    private static OptionalDouble priceAt(PriceHistoryDTO history, long time, long step) {
+        for (int i = history.indexAtOrBefore(time); i >= 0 && time - history.timeAt(i) < step; i--) {
+            if (!Double.isNaN(history.priceAt(i))) {
+                return OptionalDouble.of(history.priceAt(i));
+            }
+        }
+
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * Evaluate a position against its price in the window [start, end).
+     * 
+     * Failures are logged, and the position is left out of the evaluation.
+     * 
+     * @param position
+     * @param start epoch millis
+     * @param end epoch millis
+     * @return the asset's evaluation, empty if there's no past price
+     */
+    private Optional<AssetEvaluation> evaluatePosition(AssetPosition position, long start, long end) {
+        try {
+            OptionalDouble pastPrice = fetchHistoricalPrice(position.tokenId(), start, end);
+
+            return pastPrice.isPresent() ? 
+                        Optional.of(AssetEvaluation.of(position, pastPrice.getAsDouble())) : 
+                        Optional.empty();
+        } catch (HttpClientErrorException e) {
+            log.error("HTTP error fetching historical price for {}: {}", position.symbol(), e.getMessage());
+        } catch (RestClientException e) {
+            log.error("Client error fetching historical price for {}: {}", position.symbol(), e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error fetching historical price for {}: {}", position.symbol(), e.getMessage());
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<Double> parsePrice(TokenPriceDTO tokenPrice) {
+        if (!tokenPrice.hasPrice()) {
+            log.error("Failed to parse price for {}: missing or invalid priceUsd", tokenPrice.symbol());
+            return Optional.empty();
+        }
+
+        return Optional.of(tokenPrice.priceUsd());
     }
 }
\ No newline at end of file
@@ -1,30 +1,38 @@
 package com.francisco.cryptowallet.service;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SortedMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.francisco.cryptowallet.domain.Asset;
 import com.francisco.cryptowallet.domain.Token;
 import com.francisco.cryptowallet.domain.Wallet;
+import com.francisco.cryptowallet.domain.WalletSummary;
 import com.francisco.cryptowallet.dto.AssetDTO;
 import com.francisco.cryptowallet.dto.WalletDTO;
 import com.francisco.cryptowallet.dto.WalletEvaluationRequestDTO;
 import com.francisco.cryptowallet.dto.WalletEvaluationResponseDTO;
+import com.francisco.cryptowallet.dto.WalletSummaryDTO;
 import com.francisco.cryptowallet.exception.GlobalExceptionHandler;
+import com.francisco.cryptowallet.exception.InvalidRequestException;
 import com.francisco.cryptowallet.exception.NotFoundException;
 import com.francisco.cryptowallet.exception.WalletAlreadyExistsException;
 import com.francisco.cryptowallet.exception.WalletNotFoundException;
 import com.francisco.cryptowallet.mapper.WalletMapper;
+import com.francisco.cryptowallet.repository.AssetRepository;
 import com.francisco.cryptowallet.repository.TokenRepository;
 import com.francisco.cryptowallet.repository.WalletRepository;
+import com.francisco.cryptowallet.repository.WalletSummaryRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,12 +44,24 @@ public class WalletService {
     
     private final WalletRepository walletRepository;
 
+    private final AssetRepository assetRepository;
+
     private final TokenRepository tokenRepository;
 
     private final TokenService tokenService;
+
+    private final WalletSnapshotService walletSnapshotService;
+
+    private final WalletSummaryRepository walletSummaryRepository;
     
     private final WalletMapper walletMapper;
 
+    @Value("${wallet.evaluation.max-dates:366}")
+    private int maxEvaluationDates;
+
+    @Value("${wallet.evaluation.bulk.max-wallets:1000}")
+    private int maxBulkWallets;
+
     /**
      * Create a new wallet with the given email.
      * 
@@ -70,11 +90,13 @@ public class WalletService {
      * If a wallet with given UUID doesn't exist, throw {@link WalletNotFoundException} that is
      * handled in {@link GlobalExceptionHandler} (BAD_REQUEST returned). 
      * 
+     * The wallet, its assets and their tokens are loaded with a single query.
+     * 
      * @param id
      * @return the wallet's info with its assets
      */
     public WalletDTO getWallet(UUID id) {
-        Wallet wallet = walletRepository.findById(id).orElseThrow(() -> new WalletNotFoundException());
+        Wallet wallet = walletRepository.findWithAssetsById(id).orElseThrow(() -> new WalletNotFoundException());
         return walletMapper.walletToWalletDTO(wallet);
     }
 
@@ -84,14 +106,70 @@ public class WalletService {
      * If a wallet with given email doesn't exist, throw {@link WalletNotFoundException} that is
      * handled in {@link GlobalExceptionHandler} (BAD_REQUEST returned).
      * 
+     * The wallet, its assets and their tokens are loaded with a single query.
+     * 
      * @param email
      * @return the wallet's info with its assets
      */
     public WalletDTO getWallet(String email) {
-        Wallet wallet = walletRepository.findByEmail(email).orElseThrow(() -> new WalletNotFoundException(email));
+        Wallet wallet = walletRepository.findWithAssetsByEmail(email).orElseThrow(() -> new WalletNotFoundException(email));
         return walletMapper.walletToWalletDTO(wallet);
     }
 
+    /**
+     * Retrieve a wallet's summary (total value and number of assets) by its UUID.
+     * 
+     * The summary is a single row of the wallet_summary read model, kept up to date 
+     * after each token price refresh and asset write, so the wallet's assets and tokens 
+     * aren't read. A wallet without a summary yet (for example, a new one) has it 
+     * computed on the first read.
+     * 
+     * If a wallet with given UUID doesn't exist, throw {@link WalletNotFoundException} that is
+     * handled in {@link GlobalExceptionHandler}.
+     * 
+     * @param id
+     * @return the wallet's summary, with its freshness
+     */
+    public WalletSummaryDTO getWalletSummary(UUID id) {
+        WalletSummary summary = walletSummaryRepository.findById(id)
+                                    .or(() -> refreshSummary(id))
+                                    .orElseThrow(() -> new WalletNotFoundException());
+
+        return toSummaryDTO(summary);
+    }
+
+    /**
+     * Retrieve a wallet's summary by its email, see {@link #getWalletSummary(UUID)}.
+     * 
+     * @param email
+     * @return the wallet's summary, with its freshness
+     */
+    public WalletSummaryDTO getWalletSummary(String email) {
+        WalletSummary summary = walletSummaryRepository.findByEmail(email)
+                                    .or(() -> walletRepository.findByEmail(email).flatMap(wallet -> refreshSummary(wallet.getId())))
+                                    .orElseThrow(() -> new WalletNotFoundException(email));
+
+        return toSummaryDTO(summary);
+    }
+
+    /**
+     * @param id
+     * @return the wallet's newly computed summary, empty if the wallet doesn't exist
+     */
+    private Optional<WalletSummary> refreshSummary(UUID id) {
+        return walletSummaryRepository.refresh(id) > 0 ? walletSummaryRepository.findById(id) : Optional.empty();
+    }
+
+    private static WalletSummaryDTO toSummaryDTO(WalletSummary summary) {
+        return WalletSummaryDTO.builder()
+                    .id(summary.getWalletId())
+                    .total(summary.getTotal())
+                    .asset_count(summary.getAssetCount())
+                    .price_generation(summary.getPriceGeneration())
+                    .updated_at(summary.getUpdatedAt())
+                    .build();
+    }
+
     /**
      * Return the wallet's performance results containing total wallet value (at date), 
      * and best and worst performing assets (and their respective performance as positive
@@ -105,12 +183,32 @@ public class WalletService {
      * 
      * If no historical prices exist, a NotFoundException is also thrown.
      * 
+     * If the wallet was snapshotted at the date (see {@link WalletSnapshotService}), the 
+     * snapshot's prices (at the 00:00 UTC cut-off) are used as the past prices of its 
+     * tokens, applied to the current holdings. Only the other tokens' prices are fetched.
+     * 
      * @param id
      * @param date
      * @return the evaluation results containing total value (at date), best and worst performers (and respective performance)
      */
     public WalletEvaluationResponseDTO evaluateWallet(UUID id, LocalDate date) {
-        Wallet wallet = walletRepository.findById(id)
+        return evaluateWallet(id, date, null);
+    }
+
+    /**
+     * Evaluate a wallet at a past date within a deadline, see {@link #evaluateWallet(UUID, LocalDate)}.
+     * 
+     * If the deadline expires, the pending price fetches are cancelled and a partial 
+     * result is returned, listing the priced and timed out assets 
+     * (see {@link TokenService#evaluate(List, LocalDate, Duration)}).
+     * 
+     * @param id
+     * @param date
+     * @param deadline null for {@code wallet.evaluation.deadline}
+     * @return the evaluation results, partial if the deadline expired
+     */
+    public WalletEvaluationResponseDTO evaluateWallet(UUID id, LocalDate date, Duration deadline) {
+        Wallet wallet = walletRepository.findWithAssetsById(id)
                             .orElseThrow(() -> new WalletNotFoundException());
         
         List<Asset> assets = wallet.getAssets();
@@ -119,7 +217,10 @@ public class WalletService {
             throw new NotFoundException("Wallet is empty!");
         }
 
-        Optional<WalletEvaluationResponseDTO> responseOptional = tokenService.fetchHistoricalPrices(assets, date);
+        Map<String, Double> snapshotPrices = walletSnapshotService.snapshotPrices(id, date);
+
+        Optional<WalletEvaluationResponseDTO> responseOptional = tokenService.fetchHistoricalPrices(assets, date, deadline, 
+                    snapshotPrices);
 
         if (!responseOptional.isPresent()) {
             throw new NotFoundException("No results to show!");
@@ -128,6 +229,105 @@ public class WalletService {
         return responseOptional.get();
     }
 
+    /**
+     * Evaluate several wallets at a past date.
+     * 
+     * The assets of all wallets are loaded with a single query, and the past price of
+     * each distinct token is fetched once for all wallets 
+     * (see {@link TokenService#fetchHistoricalPricesForWallets(Map, LocalDate, Map)}). As in 
+     * {@link #evaluateWallet(UUID, LocalDate)}, the prices in the wallets' snapshots of 
+     * the date aren't fetched again.
+     * 
+     * Unknown and empty wallets, and wallets without historical prices, are left out
+     * of the results.
+     * 
+     * If more than {@code wallet.evaluation.bulk.max-wallets} wallets are given, an 
+     * {@link InvalidRequestException} is thrown and handled in {@link GlobalExceptionHandler} 
+     * (BAD_REQUEST returned).
+     * 
+     * @param ids
+     * @param date
+     * @return the evaluation results of each wallet with data
+     */
+    public Map<UUID, WalletEvaluationResponseDTO> evaluateWallets(List<UUID> ids, LocalDate date) {
+        if (ids.size() > maxBulkWallets) {
+            throw new InvalidRequestException("At most " + maxBulkWallets + " wallets can be evaluated at once!");
+        }
+
+        Map<UUID, List<Asset>> assetsByWallet = assetRepository.findAllWithTokenByWalletIdIn(Set.copyOf(ids)).stream()
+                .collect(Collectors.groupingBy(asset -> asset.getWallet().getId()));
+
+        if (assetsByWallet.isEmpty()) {
+            throw new NotFoundException("No results to show!");
+        }
+
+        Map<String, Double> snapshotPrices = walletSnapshotService.snapshotPrices(assetsByWallet.keySet(), date);
+
+        return tokenService.fetchHistoricalPricesForWallets(assetsByWallet, date, snapshotPrices);
+    }
+
+    /**
+     * Evaluate a wallet at several past dates, see {@link #evaluateWallet(UUID, LocalDate)}.
+     * 
+     * The history of each token is fetched once for all dates 
+     * (see {@link TokenService#fetchHistoricalPricesAtDates(List, java.util.Collection)}).
+     * 
+     * If no dates or more than {@code wallet.evaluation.max-dates} dates are given, 
+     * an {@link InvalidRequestException} is thrown and handled in {@link GlobalExceptionHandler} 
+     * (BAD_REQUEST returned).
+     * 
+     * @param id
+     * @param dates
+     * @return the evaluation results of each date with data, ordered by date
+     */
+    public SortedMap<LocalDate, WalletEvaluationResponseDTO> evaluateWalletAtDates(UUID id, List<LocalDate> dates) {
+        if (dates == null || dates.isEmpty()) {
+            throw new InvalidRequestException("At least one date is required!");
+        }
+
+        if (dates.size() > maxEvaluationDates) {
+            throw new InvalidRequestException("At most " + maxEvaluationDates + " dates can be evaluated at once!");
+        }
+
+        Wallet wallet = walletRepository.findWithAssetsById(id)
+                            .orElseThrow(() -> new WalletNotFoundException());
+        
+        List<Asset> assets = wallet.getAssets();
+        
+        if (assets.isEmpty()) {
+            throw new NotFoundException("Wallet is empty!");
+        }
+
+        SortedMap<LocalDate, WalletEvaluationResponseDTO> responses = tokenService.fetchHistoricalPricesAtDates(assets, dates);
+
+        if (responses.isEmpty()) {
+            throw new NotFoundException("No results to show!");
+        }
+
+        return responses;
+    }
+
+    /**
+     * Evaluate a wallet at every day between two dates (inclusive), see 
+     * {@link #evaluateWalletAtDates(UUID, List)}.
+     * 
+     * @param id
+     * @param from
+     * @param to
+     * @return the evaluation results of each date with data, ordered by date
+     */
+    public SortedMap<LocalDate, WalletEvaluationResponseDTO> evaluateWalletBetween(UUID id, LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new InvalidRequestException("A valid date range is required!");
+        }
+
+        if (ChronoUnit.DAYS.between(from, to) >= maxEvaluationDates) {
+            throw new InvalidRequestException("At most " + maxEvaluationDates + " dates can be evaluated at once!");
+        }
+
+        return evaluateWalletAtDates(id, from.datesUntil(to.plusDays(1)).toList());
+    }
+
     /**
      * The Map tokenSymbolIdMap is needed because the given assets only have the Token's symbol.
      * 
@@ -135,7 +335,8 @@ public class WalletService {
      * API (see {@link TokenService#fetchHistoricalPrices(List, LocalDate, Map)})
      * the token's id is needed, not its symbol. So, all tokens are fetched from the DB,
      * and tokenSymbolIdMap is created to map each tokens' symbol to its correspoding 
-     * id. 
+     * id. Symbols not in the DB are resolved concurrently by the TokenService, overlapping
+     * with the history fetches of the known tokens, and saved in a single batch.
      * Note: Both the token's id and symbol are unique.
      * 
      * @param request
@@ -143,6 +344,19 @@ public class WalletService {
      * @return the wallet's performance results
      */
     public WalletEvaluationResponseDTO evaluateWallet(WalletEvaluationRequestDTO request, LocalDate date) {
+        return evaluateWallet(request, date, null);
+    }
+
+    /**
+     * Evaluate the given assets at a past date within a deadline, 
+     * see {@link #evaluateWallet(WalletEvaluationRequestDTO, LocalDate)}.
+     * 
+     * @param request
+     * @param date
+     * @param deadline null for {@code wallet.evaluation.deadline}
+     * @return the wallet's performance results, partial if the deadline expired
+     */
+    public WalletEvaluationResponseDTO evaluateWallet(WalletEvaluationRequestDTO request, LocalDate date, Duration deadline) {
         List<AssetDTO> assets = request.assets();
 
         if (assets.isEmpty()) {
@@ -154,26 +368,8 @@ public class WalletService {
         Map<String, String> tokenSymbolIdMap = tokenRepository.findAllBySymbolIn(symbols)
                 .stream().collect(Collectors.toMap(Token::getSymbol, Token::getId));
 
-        Set<String> storedTokenSymbols = tokenSymbolIdMap.keySet();
-        List<String> missingSymbols = symbols.stream().filter(symbol -> !storedTokenSymbols.contains(symbol)).toList();
-
-        // If some tokens don't exist in DB, fetch their respective details and save all missing tokens in DB.
-        if (!missingSymbols.isEmpty()) {
-            List<Token> newlyFetchedTokens = new ArrayList<>();
-
-            for (String symbol : missingSymbols) {
-                tokenService.fetchTokenDetails(symbol).ifPresent(token -> {
-                    newlyFetchedTokens.add(token);
-                    tokenSymbolIdMap.put(token.getSymbol(), token.getId());
-                });
-            }
-
-            if(!newlyFetchedTokens.isEmpty()) {
-                tokenRepository.saveAll(newlyFetchedTokens);
-            }
-        }
-
-        Optional<WalletEvaluationResponseDTO> responseOptional = tokenService.fetchHistoricalPrices(assets, date, tokenSymbolIdMap);
+        // Tokens that don't exist in DB are fetched and saved while the known tokens are evaluated.
+        Optional<WalletEvaluationResponseDTO> responseOptional = tokenService.fetchHistoricalPrices(assets, date, tokenSymbolIdMap, deadline);
 
         if (!responseOptional.isPresent()) {
             throw new NotFoundException("No results to show!");
@@ -0,0 +1,230 @@
+package com.francisco.cryptowallet.service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.francisco.cryptowallet.client.RateGovernor.Priority;
+import com.francisco.cryptowallet.domain.Asset;
+import com.francisco.cryptowallet.domain.Token;
+import com.francisco.cryptowallet.domain.WalletSnapshot;
+import com.francisco.cryptowallet.domain.WalletSnapshotPosition;
+import com.francisco.cryptowallet.repository.AssetRepository;
+import com.francisco.cryptowallet.repository.WalletRepository;
+import com.francisco.cryptowallet.repository.WalletSnapshotPositionRepository;
+import com.francisco.cryptowallet.repository.WalletSnapshotRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Daily valuation snapshots of every wallet.
+ * 
+ * A snapshot records, at the daily cut-off (00:00 UTC), each wallet's total value 
+ * and the quantity and price of every token it holds. Historical evaluations of a 
+ * snapshotted date then take the past prices from the snapshot instead of fetching
+ * them, and apply them to the wallet's current holdings.
+ * 
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WalletSnapshotService {
+
+    private final WalletRepository walletRepository;
+
+    private final AssetRepository assetRepository;
+
+    private final WalletSnapshotRepository walletSnapshotRepository;
+
+    private final WalletSnapshotPositionRepository walletSnapshotPositionRepository;
+
+    private final TokenService tokenService;
+
+    @Value("${wallet.snapshot.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${wallet.snapshot.thread.max:4}")
+    private int maxThreads;
+
+    /**
+     * Snapshot every wallet at the cut-off of the given date.
+     * 
+     * The price of each token held in any wallet is fetched once, at the cut-off minute
+     * (local price history first, see {@link TokenService#fetchHistoricalPrices(java.util.Collection, long, long, Priority)}).
+     * Upstream calls use the background priority, so the job never takes the permits 
+     * reserved for user requests.
+     * 
+     * Wallet ids are then read in pages of {@code wallet.snapshot.chunk-size} (keyset pagination), 
+     * and each page is processed by one of {@code wallet.snapshot.thread.max} workers: its assets
+     * are loaded with one query and its snapshots written with batched inserts in one transaction.
+     * At most two pages per worker are in memory at any time.
+     * 
+     * Snapshots that already exist are kept, so a run can be repeated after a failure. 
+     * For the same reason, nothing is written if no price could be fetched, and wallets
+     * holding a token without a price are left out (see {@link #snapshotChunk(List, LocalDate, Map)}):
+     * a complete snapshot is never replaced, so an incomplete one could never be repaired.
+     * 
+     * @param date
+     * @return the number of snapshotted wallets
+     */
+    public int createSnapshots(LocalDate date) {
+        long startTime = System.nanoTime();
+        long cutoff = date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+        List<String> tokenIds = assetRepository.findDistinctTokenIds();
+        Map<String, Double> prices = tokenService.fetchHistoricalPrices(tokenIds, cutoff, cutoff + 60_000L, Priority.BACKGROUND);
+
+        if (!tokenIds.isEmpty() && prices.isEmpty()) {
+            log.warn("Skipping wallet snapshots for {}: none of the {} token prices could be fetched.", date, tokenIds.size());
+            return 0;
+        }
+
+        log.info("Starting wallet snapshots for {} with {} token prices...", date, prices.size());
+
+        AtomicInteger snapshotted = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(Math.max(1, maxThreads) * 2);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        try (ExecutorService executorService = Executors.newFixedThreadPool(Math.max(1, maxThreads))) {
+            List<UUID> walletIds = walletRepository.findIds(Limit.of(chunkSize));
+
+            while (!walletIds.isEmpty()) {
+                List<UUID> chunk = walletIds;
+                inFlight.acquireUninterruptibly();
+
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        snapshotted.addAndGet(snapshotChunk(chunk, date, prices));
+                    } catch (Exception e) {
+                        log.error("Failed to snapshot chunk of {} wallets: {}", chunk.size(), e.getMessage());
+                    } finally {
+                        inFlight.release();
+                    }
+                }, executorService));
+
+                walletIds = walletIds.size() < chunkSize ? 
+                            List.of() : 
+                            walletRepository.findIdsAfter(walletIds.get(walletIds.size() - 1), Limit.of(chunkSize));
+            }
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        }
+
+        log.info("Completed wallet snapshots for {}! Snapshotted {} wallets in {} ms.",
+                    date, snapshotted.get(), (System.nanoTime() - startTime) / 1_000_000);
+
+        return snapshotted.get();
+    }
+
+    /**
+     * Snapshot a chunk of wallets.
+     * 
+     * The chunk's assets are loaded with their tokens and wallets in one query
+     * (see {@link AssetRepository#findAllWithTokenByWalletIdIn(java.util.Collection)}), so grouping 
+     * them by wallet doesn't load each wallet separately.
+     * 
+     * Assets of the same token are merged in one position. Wallets holding a token
+     * without a price at the cut-off aren't snapshotted, so a later run can snapshot 
+     * them completely.
+     * 
+     * @param walletIds
+     * @param date
+     * @param prices at the cut-off, by token id
+     * @return the number of snapshotted wallets
+     */
+    private int snapshotChunk(List<UUID> walletIds, LocalDate date, Map<String, Double> prices) {
+        Map<UUID, List<Asset>> assetsByWallet = assetRepository.findAllWithTokenByWalletIdIn(walletIds).stream()
+                .collect(Collectors.groupingBy(asset -> asset.getWallet().getId()));
+
+        List<WalletSnapshot> snapshots = new ArrayList<>(walletIds.size());
+        List<WalletSnapshotPosition> positions = new ArrayList<>();
+
+        for (UUID walletId : walletIds) {
+            List<Asset> assets = assetsByWallet.getOrDefault(walletId, List.of());
+
+            if (assets.stream().anyMatch(asset -> !prices.containsKey(asset.getToken().getId()))) {
+                continue;
+            }
+
+            Map<String, WalletSnapshotPosition> walletPositions = new LinkedHashMap<>();
+
+            for (Asset asset : assets) {
+                Token token = asset.getToken();
+
+                walletPositions.merge(token.getId(), 
+                    new WalletSnapshotPosition(walletId, date, token.getId(), token.getSymbol(), asset.getQuantity(), prices.get(token.getId())),
+                    (position, other) -> {
+                        position.setQuantity(position.getQuantity() + other.getQuantity());
+                        return position;
+                    });
+            }
+
+            double total = walletPositions.values().stream()
+                        .mapToDouble(position -> position.getQuantity() * position.getPrice())
+                        .sum();
+
+            snapshots.add(new WalletSnapshot(walletId, date, total));
+            positions.addAll(walletPositions.values());
+        }
+
+        if (snapshots.size() < walletIds.size()) {
+            log.warn("Left {} of {} wallets out of the {} snapshots, they hold tokens without a price.", 
+                        walletIds.size() - snapshots.size(), walletIds.size(), date);
+        }
+
+        walletSnapshotRepository.saveAllIgnoringDuplicates(snapshots, positions);
+
+        return snapshots.size();
+    }
+
+    /**
+     * Past prices of the tokens in a wallet's snapshot of the given date, if there's one.
+     * 
+     * The snapshot's positions are read with a single indexed lookup. Only their prices 
+     * at the cut-off are used: the wallet is still evaluated with its current holdings.
+     * 
+     * @param walletId
+     * @param date
+     * @return the prices at the cut-off by token id, empty if the date isn't snapshotted
+     */
+    public Map<String, Double> snapshotPrices(UUID walletId, LocalDate date) {
+        return pricesOf(walletSnapshotPositionRepository.findByWalletIdAndDate(walletId, date));
+    }
+
+    /**
+     * Past prices of the tokens in the snapshots of several wallets at the given date,
+     * see {@link #snapshotPrices(UUID, LocalDate)}. A token's price at the cut-off is 
+     * the same in every snapshot, so the prices are shared by all the wallets.
+     * 
+     * @param walletIds
+     * @param date
+     * @return the prices at the cut-off by token id
+     */
+    public Map<String, Double> snapshotPrices(Collection<UUID> walletIds, LocalDate date) {
+        return walletIds.isEmpty() ? 
+                    Map.of() : 
+                    pricesOf(walletSnapshotPositionRepository.findByWalletIdInAndDate(walletIds, date));
+    }
+
+    private static Map<String, Double> pricesOf(List<WalletSnapshotPosition> positions) {
+        return positions.stream()
+                    .collect(Collectors.toMap(WalletSnapshotPosition::getTokenId, WalletSnapshotPosition::getPrice, 
+                        (price, other) -> price));
+    }
+}
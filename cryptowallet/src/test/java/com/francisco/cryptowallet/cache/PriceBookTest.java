@@ -0,0 +1,27 @@
+package com.francisco.cryptowallet.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.francisco.cryptowallet.domain.Token;
+
+public class PriceBookTest {
+
+    @Test
+    public void whenPriceOf_thenBookPriceThenStoredPrice() {
+        PriceBook priceBook = new PriceBook();
+        priceBook.put("bitcoin", 1700.00);
+
+        assertEquals(1700.00, priceBook.priceOf(Token.builder().id("bitcoin").price(1500.00).build()).getAsDouble());
+        assertEquals(10.00, priceBook.priceOf(Token.builder().id("ethereum").price(10.00).build()).getAsDouble());
+    }
+
+    @Test
+    public void whenTokenHasNoPrice_thenPriceOfEmpty() {
+        PriceBook priceBook = new PriceBook();
+
+        assertTrue(priceBook.priceOf(Token.builder().id("tether").symbol("USDT").build()).isEmpty());
+    }
+}
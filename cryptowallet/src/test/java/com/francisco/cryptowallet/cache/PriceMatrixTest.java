@@ -0,0 +1,74 @@
+package com.francisco.cryptowallet.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.OptionalDouble;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.francisco.cryptowallet.dto.PriceHistoryDTO;
+
+public class PriceMatrixTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private static final long TIME = LocalDate.of(2025, 2, 7).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+    @TempDir
+    private Path dir;
+
+    private PriceMatrix matrix() {
+        PriceMatrix matrix = new PriceMatrix();
+        ReflectionTestUtils.setField(matrix, "enabled", true);
+        ReflectionTestUtils.setField(matrix, "dir", dir);
+        ReflectionTestUtils.setField(matrix, "maxSegments", 16L);
+        ReflectionTestUtils.invokeMethod(matrix, "init");
+        return matrix;
+    }
+
+    @Test
+    public void whenPricePut_thenReadAtItsMinute() {
+        PriceMatrix matrix = matrix();
+
+        matrix.put("bitcoin", TIME, 96000.50);
+
+        assertEquals(OptionalDouble.of(96000.50), matrix.priceAt("bitcoin", TIME));
+        assertEquals(OptionalDouble.of(96000.50), matrix.firstPrice("bitcoin", TIME - 30_000L, TIME + MINUTE));
+        assertTrue(matrix.priceAt("bitcoin", TIME + MINUTE).isEmpty());
+        assertTrue(matrix.priceAt("ethereum", TIME).isEmpty());
+    }
+
+    @Test
+    public void whenMatrixReopened_thenPricesAreRemapped() {
+        matrix().putAll("bitcoin", new PriceHistoryDTO(new long[] { TIME, TIME + MINUTE }, new double[] { 10.00, Double.NaN }));
+
+        PriceMatrix reopened = matrix();
+
+        assertEquals(OptionalDouble.of(10.00), reopened.priceAt("bitcoin", TIME));
+        assertTrue(reopened.priceAt("bitcoin", TIME + MINUTE).isEmpty());
+    }
+
+    @Test
+    public void whenScanAcrossSegments_thenMissingMinutesAreNaN() {
+        PriceMatrix matrix = matrix();
+        // Last minute of a segment and first minute of the next one.
+        long boundary = (PriceMatrix.BASE_MINUTE + PriceMatrix.SEGMENT_MINUTES) * MINUTE;
+        matrix.put("bitcoin", boundary - MINUTE, 1.00);
+        matrix.put("bitcoin", boundary + MINUTE, 3.00);
+
+        double[] prices = new double[4];
+        int count = matrix.scan("bitcoin", boundary - MINUTE, boundary + 3 * MINUTE, prices);
+
+        assertEquals(4, count);
+        assertEquals(1.00, prices[0]);
+        assertTrue(Double.isNaN(prices[1]));
+        assertEquals(3.00, prices[2]);
+        assertTrue(Double.isNaN(prices[3]));
+    }
+}
@@ -0,0 +1,48 @@
+package com.francisco.cryptowallet.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.francisco.cryptowallet.dto.TokenPriceDTO;
+
+public class TokenUniverseTest {
+
+    private TokenUniverse universe() {
+        TokenUniverse universe = new TokenUniverse();
+        ReflectionTestUtils.setField(universe, "negativeTtl", 60_000L);
+        ReflectionTestUtils.invokeMethod(universe, "init");
+        return universe;
+    }
+
+    @Test
+    public void whenSymbolsCollide_thenBestRankedAssetWins() {
+        TokenUniverse universe = universe();
+
+        universe.replace(List.of(
+            new TokenPriceDTO("bitcoin", "BTC", "Bitcoin", 97000.00),
+            new TokenPriceDTO("batcat", "BTC", "BatCat", 0.01)));
+
+        assertEquals("bitcoin", universe.find("btc").get().id());
+        assertEquals("batcat", universe.find("BatCat").get().id());
+        assertTrue(universe.find("ETH").isEmpty());
+    }
+
+    @Test
+    public void whenReplaced_thenUnknownSymbolsForgotten() {
+        TokenUniverse universe = universe();
+        universe.markUnknown("new");
+
+        assertTrue(universe.isKnownUnknown("NEW"));
+
+        universe.replace(List.of(new TokenPriceDTO("new-coin", "NEW", "New Coin", 1.00)));
+
+        assertFalse(universe.isKnownUnknown("NEW"));
+        assertEquals("new-coin", universe.find("NEW").get().id());
+    }
+}
@@ -0,0 +1,161 @@
+package com.francisco.cryptowallet.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.francisco.cryptowallet.dto.PriceHistoryDTO;
+import com.francisco.cryptowallet.dto.TokenPriceDTO;
+import com.francisco.cryptowallet.dto.TokenPriceListDTO;
+
+public class CoinCapPayloadParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void whenReadAsset_thenOnlyPriceFieldsAreDecoded() throws IOException {
+        String payload = "{\"data\":{\"id\":\"bitcoin\",\"rank\":\"1\",\"symbol\":\"BTC\",\"name\":\"Bitcoin\","
+                + "\"supply\":\"19000000.0\",\"priceUsd\":\"97000.12\",\"tags\":[\"pow\"]},\"timestamp\":1700000000000}";
+
+        TokenPriceDTO tokenPrice = (TokenPriceDTO) read(TokenPriceDTO.class, payload);
+
+        assertEquals("bitcoin", tokenPrice.id());
+        assertEquals("BTC", tokenPrice.symbol());
+        assertEquals(97000.12, tokenPrice.priceUsd());
+    }
+
+    @Test
+    public void whenReadAssetWithNullPrice_thenPriceIsNaN() throws IOException {
+        TokenPriceDTO tokenPrice = (TokenPriceDTO) read(TokenPriceDTO.class, "{\"data\":{\"id\":\"bitcoin\",\"priceUsd\":null}}");
+
+        assertTrue(Double.isNaN(tokenPrice.priceUsd()));
+    }
+
+    @Test
+    public void whenReadAssetWithoutData_thenReturnNull() throws IOException {
+        assertNull(read(TokenPriceDTO.class, "{\"error\":\"bitcoin not found\"}"));
+    }
+
+    @Test
+    public void whenReadAssetList_thenAllAssetsAreDecoded() throws IOException {
+        TokenPriceListDTO tokenPrices = (TokenPriceListDTO) read(TokenPriceListDTO.class, assetListPayload(3));
+
+        assertEquals(3, tokenPrices.data().size());
+        assertEquals("token-2", tokenPrices.data().get(2).id());
+        assertEquals(102.5, tokenPrices.data().get(2).priceUsd());
+    }
+
+    @Test
+    public void whenReadHistory_thenTimesAndPricesAreDecoded() throws IOException {
+        String payload = "{\"data\":[{\"priceUsd\":\"10.5\",\"time\":1000,\"date\":\"2024-01-01T00:00:00.000Z\"},"
+                + "{\"priceUsd\":\"11.5\",\"time\":2000,\"date\":\"2024-01-01T00:01:00.000Z\"}],\"timestamp\":3000}";
+
+        PriceHistoryDTO history = (PriceHistoryDTO) read(PriceHistoryDTO.class, payload);
+
+        assertEquals(2, history.size());
+        assertEquals(1000L, history.timeAt(0));
+        assertEquals(11.5, history.priceAt(1));
+    }
+
+    @Test
+    public void whenReadHistoryPointWithoutTime_thenPointSkipped() throws IOException {
+        String payload = "{\"data\":[{\"priceUsd\":\"10.5\"},{\"priceUsd\":\"11.5\",\"time\":null},"
+                + "{\"priceUsd\":\"12.5\",\"time\":2000}]}";
+
+        PriceHistoryDTO history = (PriceHistoryDTO) read(PriceHistoryDTO.class, payload);
+
+        assertEquals(1, history.size());
+        assertEquals(2000L, history.timeAt(0));
+        assertEquals(12.5, history.priceAt(0));
+    }
+
+    /**
+     * A 2000-asset list (one batched refresh request) is decoded with less than half 
+     * the allocation of the previous path: binding it to {@link TokenPriceListDTO} with 
+     * an ObjectMapper that ignores unknown fields, as Spring Boot's does.
+     */
+    @Test
+    public void whenReadAssetList_thenAllocatesLessThanDataBinding() throws IOException {
+        ObjectMapper bindingMapper = objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        byte[] payload = assetListPayload(2000).getBytes();
+        int iterations = 5;
+
+        bindingMapper.readValue(payload, TokenPriceListDTO.class);
+        readStreaming(payload);
+
+        long bindingBytes = allocatedBytes(() -> {
+            for (int i = 0; i < iterations; i++) {
+                bindingMapper.readValue(payload, TokenPriceListDTO.class);
+            }
+        });
+
+        long streamingBytes = allocatedBytes(() -> {
+            for (int i = 0; i < iterations; i++) {
+                readStreaming(payload);
+            }
+        });
+
+        assertTrue(streamingBytes < bindingBytes / 2,
+            "streaming " + streamingBytes + " bytes, data binding " + bindingBytes + " bytes");
+    }
+
+    private Object read(Class<?> clazz, String payload) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+            return CoinCapPayloadParser.read(clazz, parser);
+        }
+    }
+
+    private TokenPriceListDTO readStreaming(byte[] payload) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+            return CoinCapPayloadParser.readAssetList(parser);
+        }
+    }
+
+    private static long allocatedBytes(IORunnable task) throws IOException {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        task.run();
+
+        return threadMXBean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static String assetListPayload(int size) {
+        StringBuilder payload = new StringBuilder("{\"data\":[");
+
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                payload.append(',');
+            }
+
+            payload.append("{\"id\":\"token-").append(i)
+                .append("\",\"rank\":\"").append(i + 1)
+                .append("\",\"symbol\":\"TK").append(i)
+                .append("\",\"name\":\"Token ").append(i)
+                .append("\",\"supply\":\"19812187.0000000000000000\"")
+                .append(",\"maxSupply\":\"21000000.0000000000000000\"")
+                .append(",\"marketCapUsd\":\"1923849283948.2938471982739487\"")
+                .append(",\"volumeUsd24Hr\":\"12938471923.8475619283746512\"")
+                .append(",\"priceUsd\":\"").append(100 + i).append(".5")
+                .append("\",\"changePercent24Hr\":\"-1.2938471928374651\"")
+                .append(",\"vwap24Hr\":\"97123.1928374619283746\"")
+                .append(",\"explorer\":\"https://blockchain.info/\"}");
+        }
+
+        return payload.append("],\"timestamp\":1700000000000}").toString();
+    }
+
+    @FunctionalInterface
+    private interface IORunnable {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,144 @@
+package com.francisco.cryptowallet.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.francisco.cryptowallet.client.RateGovernor.Priority;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RateGovernorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RateGovernor governor(double requestsPerSecond, int burst, int interactiveReserve) {
+        RateGovernor governor = new RateGovernor(meterRegistry);
+        ReflectionTestUtils.setField(governor, "requestsPerSecond", requestsPerSecond);
+        ReflectionTestUtils.setField(governor, "burst", burst);
+        ReflectionTestUtils.setField(governor, "interactiveReserve", interactiveReserve);
+        ReflectionTestUtils.setField(governor, "maxBackoff", 1000L);
+        ReflectionTestUtils.setField(governor, "maxThrottleRetries", 2);
+        ReflectionTestUtils.setField(governor, "baseBackoff", 10L);
+        ReflectionTestUtils.invokeMethod(governor, "init");
+        return governor;
+    }
+
+    private static HttpClientErrorException tooManyRequests(String retryAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+        return HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers, null, null);
+    }
+
+    @Test
+    public void whenBurstExhausted_thenCallsAreSpacedByRate() {
+        RateGovernor governor = governor(10, 2, 0);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < 4; i++) {
+            governor.acquire(Priority.INTERACTIVE);
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        // 2 permits from the burst, 2 more at 10 per second.
+        assertTrue(elapsedMillis >= 150, "elapsed " + elapsedMillis + " ms");
+    }
+
+    @Test
+    public void whenBackgroundCall_thenInteractiveReserveIsKept() {
+        RateGovernor governor = governor(5, 2, 1);
+
+        governor.acquire(Priority.INTERACTIVE);
+
+        long start = System.nanoTime();
+        governor.acquire(Priority.BACKGROUND);
+        long backgroundMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // The last permit is reserved, the background call waits for a second one (1/5 s).
+        assertTrue(backgroundMillis >= 150, "background waited " + backgroundMillis + " ms");
+    }
+
+    @Test
+    public void whenThrottled_thenCallRetriedAfterRetryAfter() {
+        RateGovernor governor = governor(1000, 10, 0);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = governor.execute(Priority.INTERACTIVE, () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw tooManyRequests("0");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.get("upstream.throttled").counter().count());
+    }
+
+    @Test
+    public void whenAlwaysThrottled_thenThrowAfterRetries() {
+        RateGovernor governor = governor(1000, 10, 0);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(HttpClientErrorException.TooManyRequests.class, () -> governor.execute(Priority.BACKGROUND, () -> {
+            calls.incrementAndGet();
+            throw tooManyRequests("0");
+        }));
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void whenInterruptedWhileWaiting_thenCancelled() {
+        RateGovernor governor = governor(0.001, 1, 0);
+        governor.acquire(Priority.INTERACTIVE);
+
+        Thread.currentThread().interrupt();
+
+        try {
+            assertThrows(CancellationException.class, () -> governor.acquire(Priority.INTERACTIVE));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void whenRetryAfterHeader_thenParsedAsSecondsOrDate() {
+        HttpHeaders seconds = new HttpHeaders();
+        seconds.set(HttpHeaders.RETRY_AFTER, "7");
+
+        HttpHeaders date = new HttpHeaders();
+        date.set(HttpHeaders.RETRY_AFTER, DateTimeFormatter.RFC_1123_DATE_TIME
+                    .format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30)));
+
+        assertEquals(Duration.ofSeconds(7), RateGovernor.retryAfter(seconds).get());
+        assertTrue(RateGovernor.retryAfter(date).get().getSeconds() > 20);
+        assertTrue(RateGovernor.retryAfter(new HttpHeaders()).isEmpty());
+    }
+
+    @Test
+    public void whenBackoff_thenGrowsExponentiallyWithinCap() {
+        RateGovernor governor = governor(1000, 10, 0);
+
+        for (int attempt = 0; attempt < 10; attempt++) {
+            long expected = Math.min(10L << attempt, 1000L);
+            long backoff = governor.backoff(attempt).toMillis();
+
+            assertTrue(backoff >= expected / 2 && backoff <= expected, "attempt " + attempt + ": " + backoff);
+        }
+    }
+}
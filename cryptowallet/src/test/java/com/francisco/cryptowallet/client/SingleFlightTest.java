@@ -0,0 +1,159 @@
+package com.francisco.cryptowallet.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.francisco.cryptowallet.exception.TokenPriceException;
+
+public class SingleFlightTest {
+
+    @Test
+    public void whenConcurrentIdenticalCalls_thenCallRunsOnce() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 10;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> results = new ArrayList<>();
+
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("bitcoin", () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return 42;
+                })));
+            }
+
+            // Wait until every other caller is waiting for the in-flight call.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+            while (singleFlight.coalesced() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(42, result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, executions.get());
+        assertEquals(callers - 1, singleFlight.coalesced());
+    }
+
+    @Test
+    public void whenSequentialCalls_thenEachCallRuns() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute("bitcoin", executions::incrementAndGet);
+        singleFlight.execute("bitcoin", executions::incrementAndGet);
+
+        assertEquals(2, executions.get());
+        assertEquals(0, singleFlight.coalesced());
+    }
+
+    @Test
+    public void whenCallFails_thenExceptionIsPropagated() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+
+        assertThrows(TokenPriceException.class, () -> singleFlight.execute("bitcoin", () -> {
+            throw new TokenPriceException("Failed!");
+        }));
+    }
+
+    @Test
+    public void whenCallThrowsError_thenWaitingCallersAreReleased() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Not closed (which waits for the tasks), so a waiter left blocked fails the test instead of hanging it.
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        try {
+            Future<Integer> leader = executor.submit(() -> singleFlight.execute("bitcoin", () -> {
+                await(release);
+                throw new AssertionError("Failed!");
+            }));
+
+            Future<Integer> waiter = executor.submit(() -> singleFlight.execute("bitcoin", () -> 42));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+            while (singleFlight.coalesced() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            release.countDown();
+
+            ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            ExecutionException waiterFailure = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+
+            assertInstanceOf(AssertionError.class, leaderFailure.getCause());
+            assertInstanceOf(AssertionError.class, waiterFailure.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void whenWaitingCallerInterrupted_thenItStopsWaiting() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch waiterDone = new CountDownLatch(1);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        try {
+            executor.submit(() -> singleFlight.execute("bitcoin", () -> {
+                await(release);
+                return 42;
+            }));
+
+            Future<?> waiter = executor.submit(() -> {
+                try {
+                    singleFlight.execute("bitcoin", () -> 42);
+                } finally {
+                    waiterDone.countDown();
+                }
+            });
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+            while (singleFlight.coalesced() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            waiter.cancel(true);
+
+            // The call is still in flight, the cancelled caller returned anyway.
+            assertTrue(waiterDone.await(1, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.francisco.cryptowallet.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.Configurable;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = { "http.client.http2.enabled=false", "http.client.pool.max-total=12",
+        "http.client.pool.max-per-route=7", "http.client.timeout.connect=1100", "http.client.timeout.read=3300",
+        "http.client.timeout.pool-acquire=900", "http.client.keep-alive=15000",
+        "token.api.url.assets=https://upstream.test/v2/assets" })
+public class HttpClientConfigTest {
+
+    @Autowired
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    @Autowired
+    private CloseableHttpClient httpClient;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpRoute upstreamRoute = new HttpRoute(new HttpHost("https", "upstream.test", 443), null, true);
+
+    @Test
+    public void whenPoolConfigured_thenLimitsApplied() {
+        assertEquals(12, connectionManager.getMaxTotal());
+        assertEquals(7, connectionManager.getDefaultMaxPerRoute());
+        assertEquals(7, connectionManager.getMaxPerRoute(upstreamRoute));
+    }
+
+    @Test
+    public void whenPoolConfigured_thenConnectionTimeoutsApplied() {
+        ConnectionConfig connectionConfig = ReflectionTestUtils.invokeMethod(connectionManager, "resolveConnectionConfig", upstreamRoute);
+
+        assertEquals(1100, connectionConfig.getConnectTimeout().toMilliseconds());
+        assertEquals(3300, connectionConfig.getSocketTimeout().toMilliseconds());
+        assertEquals(15000, connectionConfig.getTimeToLive().toMilliseconds());
+    }
+
+    @Test
+    public void whenClientConfigured_thenRequestTimeoutsApplied() {
+        RequestConfig requestConfig = assertInstanceOf(Configurable.class, httpClient).getConfig();
+
+        assertEquals(900, requestConfig.getConnectionRequestTimeout().toMilliseconds());
+        assertEquals(3300, requestConfig.getResponseTimeout().toMilliseconds());
+    }
+
+    @Test
+    public void whenRestTemplateBuilt_thenPooledClientUsed() {
+        HttpComponentsClientHttpRequestFactory requestFactory = assertInstanceOf(HttpComponentsClientHttpRequestFactory.class,
+            restTemplate.getRequestFactory());
+
+        assertSame(httpClient, requestFactory.getHttpClient());
+    }
+
+    @Test
+    public void whenPoolMetricsBound_thenGaugesRegisteredForPoolAndUpstreamRoute() {
+        for (String name : List.of("http.client.pool.leased", "http.client.pool.available", "http.client.pool.pending", "http.client.pool.max")) {
+            assertNotNull(meterRegistry.find(name).tag("route", "all").gauge(), name);
+            assertNotNull(meterRegistry.find(name).tag("route", "upstream.test:443").gauge(), name);
+        }
+
+        Gauge totalMax = meterRegistry.get("http.client.pool.max").tag("route", "all").gauge();
+        Gauge upstreamMax = meterRegistry.get("http.client.pool.max").tag("route", "upstream.test:443").gauge();
+
+        assertEquals(12, totalMax.value());
+        assertEquals(7, upstreamMax.value());
+        assertEquals(0, meterRegistry.get("http.client.pool.leased").tag("route", "all").gauge().value());
+    }
+
+    @Test
+    public void whenConnectionLeased_thenLeasedGaugeCountsIt() throws Exception {
+        ConnectionEndpoint endpoint = connectionManager.lease("metrics-test", upstreamRoute, null).get(Timeout.ofSeconds(1));
+
+        try {
+            assertEquals(1, meterRegistry.get("http.client.pool.leased").tag("route", "upstream.test:443").gauge().value());
+        } finally {
+            connectionManager.release(endpoint, null, null);
+        }
+
+        assertEquals(0, meterRegistry.get("http.client.pool.leased").tag("route", "upstream.test:443").gauge().value());
+    }
+}
@@ -9,6 +9,11 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -18,19 +23,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.francisco.cryptowallet.dto.AssetRiskDTO;
 import com.francisco.cryptowallet.dto.CreateWalletRequestDTO;
 import com.francisco.cryptowallet.dto.WalletDTO;
 import com.francisco.cryptowallet.dto.WalletEvaluationResponseDTO;
+import com.francisco.cryptowallet.dto.WalletRiskResponseDTO;
+import com.francisco.cryptowallet.dto.WalletSummaryDTO;
+import com.francisco.cryptowallet.exception.InvalidRequestException;
 import com.francisco.cryptowallet.exception.NotFoundException;
 import com.francisco.cryptowallet.exception.WalletAlreadyExistsException;
 import com.francisco.cryptowallet.exception.WalletNotFoundException;
 import com.francisco.cryptowallet.mapper.WalletMapper;
+import com.francisco.cryptowallet.service.RiskService;
+import com.francisco.cryptowallet.service.TimeSeriesService;
 import com.francisco.cryptowallet.service.WalletService;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -48,6 +62,12 @@ public class WalletControllerTest {
     @MockitoBean
     private WalletService walletService;
 
+    @MockitoBean
+    private TimeSeriesService timeSeriesService;
+
+    @MockitoBean
+    private RiskService riskService;
+
     private WalletDTO walletDto;
 
     @BeforeEach
@@ -145,6 +165,21 @@ public class WalletControllerTest {
         verify(walletService, times(1)).getWallet(walletId);
     }
 
+    @Test
+    public void whenGetWalletSummary_thenReturnSummary() throws Exception {
+        UUID walletId = UUID.randomUUID();
+
+        when(walletService.getWalletSummary(walletId)).thenReturn(WalletSummaryDTO.builder()
+                .id(walletId).total(52242.69).asset_count(2).price_generation(1738368000000L).updated_at(1738368002000L)
+                .build());
+
+        mockMvc.perform(get("/api/wallets/id/{id}/summary", walletId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(52242.69))
+                .andExpect(jsonPath("$.asset_count").value(2))
+                .andExpect(jsonPath("$.updated_at").value(1738368002000L));
+    }
+
     @Test
     public void whenGetWalletByIdNotExists_thenThrowWalletNotFoundException() throws Exception {
         UUID walletId = UUID.randomUUID();
@@ -199,6 +234,26 @@ public class WalletControllerTest {
         verify(walletService, times(1)).evaluateWallet(eq(walletId), any());
     }
 
+    @Test
+    public void whenEvaluateWalletWithDeadline_thenReturnPartialEvaluation() throws Exception {
+        UUID walletId = UUID.randomUUID();
+
+        WalletEvaluationResponseDTO evaluationResponseDTO = WalletEvaluationResponseDTO.builder()
+                .total(3000.00).best_asset("BTC").best_performance(1.0).worst_asset("BTC").worst_performance(1.0)
+                .partial(true).priced_assets(List.of("BTC")).timed_out_assets(List.of("ETH"))
+                .build();
+
+        when(walletService.evaluateWallet(eq(walletId), any(LocalDate.class), eq(Duration.ofMillis(2000))))
+            .thenReturn(evaluationResponseDTO);
+
+        mockMvc.perform(get("/api/wallets/evaluate/{id}", walletId)
+                .param("date", "2025-02-07")
+                .param("deadline", "2000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.partial").value(true))
+                .andExpect(jsonPath("$.timed_out_assets[0]").value("ETH"));
+    }
+
     @Test
     public void whenEvaluateEmptyWallet_thenThrowNotFoundException() throws Exception {
         UUID walletId = UUID.randomUUID();
@@ -212,4 +267,108 @@ public class WalletControllerTest {
 
         verify(walletService, times(1)).evaluateWallet(eq(walletId), any());
     }
+
+    @Test
+    public void whenEvaluateWalletAtDates_thenReturnEvaluationByDate() throws Exception {
+        UUID walletId = UUID.randomUUID();
+        LocalDate first = LocalDate.parse("2025-02-01");
+        LocalDate second = LocalDate.parse("2025-02-07");
+
+        WalletEvaluationResponseDTO evaluationResponseDTO = new WalletEvaluationResponseDTO(5000.00, "BTC", 1.0, "ETH",
+                0.9);
+
+        when(walletService.evaluateWalletAtDates(walletId, List.of(first, second)))
+            .thenReturn(new TreeMap<>(Map.of(first, evaluationResponseDTO, second, evaluationResponseDTO)));
+
+        mockMvc.perform(get("/api/wallets/evaluate/{id}/dates", walletId)
+                .param("dates", "2025-02-01,2025-02-07"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['2025-02-01'].total").value(5000.00))
+                .andExpect(jsonPath("$['2025-02-07'].best_asset").value("BTC"));
+
+        verify(walletService, times(1)).evaluateWalletAtDates(walletId, List.of(first, second));
+    }
+
+    @Test
+    public void whenEvaluateWalletBetweenInvalidRange_thenBadRequest() throws Exception {
+        UUID walletId = UUID.randomUUID();
+
+        when(walletService.evaluateWalletBetween(eq(walletId), any(), any()))
+            .thenThrow(new InvalidRequestException("A valid date range is required!"));
+
+        mockMvc.perform(get("/api/wallets/evaluate/{id}/dates", walletId)
+                    .param("from", "2025-02-07")
+                    .param("to", "2025-02-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("A valid date range is required!"));
+    }
+
+    @Test
+    public void whenGetTimeSeries_thenStreamNdjson() throws Exception {
+        UUID walletId = UUID.randomUUID();
+        String rows = "{\"time\":1,\"total\":2.0,\"assets\":{\"BTC\":2.0}}\n";
+
+        when(timeSeriesService.streamTimeSeries(walletId, LocalDate.parse("2025-02-01"), LocalDate.parse("2025-02-07"), "d1"))
+            .thenReturn(out -> out.write(rows.getBytes()));
+
+        MvcResult result = mockMvc.perform(get("/api/wallets/id/{id}/timeseries", walletId)
+                    .param("from", "2025-02-01")
+                    .param("to", "2025-02-07"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(rows));
+    }
+
+    @Test
+    public void whenGetRisk_thenReturnRiskMetrics() throws Exception {
+        UUID walletId = UUID.randomUUID();
+
+        WalletRiskResponseDTO riskResponseDTO = WalletRiskResponseDTO.builder()
+                .volatility(65.2).max_drawdown(30.1).sharpe_ratio(1.2).sortino_ratio(1.8).points(365)
+                .assets(List.of(AssetRiskDTO.builder().symbol("BTC").weight(100.0).volatility(65.2).risk_contribution(100.0).build()))
+                .build();
+
+        when(riskService.evaluateRisk(walletId, LocalDate.parse("2024-02-07"), LocalDate.parse("2025-02-07"), "d1"))
+            .thenReturn(riskResponseDTO);
+
+        mockMvc.perform(get("/api/wallets/id/{id}/risk", walletId)
+                    .param("from", "2024-02-07")
+                    .param("to", "2025-02-07"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.volatility").value(65.2))
+                .andExpect(jsonPath("$.assets[0].risk_contribution").value(100.0));
+    }
+
+    @Test
+    public void whenEvaluateWallets_thenReturnEvaluationByWallet() throws Exception {
+        UUID walletId = UUID.randomUUID();
+        LocalDate date = LocalDate.parse("2025-02-07");
+
+        WalletEvaluationResponseDTO evaluationResponseDTO = new WalletEvaluationResponseDTO(5000.00, "BTC", 1.0, "ETH",
+                0.9);
+
+        when(walletService.evaluateWallets(List.of(walletId), date)).thenReturn(Map.of(walletId, evaluationResponseDTO));
+
+        mockMvc.perform(post("/api/wallets/evaluate/bulk")
+                    .param("date", "2025-02-07")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"ids\": [\"" + walletId + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + walletId + "'].total").value(5000.00));
+    }
+
+    @Test
+    public void whenEvaluateWalletsWithoutIds_thenBadRequest() throws Exception {
+        mockMvc.perform(post("/api/wallets/evaluate/bulk")
+                    .param("date", "2025-02-07")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest());
+
+        verify(walletService, never()).evaluateWallets(any(), any());
+    }
 }
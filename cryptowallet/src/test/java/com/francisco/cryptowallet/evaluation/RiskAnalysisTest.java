@@ -0,0 +1,91 @@
+package com.francisco.cryptowallet.evaluation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.francisco.cryptowallet.dto.PriceHistoryDTO;
+import com.francisco.cryptowallet.dto.WalletRiskResponseDTO;
+
+public class RiskAnalysisTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void whenAlign_thenLastPriceCarriedForward() {
+        PriceHistoryDTO history = new PriceHistoryDTO(new long[] { 15L, 25L, 30L }, new double[] { 1.00, Double.NaN, 3.00 });
+
+        double[] values = RiskAnalysis.align(history, 2.0, 10L, 10L, 4);
+
+        // Each grid point takes the last valid price at or before it (t=30 uses the point at 30).
+        assertArrayEquals(new double[] { Double.NaN, 2.00, 6.00, 6.00 }, values);
+    }
+
+    @Test
+    public void whenAnalyse_thenComputeWalletAndAssetRisk() {
+        double[][] values = {
+            { 100.00, 110.00, 99.00, 108.90 },
+            { 100.00, 100.00, 100.00, 100.00 }
+        };
+
+        WalletRisk risk = RiskAnalysis.analyse(List.of("BTC", "USDT"), values, 365.25, 0.0).get();
+
+        assertEquals(4, risk.points());
+        assertEquals(1 - 199.00 / 210.00, risk.maxDrawdown(), DELTA);
+        // The stable coin has no volatility, so all the risk comes from the other asset.
+        assertEquals(1.0, risk.assets().get(0).contribution(), DELTA);
+        assertEquals(0.0, risk.assets().get(1).contribution(), DELTA);
+        assertEquals(0.0, risk.assets().get(1).volatility(), DELTA);
+        assertEquals(Math.sqrt(0.04 / 3 * 365.25), risk.assets().get(0).volatility(), DELTA);
+        assertEquals(108.90 / 208.90, risk.assets().get(0).weight(), DELTA);
+        assertTrue(risk.sharpe() > 0);
+        assertTrue(risk.sortino() > risk.sharpe());
+    }
+
+    @Test
+    public void whenAssetPricedLater_thenSeriesStartsWhenAllArePriced() {
+        double[][] values = {
+            { 100.00, 100.00, 100.00, 100.00, 100.00 },
+            { Double.NaN, Double.NaN, 50.00, 40.00, 50.00 }
+        };
+
+        WalletRisk risk = RiskAnalysis.analyse(List.of("BTC", "ETH"), values, 365.25, 0.0).get();
+
+        assertEquals(3, risk.points());
+        assertEquals(1 - 140.00 / 150.00, risk.maxDrawdown(), DELTA);
+    }
+
+    @Test
+    public void whenSeriesFlatOrNeverFalls_thenUndefinedRatiosLeftOut() {
+        double[][] flat = { { 100.00, 100.00, 100.00, 100.00 } };
+        double[][] rising = { { 100.00, 110.00, 115.00, 130.00 } };
+
+        WalletRisk flatRisk = RiskAnalysis.analyse(List.of("USDT"), flat, 365.25, 0.0).get();
+        WalletRisk risingRisk = RiskAnalysis.analyse(List.of("BTC"), rising, 365.25, 0.0).get();
+
+        assertTrue(Double.isNaN(flatRisk.sharpe()));
+        assertTrue(Double.isNaN(flatRisk.sortino()));
+        assertTrue(Double.isFinite(risingRisk.sharpe()));
+        assertTrue(Double.isNaN(risingRisk.sortino()));
+
+        // Left out of the response instead of serialised as "NaN" or "Infinity".
+        WalletRiskResponseDTO flatResponse = flatRisk.toResponse();
+
+        assertNull(flatResponse.sharpe_ratio());
+        assertNull(flatResponse.sortino_ratio());
+        assertEquals(0.0, flatResponse.volatility());
+        assertNull(risingRisk.toResponse().sortino_ratio());
+    }
+
+    @Test
+    public void whenNotEnoughPoints_thenEmpty() {
+        double[][] values = { { Double.NaN, 100.00, 110.00 } };
+
+        assertTrue(RiskAnalysis.analyse(List.of("BTC"), values, 365.25, 0.0).isEmpty());
+    }
+}
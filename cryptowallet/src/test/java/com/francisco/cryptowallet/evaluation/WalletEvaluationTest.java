@@ -0,0 +1,76 @@
+package com.francisco.cryptowallet.evaluation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.francisco.cryptowallet.dto.WalletEvaluationResponseDTO;
+
+public class WalletEvaluationTest {
+
+    private final List<AssetEvaluation> assets = List.of(
+        AssetEvaluation.of(new AssetPosition("bitcoin", "BTC", 2.0, 150.0), 100.0),
+        AssetEvaluation.of(new AssetPosition("ethereum", "ETH", 1.0, 50.0), 100.0),
+        AssetEvaluation.of(new AssetPosition("tether", "USDT", 10.0, 1.0), 1.0),
+        AssetEvaluation.of(new AssetPosition("dead-coin", "DEAD", 5.0, 1.0), 0.0));
+
+    @Test
+    public void whenAssetsAdded_thenTotalBestAndWorst() {
+        WalletEvaluation evaluation = assets.stream()
+                    .reduce(WalletEvaluation.EMPTY, WalletEvaluation::add, WalletEvaluation::combine);
+
+        WalletEvaluationResponseDTO response = evaluation.toResponse().get();
+
+        assertEquals(310.0, response.total());
+        assertEquals(4, evaluation.priced());
+        assertEquals("BTC", response.best_asset());
+        assertEquals(50.0, response.best_performance());
+        assertEquals("ETH", response.worst_asset());
+        assertEquals(-50.0, response.worst_performance());
+    }
+
+    @Test
+    public void whenPartialEvaluationsCombined_thenSameAsSequential() {
+        WalletEvaluation sequential = WalletEvaluation.EMPTY;
+
+        for (AssetEvaluation asset : assets) {
+            sequential = sequential.add(asset);
+        }
+
+        for (int split = 0; split <= assets.size(); split++) {
+            WalletEvaluation left = assets.subList(0, split).stream()
+                        .reduce(WalletEvaluation.EMPTY, WalletEvaluation::add, WalletEvaluation::combine);
+            WalletEvaluation right = assets.subList(split, assets.size()).stream()
+                        .reduce(WalletEvaluation.EMPTY, WalletEvaluation::add, WalletEvaluation::combine);
+
+            assertEquals(sequential, left.combine(right));
+        }
+    }
+
+    @Test
+    public void whenParallelReduction_thenDeterministicResult() {
+        List<AssetEvaluation> many = IntStream.range(0, 10_000)
+                    .mapToObj(i -> AssetEvaluation.of(new AssetPosition("t" + i, "T" + i, 1.0, 1.0 + i % 7), 1.0))
+                    .toList();
+
+        WalletEvaluation sequential = many.stream()
+                    .reduce(WalletEvaluation.EMPTY, WalletEvaluation::add, WalletEvaluation::combine);
+        WalletEvaluation parallel = many.parallelStream()
+                    .reduce(WalletEvaluation.EMPTY, WalletEvaluation::add, WalletEvaluation::combine);
+
+        assertEquals(sequential.bestAsset(), parallel.bestAsset());
+        assertEquals(sequential.worstAsset(), parallel.worstAsset());
+        assertEquals(10_000.0, parallel.total());
+    }
+
+    @Test
+    public void whenNoPastPrice_thenNoResponse() {
+        WalletEvaluation evaluation = WalletEvaluation.EMPTY.add(assets.get(3));
+
+        assertTrue(evaluation.toResponse().isEmpty());
+    }
+}
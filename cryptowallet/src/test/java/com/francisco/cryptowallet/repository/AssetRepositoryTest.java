@@ -2,9 +2,15 @@ package com.francisco.cryptowallet.repository;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -15,6 +21,8 @@ import com.francisco.cryptowallet.domain.Asset;
 import com.francisco.cryptowallet.domain.Token;
 import com.francisco.cryptowallet.domain.Wallet;
 
+import jakarta.persistence.EntityManagerFactory;
+
 @DataJpaTest
 @ActiveProfiles("test")
 public class AssetRepositoryTest {
@@ -25,6 +33,9 @@ public class AssetRepositoryTest {
     @Autowired
     private TestEntityManager entityManager;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     public void whenFindByWalletId_thenReturnAssets() {
         Wallet wallet = Wallet.builder().email("test@email.com").build();
@@ -48,4 +59,77 @@ public class AssetRepositoryTest {
         assertEquals(asset.getWallet().getId(), assets.get(0).getWallet().getId());
         assertEquals(1.5 * 1500.00, assets.get(0).getValue());
     }
+
+    @Test
+    public void whenFindAllWithTokenByWalletIdIn_thenReturnAssetsOfAllWallets() {
+        Token token = Token.builder().id("bitcoin").symbol("BTC").price(1500.00).build();
+        entityManager.persistAndFlush(token);
+
+        Wallet first = Wallet.builder().email("first@email.com").build();
+        Wallet second = Wallet.builder().email("second@email.com").build();
+        Wallet other = Wallet.builder().email("other@email.com").build();
+        entityManager.persist(first);
+        entityManager.persist(second);
+        entityManager.persist(other);
+
+        entityManager.persist(Asset.builder().wallet(first).token(token).quantity(1.0).build());
+        entityManager.persist(Asset.builder().wallet(second).token(token).quantity(2.0).build());
+        entityManager.persist(Asset.builder().wallet(other).token(token).quantity(3.0).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Asset> assets = assetRepository.findAllWithTokenByWalletIdIn(Set.of(first.getId(), second.getId()));
+
+        assertEquals(2, assets.size());
+        assertEquals(3.0, assets.stream().mapToDouble(Asset::getQuantity).sum());
+        assertEquals("BTC", assets.get(0).getToken().getSymbol());
+        // Tokens and wallets come with the assets, not with one query per wallet.
+        assertTrue(Hibernate.isInitialized(assets.get(0).getWallet()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void whenAddQuantities_thenHeldPositionsIncrementedAndNewOnesInserted() {
+        Wallet wallet = Wallet.builder().email("test@email.com").build();
+        entityManager.persist(wallet);
+
+        List<Token> tokens = new ArrayList<>();
+
+        for (String id : List.of("bitcoin", "ethereum", "tether", "solana")) {
+            Token token = Token.builder().id(id).symbol(id.toUpperCase()).price(1.00).build();
+            entityManager.persist(token);
+            tokens.add(token);
+        }
+
+        entityManager.persist(Asset.builder().wallet(wallet).token(tokens.get(0)).quantity(1.0).build());
+        entityManager.flush();
+
+        assetRepository.addQuantities(wallet.getId(), tokens.stream()
+                    .map(token -> Asset.builder().wallet(wallet).token(token).quantity(2.0).build())
+                    .toList(), 2);
+
+        assertEquals(4, assetRepository.findByWalletId(wallet.getId()).size());
+        assertEquals(3.0, assetRepository.findByWalletIdAndTokenId(wallet.getId(), "bitcoin").get().getQuantity());
+        assertEquals(2.0, assetRepository.findByWalletIdAndTokenId(wallet.getId(), "solana").get().getQuantity());
+    }
+
+    @Test
+    public void whenAddQuantity_thenPositionInsertedThenIncremented() {
+        Wallet wallet = Wallet.builder().email("test@email.com").build();
+        entityManager.persist(wallet);
+
+        Token token = Token.builder().id("bitcoin").symbol("BTC").price(1500.00).build();
+        entityManager.persistAndFlush(token);
+
+        assetRepository.addQuantity(wallet.getId(), "bitcoin", 1.5);
+        assetRepository.addQuantity(wallet.getId(), "bitcoin", 2.0);
+
+        List<Asset> assets = assetRepository.findByWalletId(wallet.getId());
+
+        assertEquals(1, assets.size());
+        assertEquals(3.5, assets.get(0).getQuantity());
+    }
 }
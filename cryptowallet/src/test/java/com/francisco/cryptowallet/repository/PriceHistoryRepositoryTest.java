@@ -0,0 +1,104 @@
+package com.francisco.cryptowallet.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.francisco.cryptowallet.domain.PricePoint;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class PriceHistoryRepositoryTest {
+
+    @Autowired
+    private PriceHistoryRepository priceHistoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        priceHistoryRepository.saveAllIgnoringDuplicates(List.of(
+            new PricePoint("bitcoin", "m1", 60_000L, 100.00),
+            new PricePoint("bitcoin", "m1", 120_000L, 110.00),
+            new PricePoint("bitcoin", "m1", 180_000L, 120.00),
+            new PricePoint("ethereum", "m1", 120_000L, 10.00)));
+    }
+
+    @Test
+    public void whenSaveDuplicates_thenExistingPointsAreKept() {
+        priceHistoryRepository.saveAllIgnoringDuplicates(List.of(
+            new PricePoint("bitcoin", "m1", 120_000L, 110.00),
+            new PricePoint("bitcoin", "m1", 240_000L, 130.00)));
+
+        assertEquals(5, priceHistoryRepository.count());
+    }
+
+    @Test
+    public void whenSaveDuplicateWithOtherPrice_thenStoredPriceIsKept() {
+        priceHistoryRepository.saveAllIgnoringDuplicates(List.of(new PricePoint("bitcoin", "m1", 120_000L, 999.00)));
+
+        Optional<PricePoint> pricePoint = priceHistoryRepository
+            .findFirstByTokenIdAndIntervalAndTimeGreaterThanEqualAndTimeLessThanOrderByTimeAsc("bitcoin", "m1", 120_000L, 120_001L);
+
+        assertEquals(110.00, pricePoint.get().getPriceUsd());
+    }
+
+    @Test
+    public void whenFindFirstInWindow_thenReturnFirstPoint() {
+        Optional<PricePoint> pricePoint = priceHistoryRepository
+            .findFirstByTokenIdAndIntervalAndTimeGreaterThanEqualAndTimeLessThanOrderByTimeAsc("bitcoin", "m1", 100_000L, 200_000L);
+
+        assertTrue(pricePoint.isPresent());
+        assertEquals(110.00, pricePoint.get().getPriceUsd());
+    }
+
+    @Test
+    public void whenFindFirstInEmptyWindow_thenReturnEmpty() {
+        Optional<PricePoint> pricePoint = priceHistoryRepository
+            .findFirstByTokenIdAndIntervalAndTimeGreaterThanEqualAndTimeLessThanOrderByTimeAsc("ethereum", "m1", 130_000L, 190_000L);
+
+        assertFalse(pricePoint.isPresent());
+    }
+
+    @Test
+    public void whenOtherIntervalInWindow_thenNotReturnedForMinuteLookup() {
+        // An hourly average at the same time as a minute point is stored next to it.
+        priceHistoryRepository.saveAllIgnoringDuplicates(List.of(
+            new PricePoint("ethereum", "h1", 120_000L, 12.00),
+            new PricePoint("ethereum", "h1", 150_000L, 12.00)));
+
+        Optional<PricePoint> pricePoint = priceHistoryRepository
+            .findFirstByTokenIdAndIntervalAndTimeGreaterThanEqualAndTimeLessThanOrderByTimeAsc("ethereum", "m1", 130_000L, 190_000L);
+
+        assertFalse(pricePoint.isPresent());
+        assertEquals(6, priceHistoryRepository.count());
+    }
+
+    @Test
+    public void whenFindLastBefore_thenReturnNearestPreviousPoint() {
+        Optional<PricePoint> pricePoint = priceHistoryRepository
+            .findFirstByTokenIdAndIntervalAndTimeLessThanEqualOrderByTimeDesc("bitcoin", "m1", 179_999L);
+
+        assertTrue(pricePoint.isPresent());
+        assertEquals(120_000L, pricePoint.get().getTime());
+    }
+
+    @Test
+    public void whenFindRange_thenReturnPointsOrderedByTime() {
+        priceHistoryRepository.saveAllIgnoringDuplicates(List.of(new PricePoint("bitcoin", "h1", 90_000L, 105.00)));
+
+        List<PricePoint> pricePoints = priceHistoryRepository
+            .findByTokenIdAndIntervalAndTimeBetweenOrderByTimeAsc("bitcoin", "m1", 60_000L, 120_000L);
+
+        assertEquals(2, pricePoints.size());
+        assertEquals(60_000L, pricePoints.get(0).getTime());
+        assertEquals(120_000L, pricePoints.get(1).getTime());
+    }
+}
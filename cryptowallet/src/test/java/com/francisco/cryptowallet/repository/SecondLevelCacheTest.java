@@ -0,0 +1,93 @@
+package com.francisco.cryptowallet.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.francisco.cryptowallet.domain.Token;
+import com.francisco.cryptowallet.domain.Wallet;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The second-level cache is disabled in the test profile, so that rolled back test
+ * data isn't cached. These tests enable it and commit each repository call.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        tokenRepository.save(Token.builder().id("bitcoin").symbol("BTC").price(1500.00).build());
+        walletRepository.save(Wallet.builder().email("test@email.com").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        walletRepository.deleteAll();
+        tokenRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    public void whenFindBySymbolTwice_thenSecondReadServedFromCache() {
+        tokenRepository.findBySymbol("BTC");
+        statistics.clear();
+
+        Token token = tokenRepository.findBySymbol("BTC").get();
+
+        assertEquals(1500.00, token.getPrice());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    public void whenUpdatePrices_thenCachedTokenEvicted() {
+        tokenRepository.findBySymbol("BTC");
+
+        tokenRepository.updatePrices(List.of(Token.builder().id("bitcoin").symbol("BTC").price(2000.00).build()));
+
+        assertEquals(2000.00, tokenRepository.findBySymbol("BTC").get().getPrice());
+        assertEquals(2000.00, tokenRepository.findById("bitcoin").get().getPrice());
+    }
+
+    @Test
+    public void whenFindByEmailTwice_thenSecondReadServedFromCache() {
+        walletRepository.findByEmail("test@email.com");
+        statistics.clear();
+
+        assertTrue(walletRepository.findByEmail("test@email.com").isPresent());
+        assertTrue(walletRepository.existsByEmail("test@email.com"));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
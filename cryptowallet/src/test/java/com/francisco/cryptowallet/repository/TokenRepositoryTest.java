@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -49,4 +50,22 @@ public class TokenRepositoryTest {
 
         assertFalse(tokenOptional.isPresent());
     }
+
+    @Test
+    public void whenUpdatePrices_thenPricesAreUpdated() {
+        Token ethereum = Token.builder().id("ethereum").symbol("ETH").price(100.00).build();
+        entityManager.persistAndFlush(ethereum);
+
+        Token updatedBitcoin = Token.builder().id("bitcoin").symbol("BTC").price(2000.00).build();
+        Token updatedEthereum = Token.builder().id("ethereum").symbol("ETH").price(200.00).build();
+        Token unknown = Token.builder().id("unknown").symbol("UNK").price(1.00).build();
+
+        int updated = tokenRepository.updatePrices(List.of(updatedBitcoin, updatedEthereum, unknown));
+        entityManager.clear();
+
+        assertEquals(2, updated);
+        assertEquals(2000.00, tokenRepository.findById("bitcoin").get().getPrice());
+        assertEquals(200.00, tokenRepository.findById("ethereum").get().getPrice());
+        assertFalse(tokenRepository.findById("unknown").isPresent());
+    }
 }
@@ -7,11 +7,14 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -72,6 +75,36 @@ public class WalletRepositoryTest {
         assertEquals(1.5, walletOptional.get().getAssets().get(0).getQuantity());
     }
 
+    @Test
+    public void whenFindWithAssetsById_thenAssetsAndTokensLoaded() {
+        entityManager.persistAndFlush(Asset.builder().wallet(wallet).token(token).quantity(1.5).build());
+        entityManager.clear();
+
+        Wallet loaded = walletRepository.findWithAssetsById(wallet.getId()).get();
+        entityManager.clear();
+
+        // Detached, so anything not fetched by the query itself can't be loaded anymore.
+        assertTrue(Hibernate.isInitialized(loaded.getAssets()));
+        assertEquals(1, loaded.getAssets().size());
+        assertTrue(Hibernate.isInitialized(loaded.getAssets().get(0).getToken()));
+        assertEquals(2250.00, loaded.getTotal());
+    }
+
+    @Test
+    public void whenFindWithAssetsByEmail_thenReturnWalletWithAssets() {
+        Token ether = Token.builder().id("ethereum").symbol("ETH").price(2500.00).build();
+        entityManager.persist(ether);
+
+        entityManager.persistAndFlush(Asset.builder().wallet(wallet).token(token).quantity(1.5).build());
+        entityManager.persistAndFlush(Asset.builder().wallet(wallet).token(ether).quantity(0.5).build());
+        entityManager.clear();
+
+        Optional<Wallet> walletOptional = walletRepository.findWithAssetsByEmail(email);
+
+        assertTrue(walletOptional.isPresent());
+        assertEquals(2, walletOptional.get().getAssets().size());
+    }
+
     @Test
     public void whenFindByEmail_thenReturnEmptyOptional() {
         Optional<Wallet> walletOptional = walletRepository.findByEmail("invalid@email.com");
@@ -92,4 +125,24 @@ public class WalletRepositoryTest {
 
         assertFalse(walletExists);
     }
+
+    @Test
+    public void whenPageWalletIds_thenAllWalletsReadOnce() {
+        for (int i = 0; i < 4; i++) {
+            entityManager.persist(Wallet.builder().email("page" + i + "@email.com").build());
+        }
+        entityManager.flush();
+
+        long total = walletRepository.count();
+        List<UUID> page = walletRepository.findIds(Limit.of(2));
+        List<UUID> ids = new ArrayList<>(page);
+
+        while (page.size() == 2) {
+            page = walletRepository.findIdsAfter(page.get(1), Limit.of(2));
+            ids.addAll(page);
+        }
+
+        assertEquals(total, ids.size());
+        assertEquals(total, ids.stream().distinct().count());
+    }
 }
@@ -0,0 +1,79 @@
+package com.francisco.cryptowallet.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.francisco.cryptowallet.domain.WalletSnapshot;
+import com.francisco.cryptowallet.domain.WalletSnapshotPosition;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class WalletSnapshotRepositoryTest {
+
+    @Autowired
+    private WalletSnapshotRepository walletSnapshotRepository;
+
+    @Autowired
+    private WalletSnapshotPositionRepository walletSnapshotPositionRepository;
+
+    @Test
+    public void whenSaveSnapshots_thenFindPositionsByWalletAndDate() {
+        UUID walletId = UUID.randomUUID();
+        LocalDate date = LocalDate.of(2025, 2, 7);
+
+        walletSnapshotRepository.saveAllIgnoringDuplicates(
+            List.of(new WalletSnapshot(walletId, date, 250.00), new WalletSnapshot(walletId, date.minusDays(1), 200.00)),
+            List.of(
+                new WalletSnapshotPosition(walletId, date, "bitcoin", "BTC", 2.0, 100.00),
+                new WalletSnapshotPosition(walletId, date, "ethereum", "ETH", 5.0, 10.00),
+                new WalletSnapshotPosition(walletId, date.minusDays(1), "bitcoin", "BTC", 2.0, 100.00)));
+
+        List<WalletSnapshotPosition> positions = walletSnapshotPositionRepository.findByWalletIdAndDate(walletId, date);
+
+        assertEquals(2, positions.size());
+        assertEquals(2, walletSnapshotPositionRepository.findByWalletIdInAndDate(List.of(walletId, UUID.randomUUID()), date).size());
+        assertEquals(250.00, walletSnapshotRepository.findByWalletIdAndDate(walletId, date).get().getTotal());
+    }
+
+    @Test
+    public void whenSaveDuplicateSnapshots_thenExistingSnapshotsAreKept() {
+        UUID walletId = UUID.randomUUID();
+        LocalDate date = LocalDate.of(2025, 2, 7);
+
+        walletSnapshotRepository.saveAllIgnoringDuplicates(
+            List.of(new WalletSnapshot(walletId, date, 250.00)),
+            List.of(new WalletSnapshotPosition(walletId, date, "bitcoin", "BTC", 2.5, 100.00)));
+        walletSnapshotRepository.saveAllIgnoringDuplicates(
+            List.of(new WalletSnapshot(walletId, date, 250.00)),
+            List.of(new WalletSnapshotPosition(walletId, date, "bitcoin", "BTC", 2.5, 100.00)));
+
+        assertEquals(1, walletSnapshotRepository.countByDate(date));
+        assertEquals(1, walletSnapshotPositionRepository.count());
+        assertTrue(walletSnapshotRepository.findByWalletIdAndDate(walletId, date.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    public void whenSaveDuplicateSnapshotWithOtherValues_thenStoredSnapshotIsKept() {
+        UUID walletId = UUID.randomUUID();
+        LocalDate date = LocalDate.of(2025, 2, 7);
+
+        walletSnapshotRepository.saveAllIgnoringDuplicates(
+            List.of(new WalletSnapshot(walletId, date, 250.00)),
+            List.of(new WalletSnapshotPosition(walletId, date, "bitcoin", "BTC", 2.5, 100.00)));
+        walletSnapshotRepository.saveAllIgnoringDuplicates(
+            List.of(new WalletSnapshot(walletId, date, 0.00)),
+            List.of(new WalletSnapshotPosition(walletId, date, "bitcoin", "BTC", 9.0, 1.00)));
+
+        assertEquals(250.00, walletSnapshotRepository.findByWalletIdAndDate(walletId, date).get().getTotal());
+        assertEquals(100.00, walletSnapshotPositionRepository.findByWalletIdAndDate(walletId, date).get(0).getPrice());
+    }
+}
@@ -0,0 +1,79 @@
+package com.francisco.cryptowallet.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.francisco.cryptowallet.domain.Asset;
+import com.francisco.cryptowallet.domain.Token;
+import com.francisco.cryptowallet.domain.Wallet;
+import com.francisco.cryptowallet.domain.WalletSummary;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class WalletSummaryRepositoryTest {
+
+    @Autowired
+    private WalletSummaryRepository walletSummaryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Wallet wallet;
+
+    private Wallet empty;
+
+    @BeforeEach
+    void setUp() {
+        Token bitcoin = Token.builder().id("bitcoin").symbol("BTC").price(1500.00).build();
+        Token ether = Token.builder().id("ethereum").symbol("ETH").price(100.00).build();
+        entityManager.persist(bitcoin);
+        entityManager.persist(ether);
+
+        wallet = Wallet.builder().email("test@email.com").build();
+        empty = Wallet.builder().email("empty@email.com").build();
+        entityManager.persist(wallet);
+        entityManager.persist(empty);
+
+        entityManager.persist(Asset.builder().wallet(wallet).token(bitcoin).quantity(2.0).build());
+        entityManager.persist(Asset.builder().wallet(wallet).token(ether).quantity(5.0).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void whenRefreshAll_thenSummaryOfEveryWalletWritten() {
+        assertEquals(2, walletSummaryRepository.refreshAll(1000L));
+
+        WalletSummary summary = walletSummaryRepository.findById(wallet.getId()).get();
+        WalletSummary emptySummary = walletSummaryRepository.findByEmail("empty@email.com").get();
+
+        assertEquals(3500.00, summary.getTotal());
+        assertEquals(2, summary.getAssetCount());
+        assertEquals(1000L, summary.getPriceGeneration());
+        assertEquals(0.00, emptySummary.getTotal());
+        assertEquals(0, emptySummary.getAssetCount());
+    }
+
+    @Test
+    public void whenRefreshWallet_thenRowReplacedWithLatestGeneration() {
+        walletSummaryRepository.refreshAll(1000L);
+
+        entityManager.getEntityManager()
+            .createQuery("update Token t set t.price = 2000.00 where t.id = 'bitcoin'")
+            .executeUpdate();
+
+        assertEquals(1, walletSummaryRepository.refresh(wallet.getId()));
+        entityManager.clear();
+
+        WalletSummary summary = walletSummaryRepository.findByEmail("test@email.com").get();
+
+        assertEquals(4500.00, summary.getTotal());
+        assertEquals(1000L, summary.getPriceGeneration());
+    }
+}
@@ -1,30 +1,47 @@
 package com.francisco.cryptowallet.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.francisco.cryptowallet.cache.PriceBook;
 import com.francisco.cryptowallet.domain.Asset;
 import com.francisco.cryptowallet.domain.Token;
 import com.francisco.cryptowallet.domain.Wallet;
 import com.francisco.cryptowallet.dto.AssetDTO;
+import com.francisco.cryptowallet.dto.AssetImportResponseDTO;
+import com.francisco.cryptowallet.exception.InvalidRequestException;
 import com.francisco.cryptowallet.exception.TokenPriceException;
 import com.francisco.cryptowallet.exception.WalletNotFoundException;
 import com.francisco.cryptowallet.mapper.AssetMapper;
 import com.francisco.cryptowallet.repository.AssetRepository;
 import com.francisco.cryptowallet.repository.TokenRepository;
 import com.francisco.cryptowallet.repository.WalletRepository;
+import com.francisco.cryptowallet.repository.WalletSummaryRepository;
 
 @ExtendWith(MockitoExtension.class)
 public class AssetServiceTest {
@@ -38,12 +55,18 @@ public class AssetServiceTest {
     @Mock
     private WalletRepository walletRepository;
 
+    @Mock
+    private WalletSummaryRepository walletSummaryRepository;
+
     @Mock
     private AssetMapper assetMapper;
 
     @Mock
     private TokenService tokenService;
 
+    @Mock
+    private PriceBook priceBook;
+
     @InjectMocks
     AssetService assetService;
 
@@ -61,6 +84,9 @@ public class AssetServiceTest {
         asset.setWallet(wallet);
         asset.setToken(token);
         asset.setQuantity(1.7);
+
+        ReflectionTestUtils.setField(assetService, "importChunkSize", 500);
+        ReflectionTestUtils.setField(assetService, "maxImportRows", 100);
     }
 
     @Test
@@ -80,4 +106,114 @@ public class AssetServiceTest {
         assertThrows(TokenPriceException.class, () -> assetService.addAsset("test@email.com", assetDto));
         verify(assetRepository, never()).save(any(Asset.class));
     }
+
+    @Test
+    public void whenAddAsset_thenQuantityAddedToPosition() {
+        UUID walletId = UUID.randomUUID();
+        wallet.setId(walletId);
+        Asset position = Asset.builder().wallet(wallet).token(token).quantity(3.7).build();
+        AssetDTO positionDto = AssetDTO.builder().symbol("BTC").quantity(3.7).build();
+
+        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(tokenRepository.findBySymbol("BTC")).thenReturn(Optional.of(token));
+        when(priceBook.getFresh("bitcoin")).thenReturn(OptionalDouble.of(1700.00));
+        when(assetRepository.findByWalletIdAndTokenId(walletId, "bitcoin")).thenReturn(Optional.of(position));
+        when(assetMapper.assetToAssetDTO(position)).thenReturn(positionDto);
+
+        AssetDTO result = assetService.addAsset(walletId, assetDto);
+
+        assertEquals(3.7, result.quantity());
+        verify(assetRepository).addQuantity(walletId, "bitcoin", 1.7);
+        verify(assetRepository, never()).save(any(Asset.class));
+        verify(walletSummaryRepository).refresh(walletId);
+    }
+
+    @Test
+    public void whenGetTokenWithFreshBookPrice_thenNoUpstreamCall() {
+        when(tokenRepository.findBySymbol("BTC")).thenReturn(Optional.of(token));
+        when(priceBook.getFresh("bitcoin")).thenReturn(OptionalDouble.of(1800.00));
+
+        Token result = assetService.getToken("BTC");
+
+        assertEquals(1800.00, result.getPrice());
+        verify(tokenService, never()).fetchTokenPrice(anyString());
+        verify(tokenRepository, never()).save(any(Token.class));
+    }
+
+    @Test
+    public void whenGetTokenWithStaleBookPrice_thenFetchLivePrice() {
+        when(tokenRepository.findBySymbol("BTC")).thenReturn(Optional.of(token));
+        when(priceBook.getFresh("bitcoin")).thenReturn(OptionalDouble.empty());
+        when(tokenService.fetchTokenPrice("bitcoin")).thenReturn(Optional.of(1900.00));
+
+        Token result = assetService.getToken("BTC");
+
+        assertEquals(1900.00, result.getPrice());
+        verify(tokenRepository).save(token);
+    }
+
+    @Test
+    public void whenImportAssets_thenSymbolsResolvedOnceAndAssetsSavedInChunks() {
+        UUID walletId = UUID.randomUUID();
+        List<AssetDTO> assetDtos = List.of(
+            AssetDTO.builder().symbol("BTC").quantity(1.0).build(),
+            AssetDTO.builder().symbol("BTC").quantity(2.0).build(),
+            AssetDTO.builder().symbol("UNK").quantity(3.0).build());
+
+        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(tokenService.resolveTokens(Set.of("BTC", "UNK"))).thenReturn(Map.of("BTC", token));
+
+        AssetImportResponseDTO result = assetService.importAssets(walletId, assetDtos);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Asset>> captor = ArgumentCaptor.forClass(List.class);
+        verify(assetRepository).addQuantities(any(), captor.capture(), anyInt());
+
+        // Both BTC rows are added to a single position.
+        assertEquals(1, captor.getValue().size());
+        assertEquals(3.0, captor.getValue().get(0).getQuantity());
+        assertEquals(2, result.imported());
+        assertEquals(1, result.tokens());
+        assertEquals(List.of("UNK"), result.unresolved_symbols());
+        verify(tokenService).resolveTokens(Set.of("BTC", "UNK"));
+    }
+
+    @Test
+    public void whenImportCsv_thenRowsParsed() {
+        String csv = "symbol,quantity\nBTC,1.5\n\nBTC, 0.5\n";
+
+        when(walletRepository.findByEmail("test@email.com")).thenReturn(Optional.of(wallet));
+        when(tokenService.resolveTokens(Set.of("BTC"))).thenReturn(Map.of("BTC", token));
+
+        AssetImportResponseDTO result = assetService.importAssets("test@email.com", 
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.imported());
+        assertEquals(null, result.unresolved_symbols());
+    }
+
+    @Test
+    public void whenImportCsvWithInvalidLastLine_thenNothingImported() {
+        String csv = "BTC,1.5\nETH,2\nBTC,abc\n";
+
+        when(walletRepository.findByEmail("test@email.com")).thenReturn(Optional.of(wallet));
+
+        assertThrows(InvalidRequestException.class, () -> assetService.importAssets("test@email.com", 
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+        verify(tokenService, never()).resolveTokens(any());
+        verify(assetRepository, never()).addQuantities(any(), anyList(), anyInt());
+    }
+
+    @Test
+    public void whenImportInvalidRow_thenThrowInvalidRequestException() {
+        UUID walletId = UUID.randomUUID();
+        List<AssetDTO> assetDtos = List.of(
+            AssetDTO.builder().symbol("BTC").quantity(1.0).build(),
+            AssetDTO.builder().symbol("ETH").quantity(-1.0).build());
+
+        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
+
+        assertThrows(InvalidRequestException.class, () -> assetService.importAssets(walletId, assetDtos));
+        verify(assetRepository, never()).addQuantities(any(), anyList(), anyInt());
+    }
 }
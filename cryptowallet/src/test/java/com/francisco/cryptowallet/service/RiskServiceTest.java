@@ -0,0 +1,111 @@
+package com.francisco.cryptowallet.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.francisco.cryptowallet.client.RateGovernor.Priority;
+import com.francisco.cryptowallet.domain.Asset;
+import com.francisco.cryptowallet.domain.Token;
+import com.francisco.cryptowallet.domain.Wallet;
+import com.francisco.cryptowallet.dto.PriceHistoryDTO;
+import com.francisco.cryptowallet.dto.WalletRiskResponseDTO;
+import com.francisco.cryptowallet.exception.InvalidRequestException;
+import com.francisco.cryptowallet.exception.NotFoundException;
+import com.francisco.cryptowallet.repository.WalletRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class RiskServiceTest {
+
+    private static final long DAY = 86_400_000L;
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private TokenService tokenService;
+
+    private RiskService riskService;
+
+    private UUID walletId;
+
+    private Wallet wallet;
+
+    @BeforeEach
+    public void setUp() {
+        riskService = new RiskService(walletRepository, tokenService);
+        ReflectionTestUtils.setField(riskService, "maxPoints", 1000L);
+        ReflectionTestUtils.setField(riskService, "riskFreeRate", 0.0);
+
+        Token bitcoin = Token.builder().id("bitcoin").symbol("BTC").price(1.0).build();
+        Token unlisted = Token.builder().id("unlisted").symbol("UNL").price(1.0).build();
+
+        walletId = UUID.randomUUID();
+        wallet = new Wallet();
+        wallet.setId(walletId);
+        wallet.setAssets(new ArrayList<>(List.of(
+            Asset.builder().token(bitcoin).quantity(2.0).build(),
+            Asset.builder().token(unlisted).quantity(1.0).build())));
+    }
+
+    @Test
+    public void whenEvaluateRisk_thenUnpricedTokensLeftOut() {
+        LocalDate from = LocalDate.now(ZoneOffset.UTC).minusDays(10);
+        LocalDate to = from.plusDays(3);
+        long start = from.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+        when(walletRepository.findWithAssetsById(walletId)).thenReturn(Optional.of(wallet));
+        when(tokenService.fetchPriceHistories(anyList(), eq("d1"), eq(start - DAY), anyLong(), eq(Priority.BACKGROUND)))
+            .thenReturn(Map.of(
+                "bitcoin", new PriceHistoryDTO(
+                    new long[] { start, start + DAY, start + 2 * DAY, start + 3 * DAY }, 
+                    new double[] { 100.00, 50.00, 100.00, 100.00 }),
+                "unlisted", PriceHistoryDTO.empty()));
+
+        WalletRiskResponseDTO result = riskService.evaluateRisk(walletId, from, to, "d1");
+
+        assertEquals(4, result.points());
+        assertEquals(50.00, result.max_drawdown());
+        assertEquals(1, result.assets().size());
+        assertEquals("BTC", result.assets().get(0).symbol());
+        assertEquals(100.00, result.assets().get(0).risk_contribution());
+    }
+
+    @Test
+    public void whenEvaluateRiskInvalidInterval_thenThrowInvalidRequestException() {
+        LocalDate to = LocalDate.now(ZoneOffset.UTC);
+
+        assertThrows(InvalidRequestException.class, () -> riskService.evaluateRisk(walletId, to.minusDays(1), to, "w1"));
+        verify(walletRepository, never()).findWithAssetsById(walletId);
+    }
+
+    @Test
+    public void whenEvaluateRiskWithoutHistory_thenThrowNotFoundException() {
+        LocalDate to = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+
+        when(walletRepository.findWithAssetsById(walletId)).thenReturn(Optional.of(wallet));
+        when(tokenService.fetchPriceHistories(anyList(), eq("d1"), anyLong(), anyLong(), eq(Priority.BACKGROUND))).thenReturn(Map.of());
+
+        assertThrows(NotFoundException.class, () -> riskService.evaluateRisk(walletId, to.minusDays(5), to, "d1"));
+    }
+}
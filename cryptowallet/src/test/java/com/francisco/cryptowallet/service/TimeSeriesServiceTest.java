@@ -0,0 +1,150 @@
+package com.francisco.cryptowallet.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.francisco.cryptowallet.client.RateGovernor.Priority;
+import com.francisco.cryptowallet.domain.Asset;
+import com.francisco.cryptowallet.domain.Token;
+import com.francisco.cryptowallet.domain.Wallet;
+import com.francisco.cryptowallet.dto.PriceHistoryDTO;
+import com.francisco.cryptowallet.exception.InvalidRequestException;
+import com.francisco.cryptowallet.exception.NotFoundException;
+import com.francisco.cryptowallet.repository.WalletRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class TimeSeriesServiceTest {
+
+    private static final long DAY = 86_400_000L;
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private TokenService tokenService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TimeSeriesService timeSeriesService;
+
+    private UUID walletId;
+
+    private Wallet wallet;
+
+    private LocalDate from;
+
+    private long start;
+
+    @BeforeEach
+    public void setUp() {
+        timeSeriesService = new TimeSeriesService(walletRepository, tokenService, objectMapper);
+        ReflectionTestUtils.setField(timeSeriesService, "pagePoints", 2);
+        ReflectionTestUtils.setField(timeSeriesService, "maxPoints", 1000L);
+
+        Token bitcoin = Token.builder().id("bitcoin").symbol("BTC").price(1.0).build();
+        Token ethereum = Token.builder().id("ethereum").symbol("ETH").price(1.0).build();
+
+        walletId = UUID.randomUUID();
+        wallet = new Wallet();
+        wallet.setId(walletId);
+        wallet.setAssets(new ArrayList<>(List.of(
+            Asset.builder().token(bitcoin).quantity(1.0).build(),
+            Asset.builder().token(ethereum).quantity(2.0).build(),
+            Asset.builder().token(bitcoin).quantity(1.0).build())));
+
+        from = LocalDate.now(ZoneOffset.UTC).minusDays(10);
+        start = from.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Daily history with the given day offsets (from the start), priced at base + day.
+     */
+    private PriceHistoryDTO history(double base, long startMillis, long endMillis, long... days) {
+        long[] time = LongStream.of(days).map(day -> start + day * DAY)
+                    .filter(t -> t >= startMillis && t <= endMillis).toArray();
+        double[] price = LongStream.of(time).mapToDouble(t -> base + (t - start) / DAY).toArray();
+        return new PriceHistoryDTO(time, price);
+    }
+
+    @Test
+    public void whenStreamTimeSeries_thenRowsMergedInTimeOrder() throws Exception {
+        when(walletRepository.findWithAssetsById(walletId)).thenReturn(Optional.of(wallet));
+        when(tokenService.fetchPriceHistories(anyList(), eq("d1"), anyLong(), anyLong(), eq(Priority.BACKGROUND))).thenAnswer(invocation -> {
+            long pageStart = invocation.getArgument(2);
+            long pageEnd = invocation.getArgument(3);
+            return Map.of(
+                "bitcoin", history(100, pageStart, pageEnd, 0, 1, 2, 3),
+                "ethereum", history(10, pageStart, pageEnd, 1, 3));
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        timeSeriesService.streamTimeSeries(walletId, from, from.plusDays(3), "d1").writeTo(out);
+
+        List<JsonNode> rows = out.toString().lines().map(line -> {
+            try {
+                return objectMapper.readTree(line);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList();
+
+        // 4 days in pages of 2 points: one history request per page.
+        verify(tokenService, times(2)).fetchPriceHistories(anyList(), eq("d1"), anyLong(), anyLong(), eq(Priority.BACKGROUND));
+        assertEquals(4, rows.size());
+        // One JSON object per line, with nothing before it.
+        assertTrue(out.toString().lines().allMatch(line -> line.startsWith("{\"time\":")));
+        assertTrue(out.toString().endsWith("}\n"));
+        assertEquals(List.of(start, start + DAY, start + 2 * DAY, start + 3 * DAY), 
+                    rows.stream().map(row -> row.get("time").asLong()).toList());
+
+        // Day 0: only BTC (2 * 100).
+        assertEquals(200.0, rows.get(0).get("total").asDouble());
+        assertEquals(1, rows.get(0).get("assets").size());
+        // Day 2: BTC 2 * 102, ETH carried forward from day 1, 2 * 11.
+        assertEquals(204.0, rows.get(2).get("assets").get("BTC").asDouble());
+        assertEquals(22.0, rows.get(2).get("assets").get("ETH").asDouble());
+        assertEquals(226.0, rows.get(2).get("total").asDouble());
+    }
+
+    @Test
+    public void whenInvalidTimeSeriesRequest_thenThrowBeforeStreaming() {
+        LocalDate to = from.plusDays(3);
+
+        assertThrows(InvalidRequestException.class, () -> timeSeriesService.streamTimeSeries(walletId, from, to, "w1"));
+        assertThrows(InvalidRequestException.class, () -> timeSeriesService.streamTimeSeries(walletId, to, from, "d1"));
+        assertThrows(InvalidRequestException.class, () -> timeSeriesService.streamTimeSeries(walletId, from, to, "m1"));
+        verify(walletRepository, never()).findWithAssetsById(walletId);
+
+        wallet.setAssets(List.of());
+        when(walletRepository.findWithAssetsById(walletId)).thenReturn(Optional.of(wallet));
+
+        assertThrows(NotFoundException.class, () -> timeSeriesService.streamTimeSeries(walletId, from, to, "d1"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.francisco.cryptowallet.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.francisco.cryptowallet.client.RateGovernor.Priority;
+import com.francisco.cryptowallet.dto.PriceHistoryDTO;
+
+/**
+ * The executors and semaphores TokenService builds on virtual threads
+ * ({@code spring.threads.virtual.enabled=true}, the configured default). See
+ * {@link TokenServicePlatformThreadsTest} for the fixed pools.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = { "spring.threads.virtual.enabled=true", "token.price.thread.max=2",
+        "token.history.thread.max=3" })
+public class TokenServiceExecutorTest {
+
+    @MockitoBean
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private TokenService tokenService;
+
+    /**
+     * Fetch more histories than there are history permits, each call blocking for a while,
+     * and check they ran in the expected thread mode, never more than
+     * {@code token.history.thread.max} (3) at once, and all permits came back.
+     * 
+     * The calls go to a mock stubbed before TokenService sees it: stubbing the context's 
+     * RestTemplate races with the schedulers' startup calls to it.
+     *
+     * @param tokenService the service under test
+     * @param virtual the thread mode the calls should run in
+     */
+    static void assertHistoryFetchesBounded(TokenService tokenService, boolean virtual) {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Set<Boolean> virtualCallers = ConcurrentHashMap.newKeySet();
+        RestTemplate restTemplate = mock(RestTemplate.class);
+
+        when(restTemplate.getForObject(contains("bounded-coin"), eq(PriceHistoryDTO.class))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            virtualCallers.add(Thread.currentThread().isVirtual());
+            Thread.sleep(100);
+            inFlight.decrementAndGet();
+            return PriceHistoryDTO.empty();
+        });
+
+        long start = LocalDate.now(ZoneOffset.UTC).minusDays(40).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        // Histories are cached across contexts, so each thread mode fetches its own tokens.
+        String prefix = virtual ? "bounded-coin-virtual-" : "bounded-coin-platform-";
+        List<String> tokenIds = IntStream.range(0, 9).mapToObj(i -> prefix + i).toList();
+        Object contextRestTemplate = ReflectionTestUtils.getField(tokenService, "restTemplate");
+
+        ReflectionTestUtils.setField(tokenService, "restTemplate", restTemplate);
+        try {
+            tokenService.fetchPriceHistories(tokenIds, "h1", start, start + 3_600_000L, Priority.BACKGROUND);
+        } finally {
+            ReflectionTestUtils.setField(tokenService, "restTemplate", contextRestTemplate);
+        }
+
+        verify(restTemplate, times(9)).getForObject(contains("bounded-coin"), eq(PriceHistoryDTO.class));
+        assertEquals(Set.of(virtual), virtualCallers);
+        assertTrue(maxInFlight.get() <= 3, "in flight " + maxInFlight.get());
+        assertEquals(2, ((Semaphore) ReflectionTestUtils.getField(tokenService, "priceSemaphore")).availablePermits());
+        assertEquals(3, ((Semaphore) ReflectionTestUtils.getField(tokenService, "historySemaphore")).availablePermits());
+    }
+
+    @Test
+    public void whenVirtualThreadsEnabled_thenTasksOnVirtualThreadsBoundedByPermits() {
+        ExecutorService executorService = (ExecutorService) ReflectionTestUtils.getField(tokenService, "executorService");
+        ExecutorService historyExecutorService = (ExecutorService) ReflectionTestUtils.getField(tokenService, "historyExecutorService");
+
+        assertFalse(executorService instanceof ThreadPoolExecutor);
+        assertFalse(historyExecutorService instanceof ThreadPoolExecutor);
+        assertHistoryFetchesBounded(tokenService, true);
+    }
+}
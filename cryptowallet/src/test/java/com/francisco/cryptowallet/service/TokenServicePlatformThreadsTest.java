@@ -0,0 +1,42 @@
+package com.francisco.cryptowallet.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * The fixed pools TokenService builds with {@code spring.threads.virtual.enabled=false}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = { "spring.threads.virtual.enabled=false", "token.price.thread.max=2",
+        "token.history.thread.max=3" })
+public class TokenServicePlatformThreadsTest {
+
+    @MockitoBean
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Test
+    public void whenVirtualThreadsDisabled_thenFixedPoolsSizedByThreadMax() {
+        ExecutorService executorService = (ExecutorService) ReflectionTestUtils.getField(tokenService, "executorService");
+        ExecutorService historyExecutorService = (ExecutorService) ReflectionTestUtils.getField(tokenService, "historyExecutorService");
+
+        assertEquals(2, assertInstanceOf(ThreadPoolExecutor.class, executorService).getMaximumPoolSize());
+        assertEquals(3, assertInstanceOf(ThreadPoolExecutor.class, historyExecutorService).getMaximumPoolSize());
+        TokenServiceExecutorTest.assertHistoryFetchesBounded(tokenService, false);
+    }
+}
@@ -1,28 +1,61 @@
 package com.francisco.cryptowallet.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import com.francisco.cryptowallet.cache.PriceMatrix;
+import com.francisco.cryptowallet.cache.TokenUniverse;
+import com.francisco.cryptowallet.domain.Asset;
+import com.francisco.cryptowallet.domain.PricePoint;
 import com.francisco.cryptowallet.domain.Token;
-import com.francisco.cryptowallet.dto.TokenDataDTO;
-import com.francisco.cryptowallet.dto.TokenResponseDTO;
+import com.francisco.cryptowallet.dto.AssetDTO;
+import com.francisco.cryptowallet.dto.PriceHistoryDTO;
+import com.francisco.cryptowallet.dto.TokenPriceDTO;
+import com.francisco.cryptowallet.dto.TokenPriceListDTO;
+import com.francisco.cryptowallet.dto.TokenPriceUpdateResultDTO;
+import com.francisco.cryptowallet.dto.WalletEvaluationResponseDTO;
+import com.francisco.cryptowallet.exception.TokenPriceException;
+import com.francisco.cryptowallet.repository.PriceHistoryRepository;
 import com.francisco.cryptowallet.repository.TokenRepository;
 
 @ExtendWith(SpringExtension.class)
@@ -39,6 +72,15 @@ public class TokenServiceTest {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private PriceHistoryRepository priceHistoryRepository;
+
+    @Autowired
+    private TokenUniverse tokenUniverse;
+
+    @Autowired
+    private PriceMatrix priceMatrix;
+
     private Token token;
 
     @BeforeEach
@@ -54,19 +96,65 @@ public class TokenServiceTest {
     @Test
     public void whenFetchAndUpdateTokenPrices_UpdateTokenPrices() {
         when(tokenRepository.findAll()).thenReturn(Arrays.asList(token));
-        when(tokenRepository.findById(anyString())).thenReturn(null);
 
-        TokenDataDTO dataDTO = new TokenDataDTO("bitcoin", null, "BTC", null, null, null, null, null, "5000.00", null, null);
-        TokenResponseDTO responseDTO = new TokenResponseDTO(dataDTO);
+        TokenPriceDTO dataDTO = new TokenPriceDTO("bitcoin", "BTC", 5000.00);
+        TokenPriceListDTO responseDTO = new TokenPriceListDTO(List.of(dataDTO));
+
+        when(restTemplate.getForObject(anyString(), eq(TokenPriceListDTO.class))).thenReturn(responseDTO);
+        when(tokenRepository.updatePrices(anyList())).thenReturn(1);
+
+        TokenPriceUpdateResultDTO result = tokenService.updateAllTokenPrices();
+
+        verify(tokenRepository, times(1)).updatePrices(List.of(token));
+        assertEquals(5000.00, token.getPrice());
+        assertEquals(1, result.refreshed());
+        assertEquals(1, result.requests());
+    }
+
+    @Test
+    public void whenFetchAndUpdateTokenPricesBatchDisabled_UpdateTokenPricesPerToken() {
+        ReflectionTestUtils.setField(tokenService, "batchEnabled", false);
+        when(tokenRepository.findAll()).thenReturn(Arrays.asList(token));
+
+        TokenPriceDTO responseDTO = new TokenPriceDTO("bitcoin", "BTC", 5000.00);
 
-        when(restTemplate.getForObject(anyString(), eq(TokenResponseDTO.class))).thenReturn(responseDTO);
+        when(restTemplate.getForObject(anyString(), eq(TokenPriceDTO.class))).thenReturn(responseDTO);
 
         tokenService.updateAllTokenPrices();
 
-        verify(tokenRepository, times(1)).save(token);
+        verify(tokenRepository, times(1)).updatePrices(List.of(token));
+        verify(tokenRepository, never()).save(token);
         assertEquals(5000.00, token.getPrice());
     }
 
+    @Test
+    public void whenUpdateAllTokenPricesInChunks_OneRequestPerChunk() {
+        ReflectionTestUtils.setField(tokenService, "batchSize", 2);
+        List<Token> tokens = List.of(
+            Token.builder().id("bitcoin").symbol("BTC").price(1.0).build(),
+            Token.builder().id("ethereum").symbol("ETH").price(1.0).build(),
+            Token.builder().id("tether").symbol("USDT").price(1.0).build(),
+            Token.builder().id("solana").symbol("SOL").price(1.0).build(),
+            Token.builder().id("cardano").symbol("ADA").price(1.0).build());
+        when(tokenRepository.findAll()).thenReturn(tokens);
+        when(tokenRepository.updatePrices(anyList())).thenAnswer(invocation -> invocation.<List<Token>>getArgument(0).size());
+
+        when(restTemplate.getForObject(anyString(), eq(TokenPriceListDTO.class))).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            String ids = UriComponentsBuilder.fromUriString(url).build().getQueryParams().getFirst("ids");
+            return new TokenPriceListDTO(Arrays.stream(ids.split(","))
+                .map(id -> new TokenPriceDTO(id, null, 2.0))
+                .toList());
+        });
+
+        TokenPriceUpdateResultDTO result = tokenService.updateAllTokenPrices();
+
+        verify(restTemplate, times(3)).getForObject(anyString(), eq(TokenPriceListDTO.class));
+        assertEquals(5, result.refreshed());
+        assertEquals(3, result.requests());
+        tokens.forEach(updated -> assertEquals(2.0, updated.getPrice()));
+    }
+
     @Test
     public void whenUpdateAllTokenPricesNoToken_NoUpdate() {
         when(tokenRepository.findAll()).thenReturn(Arrays.asList());
@@ -75,16 +163,332 @@ public class TokenServiceTest {
 
         verify(tokenService, never()).fetchAndUpdateTokenPrice(eq(token));
         verify(tokenRepository, never()).save(token);
+        verify(tokenRepository, never()).updatePrices(anyList());
     }
 
     @Test
     public void whenFetchTokenPricesWithRetry_PriceFetched() {
-        when(restTemplate.getForObject(anyString(), eq(TokenResponseDTO.class)))
-            .thenReturn(new TokenResponseDTO(
-                new TokenDataDTO("bitcoin", null, "BTC", null, null, null, null, null, "5000.00", null, null)));
+        when(restTemplate.getForObject(anyString(), eq(TokenPriceDTO.class)))
+            .thenReturn(new TokenPriceDTO("bitcoin", "BTC", 5000.00));
         
         Double price = tokenService.fetchTokenPriceWithRetry(token);
 
         assertEquals(5000.00, price);
     }
+
+    @Test
+    public void whenFetchTokenPriceFailsOnce_thenRetried() {
+        Token flakyToken = Token.builder().id("flaky-coin").symbol("FLK").price(1.00).build();
+
+        when(restTemplate.getForObject(contains("/flaky-coin"), eq(TokenPriceDTO.class)))
+            .thenThrow(new ResourceAccessException("Connection reset"))
+            .thenReturn(new TokenPriceDTO("flaky-coin", "FLK", 7.00));
+
+        Double price = tokenService.fetchTokenPriceWithRetry(flakyToken);
+
+        verify(restTemplate, times(2)).getForObject(contains("/flaky-coin"), eq(TokenPriceDTO.class));
+        assertEquals(7.00, price);
+    }
+
+    @Test
+    public void whenUpstreamKeepsThrottling_thenNotRetriedAgainAfterGovernor() {
+        Token throttledToken = Token.builder().id("always-throttled-coin").symbol("ATH").price(1.00).build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "0");
+
+        when(restTemplate.getForObject(contains("/always-throttled-coin"), eq(TokenPriceDTO.class)))
+            .thenThrow(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers, null, null));
+
+        assertThrows(TokenPriceException.class, () -> tokenService.fetchTokenPriceWithRetry(throttledToken));
+
+        // Only the governor's attempts (upstream.rate.throttle.retry.max + 1).
+        verify(restTemplate, times(4)).getForObject(contains("/always-throttled-coin"), eq(TokenPriceDTO.class));
+    }
+
+    @Test
+    public void whenUpstreamThrottles_thenRequestRetriedAfterRetryAfter() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "0");
+
+        when(restTemplate.getForObject(contains("/throttled-coin"), eq(TokenPriceDTO.class)))
+            .thenThrow(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers, null, null))
+            .thenReturn(new TokenPriceDTO("throttled-coin", "THR", 42.00));
+
+        Optional<Double> price = tokenService.fetchTokenPrice("throttled-coin");
+
+        verify(restTemplate, times(2)).getForObject(contains("/throttled-coin"), eq(TokenPriceDTO.class));
+        assertEquals(42.00, price.get());
+    }
+
+    @Test
+    public void whenFetchHistoricalPricesTwice_thenHistoryFetchedOnce() {
+        Token cachedToken = Token.builder().id("cached-coin").symbol("CCH").price(150.00).build();
+        Asset asset = Asset.builder().token(cachedToken).quantity(2.0).build();
+        LocalDate date = LocalDate.now().minusDays(10);
+
+        when(restTemplate.getForObject(contains("cached-coin/history"), eq(PriceHistoryDTO.class)))
+            .thenReturn(new PriceHistoryDTO(new long[] { 1L }, new double[] { 100.00 }));
+
+        Optional<WalletEvaluationResponseDTO> first = tokenService.fetchHistoricalPrices(List.of(asset), date);
+        Optional<WalletEvaluationResponseDTO> second = tokenService.fetchHistoricalPrices(List.of(asset), date);
+
+        verify(restTemplate, times(1)).getForObject(contains("cached-coin/history"), eq(PriceHistoryDTO.class));
+        assertEquals(200.00, first.get().total());
+        assertEquals(first.get(), second.get());
+    }
+
+    @Test
+    public void whenEvaluationDeadlineExpires_thenReturnPartialResult() {
+        Token fastToken = Token.builder().id("fast-coin").symbol("FST").price(20.00).build();
+        Token slowToken = Token.builder().id("slow-coin").symbol("SLW").price(20.00).build();
+        List<Asset> assets = List.of(
+            Asset.builder().token(fastToken).quantity(1.0).build(),
+            Asset.builder().token(slowToken).quantity(1.0).build());
+        LocalDate date = LocalDate.now().minusDays(20);
+
+        when(restTemplate.getForObject(contains("fast-coin/history"), eq(PriceHistoryDTO.class)))
+            .thenReturn(new PriceHistoryDTO(new long[] { 1L }, new double[] { 10.00 }));
+        when(restTemplate.getForObject(contains("slow-coin/history"), eq(PriceHistoryDTO.class)))
+            .thenAnswer(invocation -> {
+                Thread.sleep(10_000L);
+                return new PriceHistoryDTO(new long[] { 1L }, new double[] { 10.00 });
+            });
+
+        Optional<WalletEvaluationResponseDTO> result = tokenService.fetchHistoricalPrices(assets, date, Duration.ofMillis(500));
+
+        assertEquals(10.00, result.get().total());
+        assertEquals(true, result.get().partial());
+        assertEquals(List.of("FST"), result.get().priced_assets());
+        assertEquals(List.of("SLW"), result.get().timed_out_assets());
+    }
+
+    @Test
+    public void whenEvaluateUnknownSymbols_thenResolvedConcurrentlyAndSavedOnce() {
+        List<AssetDTO> assets = List.of(
+            AssetDTO.builder().symbol("KNW").quantity(1.0).value(20.00).build(),
+            AssetDTO.builder().symbol("NW1").quantity(1.0).value(30.00).build(),
+            AssetDTO.builder().symbol("NW2").quantity(2.0).value(40.00).build());
+        LocalDate date = LocalDate.now().minusDays(30);
+
+        when(restTemplate.getForObject(contains("search=NW1"), eq(TokenPriceListDTO.class)))
+            .thenReturn(new TokenPriceListDTO(List.of(new TokenPriceDTO("new-coin-1", "NW1", 30.00))));
+        when(restTemplate.getForObject(contains("search=NW2"), eq(TokenPriceListDTO.class)))
+            .thenReturn(new TokenPriceListDTO(List.of(new TokenPriceDTO("new-coin-2", "NW2", 20.00))));
+        when(restTemplate.getForObject(contains("-coin"), eq(PriceHistoryDTO.class)))
+            .thenReturn(new PriceHistoryDTO(new long[] { 1L }, new double[] { 10.00 }));
+
+        Optional<WalletEvaluationResponseDTO> result = tokenService.fetchHistoricalPrices(assets, date, Map.of("KNW", "known-coin"));
+
+        ArgumentCaptor<Collection<Token>> savedTokens = ArgumentCaptor.forClass(Collection.class);
+        verify(tokenRepository, times(1)).saveAll(savedTokens.capture());
+        assertEquals(Set.of("new-coin-1", "new-coin-2"), savedTokens.getValue().stream().map(Token::getId).collect(Collectors.toSet()));
+        assertEquals(40.00, result.get().total());
+    }
+
+    @Test
+    public void whenTokenUniverseLoaded_thenSymbolsResolvedLocally() {
+        ReflectionTestUtils.setField(tokenService, "universePageSize", 2);
+
+        when(restTemplate.getForObject(contains("offset=0"), eq(TokenPriceListDTO.class)))
+            .thenReturn(new TokenPriceListDTO(List.of(
+                new TokenPriceDTO("universe-one", "UV1", "Universe One", 1.00),
+                new TokenPriceDTO("universe-two", "UV2", "Universe Two", 2.00))));
+        when(restTemplate.getForObject(contains("offset=2"), eq(TokenPriceListDTO.class)))
+            .thenReturn(new TokenPriceListDTO(List.of(new TokenPriceDTO("universe-three", "UV3", "Universe Three", 3.00))));
+        when(restTemplate.getForObject(contains("/universe-"), eq(TokenPriceDTO.class)))
+            .thenReturn(new TokenPriceDTO("universe-two", "UV2", 2.50));
+        when(restTemplate.getForObject(contains("search=UVX"), eq(TokenPriceListDTO.class)))
+            .thenReturn(new TokenPriceListDTO(List.of()));
+
+        try {
+            assertEquals(3, tokenService.loadTokenUniverse());
+
+            assertEquals("universe-two", tokenService.fetchTokenDetails("uv2").get().getId());
+            assertEquals("universe-two", tokenService.fetchTokenDetails("UV2").get().getId());
+            assertEquals("universe-three", tokenService.fetchTokenDetails("Universe Three").get().getId());
+            assertTrue(tokenService.fetchTokenDetails("UVX").isEmpty());
+            assertTrue(tokenService.fetchTokenDetails("UVX").isEmpty());
+
+            verify(restTemplate, never()).getForObject(contains("search=UV2"), eq(TokenPriceListDTO.class));
+            verify(restTemplate, times(1)).getForObject(contains("search=UVX"), eq(TokenPriceListDTO.class));
+            // The second lookup of universe-two reads its fresh price from the price book.
+            verify(restTemplate, times(1)).getForObject(contains("/universe-two"), eq(TokenPriceDTO.class));
+        } finally {
+            tokenUniverse.replace(List.of());
+        }
+    }
+
+    @Test
+    public void whenResolveTokens_thenStoredTokensReadOnceAndPricesFetchedInOneRequest() {
+        Token stored = Token.builder().id("import-stored").symbol("IMS").price(1.00).build();
+
+        when(tokenRepository.findAllBySymbolIn(anyList())).thenReturn(List.of(stored));
+        when(restTemplate.getForObject(contains("ids=import-stored"), eq(TokenPriceListDTO.class)))
+            .thenReturn(new TokenPriceListDTO(List.of(new TokenPriceDTO("import-stored", "IMS", 2.00))));
+        when(restTemplate.getForObject(contains("search=IMN"), eq(TokenPriceListDTO.class)))
+            .thenReturn(new TokenPriceListDTO(List.of(new TokenPriceDTO("import-new", "IMN", 3.00))));
+        when(restTemplate.getForObject(contains("search=IMX"), eq(TokenPriceListDTO.class)))
+            .thenReturn(new TokenPriceListDTO(List.of()));
+
+        Map<String, Token> tokens = tokenService.resolveTokens(List.of("IMS", "IMN", "IMX"));
+
+        assertEquals(Set.of("IMS", "IMN"), tokens.keySet());
+        assertEquals(2.00, tokens.get("IMS").getPrice());
+        assertEquals("import-new", tokens.get("IMN").getId());
+        verify(tokenRepository, times(1)).findAllBySymbolIn(anyList());
+        verify(tokenRepository, times(1)).saveAll(List.of(tokens.get("IMN")));
+        verify(tokenRepository, times(1)).updatePrices(List.of(stored));
+        verify(restTemplate, times(1)).getForObject(contains("ids="), eq(TokenPriceListDTO.class));
+    }
+
+    @Test
+    public void whenHistoricalPriceStoredLocally_thenNoUpstreamCall() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        LocalDate date = LocalDate.now(ZoneOffset.UTC).minusDays(3);
+        long start = date.atTime(now.getHour(), now.getMinute()).toInstant(ZoneOffset.UTC).toEpochMilli();
+        // A point for the next minute too, in case the minute changes before the evaluation.
+        priceHistoryRepository.saveAllIgnoringDuplicates(List.of(
+            new PricePoint("local-coin", "m1", start, 50.00),
+            new PricePoint("local-coin", "m1", start + 60_000L, 50.00)));
+
+        Token localToken = Token.builder().id("local-coin").symbol("LCL").price(100.00).build();
+        Asset asset = Asset.builder().token(localToken).quantity(3.0).build();
+
+        Optional<WalletEvaluationResponseDTO> result = tokenService.fetchHistoricalPrices(List.of(asset), date);
+
+        verify(restTemplate, never()).getForObject(contains("local-coin/history"), eq(PriceHistoryDTO.class));
+        assertEquals(150.00, result.get().total());
+        assertEquals(100.00, result.get().best_performance());
+    }
+
+    @Test
+    public void whenOnlyHourlyPriceStoredLocally_thenMinutePriceFetched() {
+        long start = LocalDate.now(ZoneOffset.UTC).minusDays(4).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        priceHistoryRepository.saveAllIgnoringDuplicates(List.of(new PricePoint("hourly-coin", "h1", start, 999.00)));
+
+        when(restTemplate.getForObject(contains("hourly-coin/history?interval=m1"), eq(PriceHistoryDTO.class)))
+            .thenReturn(new PriceHistoryDTO(new long[] { start }, new double[] { 50.00 }));
+
+        assertEquals(50.00, tokenService.fetchHistoricalPrice("hourly-coin", start, start + 60_000L).getAsDouble());
+        verify(restTemplate, times(1)).getForObject(contains("hourly-coin/history?interval=m1"), eq(PriceHistoryDTO.class));
+    }
+
+    @Test
+    public void whenFetchHourlyHistory_thenPointsKeptOutOfPriceMatrix() {
+        long start = LocalDate.now(ZoneOffset.UTC).minusDays(8).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        when(restTemplate.getForObject(contains("matrix-coin/history?interval=h1"), eq(PriceHistoryDTO.class)))
+            .thenReturn(new PriceHistoryDTO(new long[] { start }, new double[] { 999.00 }));
+        when(restTemplate.getForObject(contains("matrix-coin/history?interval=m1"), eq(PriceHistoryDTO.class)))
+            .thenReturn(new PriceHistoryDTO(new long[] { start }, new double[] { 50.00 }));
+
+        tokenService.fetchPriceHistory("matrix-coin", "h1", start, start + 3_600_000L);
+
+        assertTrue(priceMatrix.priceAt("matrix-coin", start).isEmpty());
+
+        tokenService.fetchPriceHistory("matrix-coin", "m1", start, start + 60_000L);
+
+        assertEquals(50.00, priceMatrix.priceAt("matrix-coin", start).getAsDouble());
+    }
+
+    @Test
+    public void whenRangeHistoryPartlyStored_thenOnlyMissingSpanFetched() {
+        long start = LocalDate.now(ZoneOffset.UTC).minusDays(12).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        long hour = 3_600_000L;
+        priceHistoryRepository.saveAllIgnoringDuplicates(List.of(
+            new PricePoint("gap-coin", "h1", start, 1.00),
+            new PricePoint("gap-coin", "h1", start + hour, 2.00),
+            new PricePoint("gap-coin", "h1", start + 2 * hour, 3.00)));
+
+        when(restTemplate.getForObject(contains("gap-coin/history"), eq(PriceHistoryDTO.class)))
+            .thenReturn(new PriceHistoryDTO(new long[] { start + 3 * hour, start + 4 * hour }, new double[] { 4.00, 5.00 }));
+
+        PriceHistoryDTO stored = tokenService.fetchPriceHistory("gap-coin", "h1", start, start + 3 * hour);
+        PriceHistoryDTO merged = tokenService.fetchPriceHistory("gap-coin", "h1", start, start + 5 * hour);
+
+        ArgumentCaptor<String> url = ArgumentCaptor.forClass(String.class);
+        verify(restTemplate, times(1)).getForObject(url.capture(), eq(PriceHistoryDTO.class));
+        assertTrue(url.getValue().contains("start=" + (start + 3 * hour)));
+        assertEquals(3, stored.size());
+        assertEquals(5, merged.size());
+        assertEquals(5.00, merged.priceAt(4));
+    }
+
+    @Test
+    public void whenPastPriceKnown_thenCurrentHoldingsValuedWithoutFetching() {
+        Token snapshotToken = Token.builder().id("snapshot-coin").symbol("SNP").price(100.00).build();
+        Asset asset = Asset.builder().token(snapshotToken).quantity(4.0).build();
+        LocalDate date = LocalDate.now(ZoneOffset.UTC).minusDays(15);
+
+        Optional<WalletEvaluationResponseDTO> single = tokenService.fetchHistoricalPrices(List.of(asset), date, null, 
+                    Map.of("snapshot-coin", 50.00));
+        Map<UUID, WalletEvaluationResponseDTO> bulk = tokenService.fetchHistoricalPricesForWallets(
+                    Map.of(UUID.randomUUID(), List.of(asset)), date, Map.of("snapshot-coin", 50.00));
+
+        verify(restTemplate, never()).getForObject(contains("snapshot-coin/history"), eq(PriceHistoryDTO.class));
+        assertEquals(200.00, single.get().total());
+        assertEquals(100.00, single.get().best_performance());
+        assertEquals(single.get(), bulk.values().iterator().next());
+    }
+
+    @Test
+    public void whenEvaluateAtSeveralDates_thenOneHistoryRequestPerToken() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<LocalDate> dates = List.of(today.minusDays(5), today.minusDays(4), today.minusDays(3));
+        long first = today.minusDays(6).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+
+        // Hourly points for a week, the price is the number of days since the first point.
+        long[] time = new long[7 * 24];
+        double[] price = new double[7 * 24];
+        for (int i = 0; i < time.length; i++) {
+            time[i] = first + i * 3_600_000L;
+            price[i] = 1 + i / 24;
+        }
+
+        when(restTemplate.getForObject(contains("range-coin/history"), eq(PriceHistoryDTO.class)))
+            .thenReturn(new PriceHistoryDTO(time, price));
+
+        Token rangeToken = Token.builder().id("range-coin").symbol("RNG").price(4.00).build();
+        List<Asset> assets = List.of(
+            Asset.builder().token(rangeToken).quantity(1.0).build(),
+            Asset.builder().token(rangeToken).quantity(2.0).build());
+
+        SortedMap<LocalDate, WalletEvaluationResponseDTO> result = tokenService.fetchHistoricalPricesAtDates(assets, dates);
+
+        verify(restTemplate, times(1)).getForObject(contains("range-coin/history?interval=h1"), eq(PriceHistoryDTO.class));
+        assertEquals(dates, List.copyOf(result.keySet()));
+        assertEquals(6.00, result.get(dates.get(0)).total());
+        assertEquals(12.00, result.get(dates.get(2)).total());
+        assertEquals(100.00, result.get(dates.get(0)).best_performance());
+        assertEquals(0.00, result.get(dates.get(2)).best_performance());
+    }
+
+    @Test
+    public void whenEvaluateWallets_thenOneHistoryRequestPerDistinctToken() {
+        Token shared = Token.builder().id("shared-coin").symbol("SHR").price(200.00).build();
+        Token single = Token.builder().id("single-coin").symbol("SGL").price(50.00).build();
+        LocalDate date = LocalDate.now().minusDays(20);
+
+        when(restTemplate.getForObject(contains("shared-coin/history"), eq(PriceHistoryDTO.class)))
+            .thenReturn(new PriceHistoryDTO(new long[] { 1L }, new double[] { 100.00 }));
+        when(restTemplate.getForObject(contains("single-coin/history"), eq(PriceHistoryDTO.class)))
+            .thenReturn(new PriceHistoryDTO(new long[] { 1L }, new double[] { 100.00 }));
+
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        Map<UUID, WalletEvaluationResponseDTO> result = tokenService.fetchHistoricalPricesForWallets(Map.of(
+            first, List.of(Asset.builder().token(shared).quantity(1.0).build()),
+            second, List.of(Asset.builder().token(shared).quantity(2.0).build(), Asset.builder().token(single).quantity(1.0).build()),
+            third, List.of(Asset.builder().token(shared).quantity(3.0).build())), date);
+
+        verify(restTemplate, times(1)).getForObject(contains("shared-coin/history"), eq(PriceHistoryDTO.class));
+        verify(restTemplate, times(1)).getForObject(contains("single-coin/history"), eq(PriceHistoryDTO.class));
+        assertEquals(3, result.size());
+        assertEquals(100.00, result.get(first).total());
+        assertEquals(300.00, result.get(second).total());
+        assertEquals("SHR", result.get(second).best_asset());
+        assertEquals("SGL", result.get(second).worst_asset());
+    }
 }
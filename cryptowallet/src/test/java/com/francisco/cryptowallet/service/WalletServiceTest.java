@@ -5,15 +5,22 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -22,16 +29,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.francisco.cryptowallet.domain.Asset;
+import com.francisco.cryptowallet.domain.Token;
 import com.francisco.cryptowallet.domain.Wallet;
+import com.francisco.cryptowallet.domain.WalletSummary;
 import com.francisco.cryptowallet.dto.WalletDTO;
 import com.francisco.cryptowallet.dto.WalletEvaluationResponseDTO;
+import com.francisco.cryptowallet.dto.WalletSummaryDTO;
+import com.francisco.cryptowallet.exception.InvalidRequestException;
 import com.francisco.cryptowallet.exception.NotFoundException;
 import com.francisco.cryptowallet.exception.WalletAlreadyExistsException;
 import com.francisco.cryptowallet.exception.WalletNotFoundException;
 import com.francisco.cryptowallet.mapper.WalletMapper;
+import com.francisco.cryptowallet.repository.AssetRepository;
 import com.francisco.cryptowallet.repository.WalletRepository;
+import com.francisco.cryptowallet.repository.WalletSummaryRepository;
 
 @ExtendWith(MockitoExtension.class)
 public class WalletServiceTest {
@@ -39,12 +53,21 @@ public class WalletServiceTest {
     @Mock
     private WalletRepository walletRepository;
 
+    @Mock
+    private AssetRepository assetRepository;
+
     @Mock
     private TokenService tokenService;
 
     @Mock
     private WalletMapper walletMapper;
 
+    @Mock
+    private WalletSnapshotService walletSnapshotService;
+
+    @Mock
+    private WalletSummaryRepository walletSummaryRepository;
+
     @InjectMocks
     private WalletService walletService;
 
@@ -88,7 +111,7 @@ public class WalletServiceTest {
 
     @Test
     public void whenGetWalletById_thenReturnWallet() {
-        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findWithAssetsById(walletId)).thenReturn(Optional.of(wallet));
         when(walletMapper.walletToWalletDTO(wallet)).thenReturn(walletDto);
 
         WalletDTO retrievedWallet = walletService.getWallet(walletId);
@@ -99,14 +122,14 @@ public class WalletServiceTest {
 
     @Test
     public void whenGetWalletByIdNotFound_thenThrowWalletNotFoundException() {
-        when(walletRepository.findById(walletId)).thenReturn(Optional.empty());
+        when(walletRepository.findWithAssetsById(walletId)).thenReturn(Optional.empty());
 
         assertThrows(WalletNotFoundException.class, () -> walletService.getWallet(walletId));
     }
 
     @Test
     public void whenGetWalletByEmail_thenReturnWallet() {
-        when(walletRepository.findByEmail(email)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findWithAssetsByEmail(email)).thenReturn(Optional.of(wallet));
         when(walletMapper.walletToWalletDTO(wallet)).thenReturn(walletDto);
 
         WalletDTO retrievedWallet = walletService.getWallet(email);
@@ -115,9 +138,45 @@ public class WalletServiceTest {
         assertEquals(email, retrievedWallet.email());
     }
 
+    @Test
+    public void whenGetWalletSummary_thenReadSummaryRow() {
+        when(walletSummaryRepository.findById(walletId))
+            .thenReturn(Optional.of(new WalletSummary(walletId, 3000.00, 2, 1000L, 2000L)));
+
+        WalletSummaryDTO summary = walletService.getWalletSummary(walletId);
+
+        assertEquals(3000.00, summary.total());
+        assertEquals(2, summary.asset_count());
+        assertEquals(2000L, summary.updated_at());
+        verify(walletSummaryRepository, never()).refresh(walletId);
+        verify(walletRepository, never()).findWithAssetsById(walletId);
+    }
+
+    @Test
+    public void whenGetWalletSummaryMissing_thenSummaryComputed() {
+        when(walletSummaryRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(walletRepository.findByEmail(email)).thenReturn(Optional.of(wallet));
+        when(walletSummaryRepository.refresh(walletId)).thenReturn(1);
+        when(walletSummaryRepository.findById(walletId))
+            .thenReturn(Optional.of(new WalletSummary(walletId, 0.00, 0, 0L, 2000L)));
+
+        WalletSummaryDTO summary = walletService.getWalletSummary(email);
+
+        assertEquals(walletId, summary.id());
+        assertEquals(0, summary.asset_count());
+    }
+
+    @Test
+    public void whenGetWalletSummaryWalletNotFound_thenThrowWalletNotFoundException() {
+        when(walletSummaryRepository.findById(walletId)).thenReturn(Optional.empty());
+        when(walletSummaryRepository.refresh(walletId)).thenReturn(0);
+
+        assertThrows(WalletNotFoundException.class, () -> walletService.getWalletSummary(walletId));
+    }
+
     @Test
     public void whenGetWalletByEmailNotFound_thenThrowWalletNotFoundException() {
-        when(walletRepository.findByEmail(email)).thenReturn(Optional.empty());
+        when(walletRepository.findWithAssetsByEmail(email)).thenReturn(Optional.empty());
 
         assertThrows(WalletNotFoundException.class, () -> walletService.getWallet(email));
     }
@@ -132,8 +191,8 @@ public class WalletServiceTest {
 
         WalletEvaluationResponseDTO responseDTO = new WalletEvaluationResponseDTO(5000.00, email, null, email, null);
         
-        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
-        when(tokenService.fetchHistoricalPrices(anyList(), eq(date))).thenReturn(Optional.of(responseDTO));
+        when(walletRepository.findWithAssetsById(walletId)).thenReturn(Optional.of(wallet));
+        when(tokenService.fetchHistoricalPrices(anyList(), eq(date), isNull(Duration.class), anyMap())).thenReturn(Optional.of(responseDTO));
 
         WalletEvaluationResponseDTO result = walletService.evaluateWallet(walletId, date);
 
@@ -144,7 +203,7 @@ public class WalletServiceTest {
     @Test
     public void whenEvaluateWalletNotFound_thenThrowWalletNotFoundException() {
         LocalDate date = LocalDate.now();
-        when(walletRepository.findById(walletId)).thenReturn(Optional.empty());
+        when(walletRepository.findWithAssetsById(walletId)).thenReturn(Optional.empty());
 
         assertThrows(WalletNotFoundException.class, () -> walletService.evaluateWallet(walletId, date));
     }
@@ -153,7 +212,7 @@ public class WalletServiceTest {
     public void whenEvaluateEmptyWallet_thenThrowNotFoundException() {
         LocalDate date = LocalDate.now();
         wallet.setAssets(List.of());
-        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findWithAssetsById(walletId)).thenReturn(Optional.of(wallet));
 
         assertThrows(NotFoundException.class, () -> walletService.evaluateWallet(walletId, date));
     }
@@ -164,9 +223,88 @@ public class WalletServiceTest {
         Asset asset = new Asset();
         wallet.setAssets(List.of(asset));
 
-        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
-        when(tokenService.fetchHistoricalPrices(anyList(), eq(date))).thenReturn(Optional.empty());
+        when(walletRepository.findWithAssetsById(walletId)).thenReturn(Optional.of(wallet));
+        when(tokenService.fetchHistoricalPrices(anyList(), eq(date), isNull(Duration.class), anyMap())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> walletService.evaluateWallet(walletId, date));
     }
+
+    @Test
+    public void whenEvaluateWalletAtDates_thenReturnEvaluationByDate() {
+        ReflectionTestUtils.setField(walletService, "maxEvaluationDates", 366);
+        LocalDate from = LocalDate.now().minusDays(3);
+        LocalDate to = LocalDate.now().minusDays(1);
+        wallet.getAssets().add(new Asset());
+
+        WalletEvaluationResponseDTO responseDTO = new WalletEvaluationResponseDTO(5000.00, "BTC", 1.0, "BTC", 1.0);
+        List<LocalDate> dates = List.of(from, from.plusDays(1), to);
+
+        when(walletRepository.findWithAssetsById(walletId)).thenReturn(Optional.of(wallet));
+        when(tokenService.fetchHistoricalPricesAtDates(anyList(), eq(dates)))
+            .thenReturn(new TreeMap<>(Map.of(from, responseDTO, to, responseDTO)));
+
+        SortedMap<LocalDate, WalletEvaluationResponseDTO> result = walletService.evaluateWalletBetween(walletId, from, to);
+
+        assertEquals(List.of(from, to), List.copyOf(result.keySet()));
+    }
+
+    @Test
+    public void whenEvaluateWalletAtTooManyDates_thenThrowInvalidRequestException() {
+        ReflectionTestUtils.setField(walletService, "maxEvaluationDates", 2);
+        LocalDate to = LocalDate.now();
+
+        assertThrows(InvalidRequestException.class, () -> walletService.evaluateWalletBetween(walletId, to.minusDays(2), to));
+        assertThrows(InvalidRequestException.class, () -> walletService.evaluateWalletBetween(walletId, to, to.minusDays(1)));
+        assertThrows(InvalidRequestException.class, () -> walletService.evaluateWalletAtDates(walletId, List.of()));
+        verify(walletRepository, never()).findWithAssetsById(walletId);
+    }
+
+    @Test
+    public void whenEvaluateWallets_thenAssetsGroupedByWallet() {
+        ReflectionTestUtils.setField(walletService, "maxBulkWallets", 10);
+        LocalDate date = LocalDate.now().minusDays(1);
+        Token token = Token.builder().id("bitcoin").symbol("BTC").price(1.0).build();
+
+        Wallet other = Wallet.builder().id(UUID.randomUUID()).build();
+        Asset first = Asset.builder().wallet(wallet).token(token).quantity(1.0).build();
+        Asset second = Asset.builder().wallet(other).token(token).quantity(2.0).build();
+        Asset third = Asset.builder().wallet(wallet).token(token).quantity(3.0).build();
+
+        WalletEvaluationResponseDTO responseDTO = new WalletEvaluationResponseDTO(5000.00, "BTC", 1.0, "BTC", 1.0);
+
+        when(assetRepository.findAllWithTokenByWalletIdIn(any())).thenReturn(List.of(first, second, third));
+        when(walletSnapshotService.snapshotPrices(Set.of(walletId, other.getId()), date)).thenReturn(Map.of("bitcoin", 100.0));
+        when(tokenService.fetchHistoricalPricesForWallets(
+                Map.of(walletId, List.of(first, third), other.getId(), List.of(second)), date, Map.of("bitcoin", 100.0)))
+            .thenReturn(Map.of(walletId, responseDTO, other.getId(), responseDTO));
+
+        Map<UUID, WalletEvaluationResponseDTO> result = walletService.evaluateWallets(List.of(walletId, other.getId()), date);
+
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    public void whenEvaluateTooManyWallets_thenThrowInvalidRequestException() {
+        ReflectionTestUtils.setField(walletService, "maxBulkWallets", 1);
+
+        assertThrows(InvalidRequestException.class, 
+                    () -> walletService.evaluateWallets(List.of(UUID.randomUUID(), UUID.randomUUID()), LocalDate.now()));
+        verify(assetRepository, never()).findAllWithTokenByWalletIdIn(any());
+    }
+
+    @Test
+    public void whenEvaluateSnapshottedWallet_thenSnapshotPricesAppliedToCurrentHoldings() {
+        LocalDate date = LocalDate.now().minusDays(1);
+        wallet.getAssets().add(new Asset());
+        WalletEvaluationResponseDTO responseDTO = new WalletEvaluationResponseDTO(5000.00, "BTC", 1.0, "BTC", 1.0);
+
+        when(walletRepository.findWithAssetsById(walletId)).thenReturn(Optional.of(wallet));
+        when(walletSnapshotService.snapshotPrices(walletId, date)).thenReturn(Map.of("bitcoin", 100.0));
+        when(tokenService.fetchHistoricalPrices(wallet.getAssets(), date, null, Map.of("bitcoin", 100.0)))
+            .thenReturn(Optional.of(responseDTO));
+
+        WalletEvaluationResponseDTO result = walletService.evaluateWallet(walletId, date);
+
+        assertEquals(responseDTO, result);
+    }
 }
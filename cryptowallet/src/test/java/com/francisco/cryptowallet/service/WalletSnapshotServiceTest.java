@@ -0,0 +1,179 @@
+package com.francisco.cryptowallet.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.francisco.cryptowallet.client.RateGovernor.Priority;
+import com.francisco.cryptowallet.domain.Asset;
+import com.francisco.cryptowallet.domain.Token;
+import com.francisco.cryptowallet.domain.Wallet;
+import com.francisco.cryptowallet.domain.WalletSnapshot;
+import com.francisco.cryptowallet.domain.WalletSnapshotPosition;
+import com.francisco.cryptowallet.repository.AssetRepository;
+import com.francisco.cryptowallet.repository.WalletRepository;
+import com.francisco.cryptowallet.repository.WalletSnapshotPositionRepository;
+import com.francisco.cryptowallet.repository.WalletSnapshotRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class WalletSnapshotServiceTest {
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private WalletSnapshotRepository walletSnapshotRepository;
+
+    @Mock
+    private WalletSnapshotPositionRepository walletSnapshotPositionRepository;
+
+    @Mock
+    private TokenService tokenService;
+
+    @InjectMocks
+    private WalletSnapshotService walletSnapshotService;
+
+    private final LocalDate date = LocalDate.of(2025, 2, 7);
+
+    private final Token bitcoin = Token.builder().id("bitcoin").symbol("BTC").price(150.0).build();
+
+    private final Token ethereum = Token.builder().id("ethereum").symbol("ETH").price(20.0).build();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(walletSnapshotService, "chunkSize", 2);
+        ReflectionTestUtils.setField(walletSnapshotService, "maxThreads", 2);
+    }
+
+    private static Asset asset(UUID walletId, Token token, double quantity) {
+        return Asset.builder().wallet(Wallet.builder().id(walletId).build()).token(token).quantity(quantity).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void whenCreateSnapshots_thenEveryWalletSnapshottedInChunks() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID empty = UUID.randomUUID();
+        long cutoff = date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+        when(assetRepository.findDistinctTokenIds()).thenReturn(List.of("bitcoin", "ethereum"));
+        when(tokenService.fetchHistoricalPrices(anyCollection(), eq(cutoff), anyLong(), eq(Priority.BACKGROUND)))
+            .thenReturn(Map.of("bitcoin", 100.0, "ethereum", 10.0));
+        when(walletRepository.findIds(any(Limit.class))).thenReturn(List.of(first, second));
+        when(walletRepository.findIdsAfter(eq(second), any(Limit.class))).thenReturn(List.of(empty));
+        when(assetRepository.findAllWithTokenByWalletIdIn(List.of(first, second))).thenReturn(List.of(
+            asset(first, bitcoin, 1.0), asset(first, bitcoin, 2.0), asset(second, ethereum, 5.0)));
+        when(assetRepository.findAllWithTokenByWalletIdIn(List.of(empty))).thenReturn(List.of());
+
+        int snapshotted = walletSnapshotService.createSnapshots(date);
+
+        ArgumentCaptor<Collection<WalletSnapshot>> snapshots = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection<WalletSnapshotPosition>> positions = ArgumentCaptor.forClass(Collection.class);
+        verify(walletSnapshotRepository, times(2)).saveAllIgnoringDuplicates(snapshots.capture(), positions.capture());
+
+        Map<UUID, Double> totals = snapshots.getAllValues().stream()
+                    .flatMap(Collection::stream)
+                    .collect(Collectors.toMap(WalletSnapshot::getWalletId, WalletSnapshot::getTotal));
+
+        assertEquals(3, snapshotted);
+        assertEquals(Map.of(first, 300.0, second, 50.0, empty, 0.0), totals);
+        // The two bitcoin assets are merged in one position.
+        assertEquals(2, positions.getAllValues().stream().mapToInt(Collection::size).sum());
+    }
+
+    @Test
+    public void whenNoPriceFetched_thenNothingSnapshotted() {
+        when(assetRepository.findDistinctTokenIds()).thenReturn(List.of("bitcoin", "ethereum"));
+        when(tokenService.fetchHistoricalPrices(anyCollection(), anyLong(), anyLong(), eq(Priority.BACKGROUND))).thenReturn(Map.of());
+
+        assertEquals(0, walletSnapshotService.createSnapshots(date));
+        verify(walletRepository, never()).findIds(any(Limit.class));
+        verify(walletSnapshotRepository, never()).saveAllIgnoringDuplicates(anyCollection(), anyCollection());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void whenTokenWithoutPrice_thenWalletLeftOut() {
+        UUID priced = UUID.randomUUID();
+        UUID unpriced = UUID.randomUUID();
+
+        when(assetRepository.findDistinctTokenIds()).thenReturn(List.of("bitcoin", "ethereum"));
+        when(tokenService.fetchHistoricalPrices(anyCollection(), anyLong(), anyLong(), eq(Priority.BACKGROUND)))
+            .thenReturn(Map.of("bitcoin", 100.0));
+        when(walletRepository.findIds(any(Limit.class))).thenReturn(List.of(priced, unpriced));
+        when(walletRepository.findIdsAfter(eq(unpriced), any(Limit.class))).thenReturn(List.of());
+        when(assetRepository.findAllWithTokenByWalletIdIn(List.of(priced, unpriced))).thenReturn(List.of(
+            asset(priced, bitcoin, 1.0), asset(unpriced, bitcoin, 2.0), asset(unpriced, ethereum, 5.0)));
+
+        int snapshotted = walletSnapshotService.createSnapshots(date);
+
+        ArgumentCaptor<Collection<WalletSnapshot>> snapshots = ArgumentCaptor.forClass(Collection.class);
+        verify(walletSnapshotRepository).saveAllIgnoringDuplicates(snapshots.capture(), anyCollection());
+
+        assertEquals(1, snapshotted);
+        assertEquals(List.of(priced), snapshots.getValue().stream().map(WalletSnapshot::getWalletId).toList());
+    }
+
+    @Test
+    public void whenSnapshotPrices_thenPricesAtCutoffByToken() {
+        UUID walletId = UUID.randomUUID();
+
+        when(walletSnapshotPositionRepository.findByWalletIdAndDate(walletId, date)).thenReturn(List.of(
+            new WalletSnapshotPosition(walletId, date, "bitcoin", "BTC", 3.0, 100.0),
+            new WalletSnapshotPosition(walletId, date, "ethereum", "ETH", 5.0, 10.0)));
+
+        assertEquals(Map.of("bitcoin", 100.0, "ethereum", 10.0), walletSnapshotService.snapshotPrices(walletId, date));
+    }
+
+    @Test
+    public void whenSnapshotPricesOfSeveralWallets_thenSharedByToken() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        when(walletSnapshotPositionRepository.findByWalletIdInAndDate(List.of(first, second), date)).thenReturn(List.of(
+            new WalletSnapshotPosition(first, date, "bitcoin", "BTC", 3.0, 100.0),
+            new WalletSnapshotPosition(second, date, "bitcoin", "BTC", 1.0, 100.0),
+            new WalletSnapshotPosition(second, date, "ethereum", "ETH", 5.0, 10.0)));
+
+        assertEquals(Map.of("bitcoin", 100.0, "ethereum", 10.0), 
+                    walletSnapshotService.snapshotPrices(List.of(first, second), date));
+    }
+
+    @Test
+    public void whenNoSnapshot_thenNoPrices() {
+        UUID walletId = UUID.randomUUID();
+
+        when(walletSnapshotPositionRepository.findByWalletIdAndDate(walletId, date)).thenReturn(List.of());
+
+        assertTrue(walletSnapshotService.snapshotPrices(walletId, date).isEmpty());
+    }
+}